@@ -0,0 +1,107 @@
+package org.tron.core.actuator;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.TransactionResultCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.db.Manager;
+import org.tron.core.db.RevokingStore;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.AccountType;
+
+/**
+ * Time to validate and execute a block of transfers between a few hot accounts, the case where
+ * the revoking stores see the same keys written over and over. The dialog of a block is revoked,
+ * so every invocation starts from the same balances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+  private static final String dbPath = "output_transfer_benchmark";
+
+  @Param({"4"})
+  private int accounts;
+
+  @Param({"1000"})
+  private int transactions;
+
+  private AnnotationConfigApplicationContext context;
+  private Manager dbManager;
+  private List<Any> transfers;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+
+    List<byte[]> addresses = new ArrayList<>(accounts);
+    for (int i = 0; i < accounts; i++) {
+      byte[] address = ByteArray.fromHexString(
+          Wallet.getAddressPreFixString() + "548794500882809695a8a687866e76d4271a1a0" + i);
+      addresses.add(address);
+      dbManager.getAccountStore().put(address, new AccountCapsule(ByteString.copyFromUtf8("hot" + i),
+          ByteString.copyFrom(address), AccountType.Normal, Long.MAX_VALUE / accounts));
+    }
+
+    transfers = new ArrayList<>(transactions);
+    for (int i = 0; i < transactions; i++) {
+      transfers.add(Any.pack(TransferContract.newBuilder()
+          .setOwnerAddress(ByteString.copyFrom(addresses.get(i % accounts)))
+          .setToAddress(ByteString.copyFrom(addresses.get((i + 1) % accounts)))
+          .setAmount(1)
+          .build()));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Benchmark
+  public void executeBlock() throws Exception {
+    Dialog dialog = RevokingStore.getInstance().buildDialog(true);
+    try {
+      for (Any transfer : transfers) {
+        TransferActuator actuator = new TransferActuator(transfer, dbManager);
+        actuator.validate();
+        actuator.execute(new TransactionResultCapsule());
+      }
+    } finally {
+      dialog.close();
+    }
+  }
+}
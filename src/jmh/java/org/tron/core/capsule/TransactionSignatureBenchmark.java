@@ -0,0 +1,70 @@
+package org.tron.core.capsule;
+
+import static org.tron.core.capsule.TransferFixtures.newSignedTransfer;
+
+import com.google.protobuf.ByteString;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.exception.ValidateSignatureException;
+import org.tron.protos.Protocol.Block;
+
+/**
+ * Time to recover the transaction signers of a block against the threads of the verification
+ * pool, threads = 1 is the sequential check of the apply loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSignatureBenchmark {
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  private int threads;
+
+  @Param({"1000"})
+  private int transactions;
+
+  private ForkJoinPool pool;
+  private Block block;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool = new ForkJoinPool(threads);
+    BlockCapsule capsule = new BlockCapsule(1, Sha256Hash.ZERO_HASH, System.currentTimeMillis(),
+        ByteString.copyFrom(new ECKey().getAddress()));
+    for (int i = 0; i < transactions; i++) {
+      capsule.addTransaction(newSignedTransfer(new ECKey(), new ECKey(), i));
+    }
+    block = capsule.getInstance();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public BlockCapsule validateTransactionSignatures() throws ValidateSignatureException {
+    // a new capsule has not recorded the result of an earlier run
+    BlockCapsule capsule = new BlockCapsule(block);
+    capsule.validateTransactionSignatures(pool);
+    return capsule;
+  }
+}
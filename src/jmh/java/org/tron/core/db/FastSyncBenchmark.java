@@ -0,0 +1,166 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.BlockBuilder;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransferFixtures;
+import org.tron.core.capsule.WitnessCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.protos.Protocol.AccountType;
+
+/**
+ * Time to replay a chain of blocks of signed transfers into a fresh database, with every check or
+ * with fast sync and the last block as checkpoint. The chain is built in the setup on the genesis
+ * of the database, signed by the witness of the test config, each fork replays it once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(3)
+public class FastSyncBenchmark {
+
+  private static final String dbPath = "output_fast_sync_benchmark";
+  private static final int ACCOUNTS = 500;
+
+  @Param({"200"})
+  private int blocks;
+
+  @Param({"100"})
+  private int transactions;
+
+  @Param({"false", "true"})
+  private boolean fastSync;
+
+  private List<byte[]> chain;
+  private AnnotationConfigApplicationContext context;
+  private Manager dbManager;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Args.setParam(new String[]{"-d", dbPath, "-w"}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+    dbManager = context.getBean(Manager.class);
+    chain = buildChain(initState(dbManager));
+    if (fastSync) {
+      BlockCapsule head = new BlockCapsule(chain.get(chain.size() - 1));
+      dbManager.setCheckpoints(
+          new Checkpoints(Collections.singletonList(head.getBlockId()), true));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    long head = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+    if (head != blocks) {
+      throw new IllegalStateException("replayed up to block " + head + " of " + blocks);
+    }
+
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Benchmark
+  public long replay() throws Exception {
+    List<BlockCapsule> received = new ArrayList<>(chain.size());
+    for (byte[] bytes : chain) {
+      received.add(new BlockCapsule(bytes));
+    }
+
+    dbManager.linkCheckpoints(received);
+    for (BlockCapsule block : received) {
+      dbManager.pushBlock(block);
+    }
+    return dbManager.getTrustedBlockCount();
+  }
+
+  /**
+   * blocks of transfers between the accounts, each transaction referring to the parent block.
+   */
+  private List<byte[]> buildChain(List<ECKey> accounts) {
+    byte[] witnessKey = witnessKey();
+    ByteString witness = ByteString.copyFrom(ECKey.fromPrivate(witnessKey).getAddress());
+    List<byte[]> built = new ArrayList<>(blocks);
+    Sha256Hash parent = dbManager.getGenesisBlockId();
+    long when = System.currentTimeMillis() / 3000 * 3000;
+    for (int i = 0; i < blocks; i++) {
+      when += 3000;
+      BlockBuilder builder = new BlockBuilder(i + 1, parent, when, witness);
+      for (int j = 0; j < transactions; j++) {
+        int from = (i * transactions + j) % ACCOUNTS;
+        ECKey owner = accounts.get(from);
+        TransactionCapsule transfer = TransferFixtures.newTransfer(owner,
+            accounts.get((from + 1) % ACCOUNTS), i + 1);
+        transfer.setReference(i, parent.getBytes());
+        builder.addTransaction(TransferFixtures.sign(transfer, owner));
+      }
+      BlockCapsule block = builder.seal(witnessKey);
+      built.add(block.getData());
+      parent = block.getBlockId();
+    }
+    return built;
+  }
+
+  /**
+   * the witness of the test config as the only active one, and funded accounts.
+   */
+  private static List<ECKey> initState(Manager manager)
+      throws BadItemException, ItemNotFoundException {
+    RevokingStore.getInstance().enable();
+    manager.updateRecentBlock(manager.getBlockById(
+        manager.getDynamicPropertiesStore().getLatestBlockHeaderHash()));
+    ByteString witness = ByteString.copyFrom(ECKey.fromPrivate(witnessKey()).getAddress());
+    manager.getWitnessStore().put(witness.toByteArray(), new WitnessCapsule(witness));
+    manager.getWitnessController()
+        .setActiveWitnesses(new ArrayList<>(Collections.singletonList(witness)));
+    manager.getWitnessController()
+        .setCurrentShuffledWitnesses(new ArrayList<>(Collections.singletonList(witness)));
+
+    List<ECKey> accounts = new ArrayList<>(ACCOUNTS);
+    for (int i = 0; i < ACCOUNTS; i++) {
+      ECKey key = ECKey.fromPrivate(Sha256Hash.of(("account" + i).getBytes()).getBytes());
+      ByteString address = ByteString.copyFrom(key.getAddress());
+      AccountCapsule account =
+          new AccountCapsule(address, address, AccountType.Normal, 1_000_000_000_000L);
+      account.setBandwidth(1_000_000_000L);
+      manager.getAccountStore().put(key.getAddress(), account);
+      accounts.add(key);
+    }
+    return accounts;
+  }
+
+  private static byte[] witnessKey() {
+    return ByteArray.fromHexString(Args.getInstance().getLocalWitnesses().getPrivateKey());
+  }
+}
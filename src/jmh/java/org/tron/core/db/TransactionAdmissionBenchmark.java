@@ -0,0 +1,70 @@
+package org.tron.core.db;
+
+import static org.tron.core.capsule.TransferFixtures.newSignedTransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tron.common.crypto.ECKey;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.exception.ValidateSignatureException;
+
+/**
+ * Time to admit received transactions into the pending pool: decoding, the duplicate and capacity
+ * checks, the signature check and the bytes stored. The signers are recovered once in the setup,
+ * see TransactionSignatureBenchmark for the cost of recovering them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionAdmissionBenchmark {
+
+  @Param({"1000"})
+  private int transactions;
+
+  private List<byte[]> received;
+
+  @Setup(Level.Trial)
+  public void setUp() throws ValidateSignatureException {
+    received = new ArrayList<>(transactions);
+    for (int i = 0; i < transactions; i++) {
+      TransactionCapsule transaction = newSignedTransfer(new ECKey(), new ECKey(), i);
+      transaction.validateSignature();
+      received.add(transaction.getData());
+    }
+  }
+
+  @Benchmark
+  public TransactionPool admitTransactions(Blackhole blackhole)
+      throws ValidateSignatureException {
+    TransactionPool pool = new TransactionPool(transactions);
+    for (byte[] bytes : received) {
+      TransactionCapsule transaction = new TransactionCapsule(bytes);
+      if (pool.contains(transaction.getTransactionId())
+          || !pool.admits(transaction, 0)
+          || !transaction.validateSignature()) {
+        continue;
+      }
+      pool.add(transaction, null);
+      blackhole.consume(transaction.getTransactionId().getBytes());
+      blackhole.consume(transaction.getData());
+    }
+    return pool;
+  }
+}
@@ -4,22 +4,18 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultMessageSizeEstimator;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import org.tron.common.overlay.server.NettyTransport;
 import org.tron.common.overlay.server.TronChannelInitializer;
 import org.tron.core.config.args.Args;
 import org.tron.core.net.node.NodeImpl;
 
 import java.io.IOException;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class PeerClient {
@@ -33,17 +29,8 @@ public class PeerClient {
     @Lazy
     private NodeImpl node;
 
-    private EventLoopGroup workerGroup;
-
-    public PeerClient() {
-        workerGroup = new NioEventLoopGroup(0, new ThreadFactory() {
-            AtomicInteger cnt = new AtomicInteger(0);
-            @Override
-            public Thread newThread(Runnable r) {
-                return new Thread(r, "TronJClientWorker-" + cnt.getAndIncrement());
-            }
-        });
-    }
+    @Autowired
+    private NettyTransport transport;
 
     public void connect(String host, int port, String remoteId) {
         try {
@@ -63,8 +50,8 @@ public class PeerClient {
         tronChannelInitializer.setNodeImpl(node);
 
         Bootstrap b = new Bootstrap();
-        b.group(workerGroup);
-        b.channel(NioSocketChannel.class);
+        b.group(transport.getWorkerGroup());
+        b.channel(transport.getSocketChannelClass());
 
         b.option(ChannelOption.SO_KEEPALIVE, true);
         b.option(ChannelOption.MESSAGE_SIZE_ESTIMATOR, DefaultMessageSizeEstimator.DEFAULT);
@@ -76,9 +63,4 @@ public class PeerClient {
         // Start the client.
         return b.connect();
     }
-
-    public void close() {
-        workerGroup.shutdownGracefully();
-        workerGroup.terminationFuture().syncUninterruptibly();
-    }
 }
@@ -22,7 +22,7 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramPacket;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.DatagramChannel;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
@@ -37,7 +37,7 @@ public class MessageHandler extends SimpleChannelInboundHandler<DiscoveryEvent>
 
     NodeManager nodeManager;
 
-    public MessageHandler(NioDatagramChannel ch, NodeManager nodeManager) {
+    public MessageHandler(DatagramChannel ch, NodeManager nodeManager) {
         channel = ch;
         this.nodeManager = nodeManager;
     }
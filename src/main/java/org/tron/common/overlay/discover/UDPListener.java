@@ -19,9 +19,11 @@ package org.tron.common.overlay.discover;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
 import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
 import java.net.BindException;
@@ -29,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.tron.common.overlay.server.NettyTransport;
 import org.tron.common.overlay.server.WireTrafficStats;
 import org.tron.core.config.args.Args;
 
@@ -51,9 +54,12 @@ public class UDPListener {
   private volatile boolean shutdown = false;
   private DiscoveryExecutor discoveryExecutor;
 
+  private NettyTransport transport;
+
   @Autowired
-  public UDPListener(final NodeManager nodeManager) {
+  public UDPListener(final NodeManager nodeManager, final NettyTransport transport) {
     this.nodeManager = nodeManager;
+    this.transport = transport;
     port = args.getNodeListenPort();
     if (args.isNodeDiscoveryEnable()) {
       if (port == 0) {
@@ -72,17 +78,18 @@ public class UDPListener {
   }
 
   public void start() throws Exception {
-    NioEventLoopGroup group = new NioEventLoopGroup(1);
+    EventLoopGroup group = transport.newEventLoopGroup(1, "UDPListener");
     try {
       discoveryExecutor = new DiscoveryExecutor(nodeManager);
       discoveryExecutor.start();
       while (!shutdown) {
         Bootstrap b = new Bootstrap();
         b.group(group)
-            .channel(NioDatagramChannel.class)
-            .handler(new ChannelInitializer<NioDatagramChannel>() {
+            .channel(transport.getDatagramChannelClass())
+            .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+            .handler(new ChannelInitializer<DatagramChannel>() {
               @Override
-              public void initChannel(NioDatagramChannel ch)
+              public void initChannel(DatagramChannel ch)
                   throws Exception {
                 ch.pipeline().addLast(stats.udp);
                 ch.pipeline().addLast(new ProtobufVarint32LengthFieldPrepender());
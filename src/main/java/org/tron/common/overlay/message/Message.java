@@ -2,8 +2,9 @@ package org.tron.common.overlay.message;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import org.apache.commons.lang3.ArrayUtils;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tron.common.utils.Sha256Hash;
@@ -18,6 +19,13 @@ public abstract class Message {
   protected byte[] data;
   protected byte type;
 
+  private volatile ByteBuf sendData;
+
+  private static final LongAdder sendBuffers = new LongAdder();
+  private static final LongAdder sendBufferBytes = new LongAdder();
+  private static final LongAdder sharedSends = new LongAdder();
+  private static final LongAdder sharedSendBytes = new LongAdder();
+
   public Message() {
   }
 
@@ -33,8 +41,62 @@ public abstract class Message {
   }
 
 
+  /**
+   * the type byte and the data, as a retained duplicate of a read-only direct buffer built once.
+   * The channels write a direct buffer as is, so a message sent to many peers isn't copied for
+   * each of them. Whoever writes it releases it.
+   *
+   * <p>The buffer wraps a jdk direct buffer, its memory is freed with the message rather than by
+   * the releases of the duplicates.
+   */
   public ByteBuf getSendData(){
-     return Unpooled.wrappedBuffer(ArrayUtils.add(this.getData(), 0 ,type));
+    ByteBuf buffer = sendData;
+    if (buffer == null) {
+      synchronized (this) {
+        buffer = sendData;
+        if (buffer == null) {
+          byte[] payload = getData();
+          ByteBuffer direct = ByteBuffer.allocateDirect(payload.length + 1);
+          direct.put(type).put(payload).flip();
+          buffer = Unpooled.wrappedBuffer(direct).asReadOnly();
+          sendData = buffer;
+          sendBuffers.increment();
+          sendBufferBytes.add(buffer.readableBytes());
+        }
+      }
+    }
+    sharedSends.increment();
+    sharedSendBytes.add(buffer.readableBytes());
+    return buffer.retainedDuplicate();
+  }
+
+  /**
+   * send buffers built, one per message sent.
+   */
+  public static long getSendBufferCount() {
+    return sendBuffers.sum();
+  }
+
+  /**
+   * bytes of the send buffers built.
+   */
+  public static long getSendBufferBytes() {
+    return sendBufferBytes.sum();
+  }
+
+  /**
+   * sends, each writing a duplicate of the buffer of its message.
+   */
+  public static long getSharedSendCount() {
+    return sharedSends.sum();
+  }
+
+  /**
+   * bytes the sends wrote straight from the direct buffer of their message, each of them would
+   * otherwise be copied into a direct buffer for the peer.
+   */
+  public static long getSharedSendBytes() {
+    return sharedSendBytes.sum();
   }
 
   public Sha256Hash getMessageId() {
@@ -28,10 +28,12 @@ public class MessageCodec extends ByteToMessageDecoder {
 
   @Override
   protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) throws Exception {
-    byte[] encoded = new byte[buffer.readableBytes()];
-    buffer.readBytes(encoded);
+    // the payload is copied once, into the bytes the message keeps
+    byte type = buffer.readByte();
+    byte[] packed = new byte[buffer.readableBytes()];
+    buffer.readBytes(packed);
     try {
-      Message msg = createMessage(encoded);
+      Message msg = createMessage(type, packed);
       channel.getNodeStatistics().tronInMessage.add();
       out.add(msg);
     } catch (Exception e) {
@@ -43,15 +45,14 @@ public class MessageCodec extends ByteToMessageDecoder {
     this.channel = channel;
   }
 
-  private Message createMessage(byte[] encoded) throws Exception{
-    byte type = encoded[0];
+  private Message createMessage(byte type, byte[] packed) throws Exception{
     if (MessageTypes.inP2pRange(type)) {
-      return p2pMessageFactory.create(encoded);
+      return p2pMessageFactory.create(type, packed);
     }
     if (MessageTypes.inTronRange(type)) {
-      return tronMessageFactory.create(encoded);
+      return tronMessageFactory.create(type, packed);
     }
-    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + encoded[0]);
+    throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + type);
   }
 
 }
\ No newline at end of file
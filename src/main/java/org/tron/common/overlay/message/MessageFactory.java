@@ -19,6 +19,9 @@ public abstract class MessageFactory {
   public static String ERR_NO_SUCH_MSG = "No such message";
   public static String ERR_PARSE_FAILED = "parse message failed";
 
-  protected abstract Message create(byte[] data) throws Exception;
+  /**
+   * message of type with its payload packed, which it keeps as its data.
+   */
+  protected abstract Message create(byte type, byte[] packed) throws Exception;
 
 }
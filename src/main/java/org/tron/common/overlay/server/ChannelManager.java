@@ -74,6 +74,9 @@ public class ChannelManager {
   @Autowired
   private SyncPool syncPool;
 
+  @Autowired
+  private NettyTransport transport;
+
   @Autowired
   private ChannelManager(final PeerServer peerServer, final PeerClient peerClient) {
     this.peerServer = peerServer;
@@ -182,7 +185,7 @@ public class ChannelManager {
       logger.warn("Problems shutting down", e);
     }
     peerServer.close();
-    peerClient.close();
+    transport.close();
 
     ArrayList<Channel> allPeers = new ArrayList<>(activePeers.values());
     allPeers.addAll(newPeers);
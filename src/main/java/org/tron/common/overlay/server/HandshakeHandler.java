@@ -70,9 +70,10 @@ public class HandshakeHandler extends ByteToMessageDecoder {
 
   @Override
   protected void decode(ChannelHandlerContext ctx, ByteBuf buffer, List<Object> out) throws Exception {
-    byte[] encoded = new byte[buffer.readableBytes()];
-    buffer.readBytes(encoded);
-    P2pMessage msg = messageFactory.create(encoded);
+    byte type = buffer.readByte();
+    byte[] packed = new byte[buffer.readableBytes()];
+    buffer.readBytes(packed);
+    P2pMessage msg = messageFactory.create(type, packed);
     switch (msg.getType()) {
       case P2P_HELLO:
         handleHelloMsg(ctx, (HelloMessage)msg);
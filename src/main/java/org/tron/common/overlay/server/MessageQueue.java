@@ -2,33 +2,35 @@ package org.tron.common.overlay.server;
 
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import java.util.Queue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.tron.common.overlay.message.*;
-
-import static org.tron.common.overlay.message.StaticMessages.PING_MESSAGE;
-
+import org.tron.core.net.message.InventoryMessage;
+import org.tron.protos.Protocol.Inventory.InventoryType;
+
+/**
+ * Messages sent to a peer. They are written on the event loop of the channel: the messages queued
+ * during a tick are written together with one flush, blocks, sync and p2p messages ahead of
+ * transactions and their inventories. Nothing is written while the channel isn't writable, the
+ * queue is drained again once it is.
+ */
 @Component
 @Scope("prototype")
 public class MessageQueue {
 
   private static final Logger logger = LoggerFactory.getLogger("MessageQueue");
 
-  private boolean sendMsgFlag = false;
+  // time a request waits for its answer before the channel is closed
+  private static final long ANSWER_TIMEOUT = 20_000;
 
-  private Thread sendMsgThread;
+  private volatile boolean sendMsgFlag = false;
 
   private Channel channel;
 
@@ -36,13 +38,13 @@ public class MessageQueue {
 
   private Queue<MessageRoundtrip> requestQueue = new ConcurrentLinkedQueue<>();
 
-  private BlockingQueue<Message> msgQueue = new LinkedBlockingQueue<>();
-
-  private static ScheduledExecutorService sendTimer =
-          Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "sendTimer"));
+  // blocks, sync and p2p messages
+  private Queue<Message> urgentQueue = new ConcurrentLinkedQueue<>();
 
-  private ScheduledFuture<?> sendTask;
+  // transactions and their inventories
+  private Queue<Message> msgQueue = new ConcurrentLinkedQueue<>();
 
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
 
   public void activate(ChannelHandlerContext ctx) {
 
@@ -50,32 +52,17 @@ public class MessageQueue {
 
     sendMsgFlag = true;
 
-    sendTask = sendTimer.scheduleAtFixedRate(() -> {
-      try {
-        if (sendMsgFlag){
-          send();
+    ctx.pipeline().addLast("writability", new ChannelInboundHandlerAdapter() {
+      @Override
+      public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+          scheduleFlush();
         }
-      } catch (Exception e) {
-        logger.error("Unhandled exception", e);
+        super.channelWritabilityChanged(ctx);
       }
-    }, 10, 10, TimeUnit.MILLISECONDS);
-
-    sendMsgThread = new Thread(()->{
-     while (sendMsgFlag) {
-       try {
-         if (msgQueue.isEmpty()){
-           Thread.sleep(10);
-           continue;
-         }
-         Message msg = msgQueue.take();
-         ctx.writeAndFlush(msg.getSendData()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
-       }catch (Exception e) {
-         logger.error("send message failed, {}, error info: {}", ctx.channel().remoteAddress(), e.getMessage());
-       }
-     }
     });
-    sendMsgThread.setName("sendMsgThread-" + ctx.channel().remoteAddress());
-    sendMsgThread.start();
+
+    scheduleFlush();
   }
 
   public void setChannel(Channel channel) {
@@ -84,10 +71,13 @@ public class MessageQueue {
 
   public void sendMessage(Message msg) {
     logger.info("send {} to {}", msg.getType(), ctx.channel().remoteAddress());
-    if (msg.getAnswerMessage() != null)
+    if (msg.getAnswerMessage() != null) {
       requestQueue.add(new MessageRoundtrip(msg));
-    else
-      msgQueue.offer(msg);
+      ctx.executor().execute(this::sendRequest);
+    } else {
+      (isUrgent(msg) ? urgentQueue : msgQueue).offer(msg);
+      scheduleFlush();
+    }
   }
 
   public void receivedMessage(Message msg){
@@ -95,28 +85,62 @@ public class MessageQueue {
     MessageRoundtrip messageRoundtrip = requestQueue.peek();
     if (messageRoundtrip != null && messageRoundtrip.getMsg().getAnswerMessage() == msg.getClass()){
       requestQueue.remove();
+      sendRequest();
     }
   }
 
   public void close() {
     sendMsgFlag = false;
-    if(sendTask != null && !sendTask.isCancelled()){
-      sendTask.cancel(false);
+    requestQueue.clear();
+    urgentQueue.clear();
+    msgQueue.clear();
+  }
+
+  static boolean isUrgent(Message msg) {
+    switch (msg.getType()) {
+      case TRX:
+      case TRXS:
+      case TRX_INVENTORY:
+        return false;
+      case INVENTORY:
+      case FETCH_INV_DATA:
+        return ((InventoryMessage) msg).getInventoryType() == InventoryType.BLOCK;
+      default:
+        return true;
     }
   }
 
-  private void send() {
-    MessageRoundtrip messageRoundtrip = requestQueue.peek();
-    if (!sendMsgFlag || messageRoundtrip == null){
-      return;
+  private void scheduleFlush() {
+    if (sendMsgFlag && flushScheduled.compareAndSet(false, true)) {
+      ctx.executor().execute(this::flush);
     }
-    if (messageRoundtrip.getRetryTimes() > 0 && !messageRoundtrip.hasToRetry()){
+  }
+
+  private void flush() {
+    flushScheduled.set(false);
+    if (!sendMsgFlag) {
       return;
     }
-    if (messageRoundtrip.getRetryTimes() > 0){
-      channel.getNodeStatistics().nodeDisconnectedLocal(ReasonCode.PING_TIMEOUT);
-      logger.warn("wait {} timeout. close channel {}.", messageRoundtrip.getMsg().getAnswerMessage(), ctx.channel().remoteAddress());
-      channel.close();
+    boolean written = false;
+    while (ctx.channel().isWritable()) {
+      Message msg = urgentQueue.poll();
+      if (msg == null) {
+        msg = msgQueue.poll();
+      }
+      if (msg == null) {
+        break;
+      }
+      ctx.write(msg.getSendData()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+      written = true;
+    }
+    if (written) {
+      ctx.flush();
+    }
+  }
+
+  private void sendRequest() {
+    MessageRoundtrip messageRoundtrip = requestQueue.peek();
+    if (!sendMsgFlag || messageRoundtrip == null || messageRoundtrip.getRetryTimes() > 0){
       return;
     }
 
@@ -128,6 +152,14 @@ public class MessageQueue {
 
     messageRoundtrip.incRetryTimes();
     messageRoundtrip.saveTime();
+
+    ctx.executor().schedule(() -> {
+      if (sendMsgFlag && requestQueue.peek() == messageRoundtrip) {
+        channel.getNodeStatistics().nodeDisconnectedLocal(ReasonCode.PING_TIMEOUT);
+        logger.warn("wait {} timeout. close channel {}.", msg.getAnswerMessage(), ctx.channel().remoteAddress());
+        channel.close();
+      }
+    }, ANSWER_TIMEOUT, TimeUnit.MILLISECONDS);
   }
 
 }
@@ -63,10 +63,6 @@ public class MessageRoundtrip {
         return lastTimestamp;
     }
 
-    public boolean hasToRetry() {
-        return 20000 < System.currentTimeMillis() - lastTimestamp;
-    }
-
     public Message getMsg() {
         return msg;
     }
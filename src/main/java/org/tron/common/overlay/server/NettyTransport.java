@@ -0,0 +1,101 @@
+package org.tron.common.overlay.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.AdaptiveRecvByteBufAllocator;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.tron.core.config.args.Args;
+
+/**
+ * The netty transport of the node: native epoll on linux when it's available and node.epoll is
+ * on, nio otherwise. The peer connections, inbound and outbound, share one worker group of
+ * node.ioThreads event loops, which the grpc server can share too with node.rpc.shareEventLoops.
+ */
+@Slf4j
+@Component
+public class NettyTransport {
+
+  private final boolean epoll;
+
+  /**
+   * accepts the inbound connections of the peer and grpc servers.
+   */
+  @Getter
+  private final EventLoopGroup bossGroup;
+
+  /**
+   * handles the peer connections.
+   */
+  @Getter
+  private final EventLoopGroup workerGroup;
+
+  public NettyTransport() {
+    this(Args.getInstance().isNodeEpoll() && Epoll.isAvailable(),
+        Args.getInstance().getNodeIoThreads());
+  }
+
+  NettyTransport(boolean epoll, int ioThreads) {
+    this.epoll = epoll;
+    this.bossGroup = newEventLoopGroup(1, "TronBoss");
+    this.workerGroup = newEventLoopGroup(ioThreads, "TronWorker");
+    logger.info("netty transport: {}, io threads: {}", epoll ? "epoll" : "nio",
+        ioThreads == 0 ? "default" : ioThreads);
+  }
+
+  public boolean isEpoll() {
+    return epoll;
+  }
+
+  /**
+   * a group of event loops of the transport, threads 0 for the netty default of twice the cores.
+   */
+  public EventLoopGroup newEventLoopGroup(int threads, String name) {
+    ThreadFactoryBuilder threadFactory = new ThreadFactoryBuilder().setNameFormat(name + "-%d");
+    return epoll ? new EpollEventLoopGroup(threads, threadFactory.build())
+        : new NioEventLoopGroup(threads, threadFactory.build());
+  }
+
+  public Class<? extends ServerSocketChannel> getServerChannelClass() {
+    return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  public Class<? extends SocketChannel> getSocketChannelClass() {
+    return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  public Class<? extends DatagramChannel> getDatagramChannelClass() {
+    return epoll ? EpollDatagramChannel.class : NioDatagramChannel.class;
+  }
+
+  /**
+   * reads into pooled direct buffers sized to what the channel receives, instead of a fixed
+   * buffer per channel.
+   */
+  public static void setAllocators(ChannelConfig config) {
+    config.setAllocator(PooledByteBufAllocator.DEFAULT);
+    config.setRecvByteBufAllocator(new AdaptiveRecvByteBufAllocator());
+  }
+
+  @PreDestroy
+  public void close() {
+    workerGroup.shutdownGracefully();
+    bossGroup.shutdownGracefully();
+  }
+}
@@ -21,9 +21,6 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultMessageSizeEstimator;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LoggingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,8 +46,9 @@ public class PeerServer {
     @Autowired
     private NodeImpl p2pNode;
 
-    EventLoopGroup bossGroup;
-    EventLoopGroup workerGroup;
+    @Autowired
+    private NettyTransport transport;
+
     ChannelFuture channelFuture;
 
     @Autowired
@@ -60,8 +58,6 @@ public class PeerServer {
 
     public void start(int port) {
 
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
         tronChannelInitializer = ctx.getBean(TronChannelInitializer.class, "");
 
         tronChannelInitializer.setNodeImpl(p2pNode);
@@ -69,8 +65,8 @@ public class PeerServer {
         try {
             ServerBootstrap b = new ServerBootstrap();
 
-            b.group(bossGroup, workerGroup);
-            b.channel(NioServerSocketChannel.class);
+            b.group(transport.getBossGroup(), transport.getWorkerGroup());
+            b.channel(transport.getServerChannelClass());
 
             b.option(ChannelOption.SO_KEEPALIVE, true);
             b.option(ChannelOption.MESSAGE_SIZE_ESTIMATOR, DefaultMessageSizeEstimator.DEFAULT);
@@ -95,8 +91,7 @@ public class PeerServer {
             logger.debug("Exception: {} ({})", e.getMessage(), e.getClass().getName());
             throw new Error("Server Disconnected");
         } finally {
-            workerGroup.shutdownGracefully();
-            bossGroup.shutdownGracefully();
+            // the event loops belong to the transport, closed with the channel manager
             listening = false;
         }
     }
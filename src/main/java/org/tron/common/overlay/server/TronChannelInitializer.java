@@ -20,8 +20,7 @@ package org.tron.common.overlay.server;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.FixedRecvByteBufAllocator;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.socket.SocketChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,7 +36,7 @@ import org.tron.core.net.peer.PeerConnection;
  */
 @Component
 @Scope("prototype")
-public class TronChannelInitializer extends ChannelInitializer<NioSocketChannel> {
+public class TronChannelInitializer extends ChannelInitializer<SocketChannel> {
 
     private static final Logger logger = LoggerFactory.getLogger("TronChannelInitializer");
 
@@ -58,7 +57,7 @@ public class TronChannelInitializer extends ChannelInitializer<NioSocketChannel>
     }
 
     @Override
-    public void initChannel(NioSocketChannel ch) throws Exception {
+    public void initChannel(SocketChannel ch) throws Exception {
         try {
             if (isInbound() && channelManager.isRecentlyDisconnected(ch.remoteAddress().getAddress())) {
                 // avoid too frequent connection attempts
@@ -75,8 +74,7 @@ public class TronChannelInitializer extends ChannelInitializer<NioSocketChannel>
                 channelManager.add(channel);
             }
 
-            // limit the size of receiving buffer to 1024
-            ch.config().setRecvByteBufAllocator(new FixedRecvByteBufAllocator(256 * 1024));
+            NettyTransport.setAllocators(ch.config());
             ch.config().setOption(ChannelOption.SO_RCVBUF, 256 * 1024);
             ch.config().setOption(ChannelOption.SO_BACKLOG, 1024);
 
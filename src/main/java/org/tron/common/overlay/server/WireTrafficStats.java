@@ -27,6 +27,7 @@ import io.netty.channel.socket.DatagramPacket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.tron.common.overlay.message.Message;
 
 import javax.annotation.PreDestroy;
 import java.util.concurrent.Executors;
@@ -51,7 +52,11 @@ public class WireTrafficStats  implements Runnable  {
     }
 
     @Override
-    public void run() {}
+    public void run() {
+        logger.debug("send buffers built: {} ({} bytes), sends sharing them: {} ({} bytes)",
+            Message.getSendBufferCount(), Message.getSendBufferBytes(),
+            Message.getSharedSendCount(), Message.getSharedSendBytes());
+    }
 
     @PreDestroy
     public void close() {
@@ -19,10 +19,13 @@
 package org.tron.common.storage;
 
 import java.util.Map;
+import org.iq80.leveldb.WriteOptions;
 
 
 public interface BatchSourceInter<K, V> extends SourceInter<K, V> {
 
 
   void updateByBatch(Map<K, V> rows);
+
+  void updateByBatch(Map<K, V> rows, WriteOptions options);
 }
@@ -0,0 +1,24 @@
+package org.tron.common.storage;
+
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
+import org.tron.core.config.args.Args;
+import org.tron.core.config.args.StorageProfile;
+
+public class DbSourceFactory {
+
+  private DbSourceFactory() {
+  }
+
+  /**
+   * create the data source of a database with the engine of its storage profile.
+   */
+  public static DbSourceInter<byte[]> create(String parentName, String name) {
+    StorageProfile profile = Args.getInstance().getStorage().getProfile(name);
+    if (StorageProfile.ENGINE_ROCKSDB.equals(profile.getEngine())) {
+      return new RocksDbDataSourceImpl(parentName, name);
+    }
+
+    return new LevelDbDataSourceImpl(parentName, name);
+  }
+}
@@ -18,6 +18,7 @@
 package org.tron.common.storage;
 
 import java.util.Set;
+import org.tron.core.db.common.iterator.DBIterator;
 
 
 public interface DbSourceInter<V> extends BatchSourceInter<byte[], V> {
@@ -35,10 +36,31 @@ public interface DbSourceInter<V> extends BatchSourceInter<byte[], V> {
 
   void closeDB();
 
+  void resetDb();
+
   Set<byte[]> allKeys() throws RuntimeException;
 
   Set<byte[]> allValues() throws RuntimeException;
 
   long getTotal() throws RuntimeException;
 
+  Set<byte[]> getValuesNext(byte[] key, long limit);
+
+  Set<byte[]> getValuesPrev(byte[] key, long limit);
+
+  Set<byte[]> getlatestValues(long limit);
+
+  DBIterator iterator();
+
+  /**
+   * ordered scan over a range of the store, the iterator holds engine resources until it is
+   * exhausted or closed.
+   */
+  DBIterator iterator(ScanOptions options);
+
+  /**
+   * pin the current state of the store, release it by closing the snapshot.
+   */
+  ReadSnapshot getSnapshot();
+
 }
@@ -0,0 +1,21 @@
+package org.tron.common.storage;
+
+import java.io.Closeable;
+import org.tron.core.db.common.iterator.DBIterator;
+
+/**
+ * Point in time state of a data source, later writes are not visible through it. The engine keeps
+ * the state alive until the snapshot is closed.
+ */
+public interface ReadSnapshot extends Closeable {
+
+  byte[] getData(byte[] key);
+
+  /**
+   * ordered scan over a range of the snapshot.
+   */
+  DBIterator iterator(ScanOptions options);
+
+  @Override
+  void close();
+}
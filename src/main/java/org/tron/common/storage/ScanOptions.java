@@ -0,0 +1,189 @@
+package org.tron.common.storage;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import lombok.Getter;
+
+/**
+ * Range of an ordered scan over a data source. A forward scan visits the keys from <= key < to in
+ * ascending order, a reverse scan the keys to < key <= from in descending order. A null bound is
+ * open, a prefix further restricts the keys to those starting with it. Keys are compared as
+ * unsigned bytes, like the storage engines do.
+ */
+public final class ScanOptions {
+
+  public static final long NO_LIMIT = Long.MAX_VALUE;
+
+  public static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+  private static final ScanOptions FORWARD = new ScanOptions(null, null, null, false, NO_LIMIT);
+  private static final ScanOptions REVERSE = new ScanOptions(null, null, null, true, NO_LIMIT);
+
+  @Getter
+  private final byte[] from;
+
+  @Getter
+  private final byte[] to;
+
+  @Getter
+  private final byte[] prefix;
+
+  @Getter
+  private final boolean reverse;
+
+  @Getter
+  private final long limit;
+
+  private ScanOptions(byte[] from, byte[] to, byte[] prefix, boolean reverse, long limit) {
+    this.from = from;
+    this.to = to;
+    this.prefix = prefix;
+    this.reverse = reverse;
+    this.limit = limit;
+  }
+
+  /**
+   * every key in ascending order.
+   */
+  public static ScanOptions forward() {
+    return FORWARD;
+  }
+
+  /**
+   * every key in descending order.
+   */
+  public static ScanOptions reverse() {
+    return REVERSE;
+  }
+
+  /**
+   * start the scan at key, inclusive.
+   */
+  public ScanOptions from(byte[] key) {
+    return new ScanOptions(key, to, prefix, reverse, limit);
+  }
+
+  /**
+   * stop the scan before key.
+   */
+  public ScanOptions to(byte[] key) {
+    return new ScanOptions(from, key, prefix, reverse, limit);
+  }
+
+  /**
+   * only visit the keys starting with prefix.
+   */
+  public ScanOptions prefix(byte[] prefix) {
+    return new ScanOptions(from, to, prefix == null || prefix.length == 0 ? null : prefix,
+        reverse, limit);
+  }
+
+  /**
+   * visit at most limit entries, a negative limit visits none.
+   */
+  public ScanOptions limit(long limit) {
+    return new ScanOptions(from, to, prefix, reverse, Math.max(0, limit));
+  }
+
+  /**
+   * the key to position the scan at, null for the first key in scan order.
+   */
+  public byte[] startKey() {
+    if (!reverse) {
+      if (prefix == null || (from != null && KEY_ORDER.compare(from, prefix) > 0)) {
+        return from;
+      }
+      return prefix;
+    }
+
+    byte[] prefixEnd = prefixEnd();
+    if (from != null && (prefixEnd == null || KEY_ORDER.compare(from, prefixEnd) < 0)) {
+      return from;
+    }
+    return prefixEnd;
+  }
+
+  /**
+   * true if the scan visits the start key itself, only a reverse scan bounded by a prefix
+   * starts after it.
+   */
+  public boolean isStartInclusive() {
+    return !reverse || startKey() == from;
+  }
+
+  /**
+   * true once a key positioned by {@link #startKey()} has left the range, every later key in scan
+   * order is out of the range too.
+   */
+  public boolean isPastEnd(byte[] key) {
+    if (prefix != null && !startsWith(key, prefix)) {
+      return true;
+    }
+    if (to == null) {
+      return false;
+    }
+    int compare = KEY_ORDER.compare(key, to);
+    return reverse ? compare <= 0 : compare >= 0;
+  }
+
+  /**
+   * the entries of an ordered in-memory map within the range, in scan order and without limit.
+   */
+  public <V> Iterator<Entry<byte[], V>> scan(NavigableMap<byte[], V> map) {
+    byte[] start = startKey();
+    NavigableMap<byte[], V> view;
+    if (reverse) {
+      view = start == null ? map.descendingMap()
+          : map.headMap(start, isStartInclusive()).descendingMap();
+    } else {
+      view = start == null ? map : map.tailMap(start, true);
+    }
+
+    Iterator<Entry<byte[], V>> entries = view.entrySet().iterator();
+    return new com.google.common.collect.AbstractIterator<Entry<byte[], V>>() {
+      @Override
+      protected Entry<byte[], V> computeNext() {
+        if (!entries.hasNext()) {
+          return endOfData();
+        }
+        Entry<byte[], V> entry = entries.next();
+        return isPastEnd(entry.getKey()) ? endOfData() : entry;
+      }
+    };
+  }
+
+  /**
+   * the smallest key greater than every key starting with the prefix, null if there is none.
+   */
+  private byte[] prefixEnd() {
+    if (prefix == null) {
+      return null;
+    }
+
+    for (int i = prefix.length - 1; i >= 0; i--) {
+      if (prefix[i] != (byte) 0xff) {
+        byte[] end = Arrays.copyOf(prefix, i + 1);
+        end[i]++;
+        return end;
+      }
+    }
+    return null;
+  }
+
+  private static boolean startsWith(byte[] key, byte[] prefix) {
+    if (key.length < prefix.length) {
+      return false;
+    }
+
+    for (int i = 0; i < prefix.length; i++) {
+      if (key[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -17,15 +17,14 @@ package org.tron.common.storage.leveldb;
 
 import static org.fusesource.leveldbjni.JniDBFactory.factory;
 
-import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -38,12 +37,18 @@ import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBException;
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.WriteOptions;
 import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ReadSnapshot;
+import org.tron.common.storage.ScanOptions;
 import org.tron.common.utils.FileUtil;
 import org.tron.core.config.args.Args;
+import org.tron.core.config.args.StorageProfile;
 import org.tron.core.db.common.iterator.StoreIterator;
+import org.tron.core.db.common.iterator.StoreScanIterator;
 
 @Slf4j
 @NoArgsConstructor
@@ -109,16 +114,22 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  /**
+   * leveldbjni does not expose a filter policy, so bloomFilterBitsPerKey of the profile is not
+   * applied here.
+   */
   private Options createDbOptions() {
+    StorageProfile profile = Args.getInstance().getStorage().getProfile(dataBaseName);
     Options dbOptions = new Options();
     dbOptions.createIfMissing(true);
-    dbOptions.compressionType(CompressionType.NONE);
-    dbOptions.blockSize(10 * 1024 * 1024);
-    dbOptions.writeBufferSize(10 * 1024 * 1024);
-    dbOptions.cacheSize(0);
+    dbOptions.compressionType(
+        profile.isCompression() ? CompressionType.SNAPPY : CompressionType.NONE);
+    dbOptions.blockSize(profile.getBlockSize());
+    dbOptions.writeBufferSize(profile.getWriteBufferSize());
+    dbOptions.cacheSize(profile.getBlockCacheSize());
     dbOptions.paranoidChecks(true);
     dbOptions.verifyChecksums(true);
-    dbOptions.maxOpenFiles(32);
+    dbOptions.maxOpenFiles(profile.getMaxOpenFiles());
     return dbOptions;
   }
 
@@ -129,6 +140,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
   /**
    * reset database.
    */
+  @Override
   public void resetDb() {
     closeDB();
     FileUtil.recursiveDelete(getDbPath().toString());
@@ -221,103 +233,43 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
-  @Override
-  public Set<byte[]> allKeys() {
+  /**
+   * collect the keys or the values of a range, in scan order.
+   */
+  private Set<byte[]> collect(ScanOptions options, boolean keys) {
     resetDbLock.readLock().lock();
-    try (DBIterator iterator = database.iterator()) {
-      Set<byte[]> result = Sets.newHashSet();
-      for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
-        result.add(iterator.peekNext().getKey());
-      }
+    try (StoreScanIterator iterator = new StoreScanIterator(database.iterator(), options)) {
+      Set<byte[]> result = new LinkedHashSet<>();
+      iterator.forEachRemaining(entry -> result.add(keys ? entry.getKey() : entry.getValue()));
       return result;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
     } finally {
       resetDbLock.readLock().unlock();
     }
   }
 
+  @Override
+  public Set<byte[]> allKeys() {
+    return collect(ScanOptions.forward(), true);
+  }
+
   @Override
   public Set<byte[]> allValues() {
-    resetDbLock.readLock().lock();
-    try (DBIterator iterator = database.iterator()) {
-      Set<byte[]> result = Sets.newHashSet();
-      for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
-        result.add(iterator.peekNext().getValue());
-      }
-      return result;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    } finally {
-      resetDbLock.readLock().unlock();
-    }
+    return collect(ScanOptions.forward(), false);
   }
 
+  @Override
   public Set<byte[]> getlatestValues(long limit) {
-    if (limit <= 0) {
-      return Sets.newHashSet();
-    }
-    resetDbLock.readLock().lock();
-    try (DBIterator iterator = database.iterator()) {
-      Set<byte[]> result = Sets.newHashSet();
-      long i = 0;
-      iterator.seekToLast();
-      if (iterator.hasNext()) {
-        result.add(iterator.peekNext().getValue());
-        i++;
-      }
-      for (; iterator.hasPrev() && i++ < limit; iterator.prev()) {
-        result.add(iterator.peekPrev().getValue());
-      }
-      return result;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    } finally {
-      resetDbLock.readLock().unlock();
-    }
+    return collect(ScanOptions.reverse().limit(limit), false);
   }
 
+  @Override
   public Set<byte[]> getValuesNext(byte[] key, long limit) {
-    if (limit <= 0) {
-      return Sets.newHashSet();
-    }
-    resetDbLock.readLock().lock();
-    try (DBIterator iterator = database.iterator()) {
-      Set<byte[]> result = Sets.newHashSet();
-      long i = 0;
-      for (iterator.seek(key); iterator.hasNext() && i++ < limit; iterator.next()) {
-        result.add(iterator.peekNext().getValue());
-      }
-      return result;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    } finally {
-      resetDbLock.readLock().unlock();
-    }
+    return collect(ScanOptions.forward().from(key).limit(limit), false);
   }
 
+  @Override
   public Set<byte[]> getValuesPrev(byte[] key, long limit) {
-    if (limit <= 0) {
-      return Sets.newHashSet();
-    }
-    resetDbLock.readLock().lock();
-    try (DBIterator iterator = database.iterator()) {
-      Set<byte[]> result = Sets.newHashSet();
-      long i = 0;
-      byte[] data = getData(key);
-      if (Objects.nonNull(data)) {
-        result.add(data);
-        i++;
-      }
-      for (iterator.seek(key); iterator.hasPrev() && i++ < limit; iterator.prev()) {
-        result.add(iterator.peekPrev().getValue());
-      }
-      return result;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    } finally {
-      resetDbLock.readLock().unlock();
-    }
+    return collect(ScanOptions.reverse().from(key).limit(limit), false);
   }
 
   @Override
@@ -336,7 +288,8 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
-  private void updateByBatchInner(Map<byte[], byte[]> rows) throws Exception {
+  private void updateByBatchInner(Map<byte[], byte[]> rows, WriteOptions options)
+      throws Exception {
     try (WriteBatch batch = database.createWriteBatch()) {
       rows.forEach((key, value) -> {
         if (value == null) {
@@ -345,18 +298,23 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
           batch.put(key, value);
         }
       });
-      database.write(batch);
+      database.write(batch, options);
     }
   }
 
   @Override
   public void updateByBatch(Map<byte[], byte[]> rows) {
+    updateByBatch(rows, new WriteOptions());
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows, WriteOptions options) {
     resetDbLock.readLock().lock();
     try {
-      updateByBatchInner(rows);
+      updateByBatchInner(rows, options);
     } catch (Exception e) {
       try {
-        updateByBatchInner(rows);
+        updateByBatchInner(rows, options);
       } catch (Exception e1) {
         throw new RuntimeException(e);
       }
@@ -391,6 +349,79 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     return new StoreIterator(database.iterator());
   }
 
+  @Override
+  public org.tron.core.db.common.iterator.DBIterator iterator(ScanOptions options) {
+    return new StoreScanIterator(database.iterator(), options);
+  }
+
+  @Override
+  public ReadSnapshot getSnapshot() {
+    resetDbLock.readLock().lock();
+    try {
+      return new LevelDbSnapshot(database);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * snapshot of one open instance of the database, it fails once the database is closed.
+   */
+  private class LevelDbSnapshot implements ReadSnapshot {
+
+    private final DB db;
+    private final Snapshot snapshot;
+    private final ReadOptions readOptions;
+
+    private LevelDbSnapshot(DB db) {
+      this.db = db;
+      this.snapshot = db.getSnapshot();
+      this.readOptions = new ReadOptions().snapshot(snapshot);
+    }
+
+    private void checkOpen() {
+      if (!alive || database != db) {
+        throw new IllegalStateException("database " + dataBaseName + " has been closed");
+      }
+    }
+
+    @Override
+    public byte[] getData(byte[] key) {
+      resetDbLock.readLock().lock();
+      try {
+        checkOpen();
+        return db.get(key, readOptions);
+      } finally {
+        resetDbLock.readLock().unlock();
+      }
+    }
+
+    @Override
+    public org.tron.core.db.common.iterator.DBIterator iterator(ScanOptions options) {
+      resetDbLock.readLock().lock();
+      try {
+        checkOpen();
+        return new StoreScanIterator(db.iterator(readOptions), options);
+      } finally {
+        resetDbLock.readLock().unlock();
+      }
+    }
+
+    @Override
+    public void close() {
+      resetDbLock.readLock().lock();
+      try {
+        if (alive && database == db) {
+          snapshot.close();
+        }
+      } catch (IOException e) {
+        logger.debug(e.getMessage(), e);
+      } finally {
+        resetDbLock.readLock().unlock();
+      }
+    }
+  }
+
   public Stream<Entry<byte[], byte[]>> stream() {
     return StreamSupport.stream(spliterator(), false);
   }
@@ -0,0 +1,389 @@
+package org.tron.common.storage.rocksdb;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ReadSnapshot;
+import org.tron.common.storage.ScanOptions;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db.common.iterator.RockStoreIterator;
+import org.tron.core.db.common.iterator.RockStoreScanIterator;
+
+/**
+ * A store kept as a column family of the RocksDB database of its directory.
+ */
+@Slf4j
+@NoArgsConstructor
+public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
+    Iterable<Map.Entry<byte[], byte[]>> {
+
+  private static final String ROCKSDB_DIRECTORY = "rocksdb";
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  private static final WriteOptions DEFAULT_WRITE_OPTIONS = new WriteOptions();
+  private static final WriteOptions SYNC_WRITE_OPTIONS = new WriteOptions().setSync(true);
+
+  String dataBaseName;
+  RocksDB database;
+  ColumnFamilyHandle handle;
+  boolean alive;
+  private String parentName;
+  private RocksDbInstance instance;
+  private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+
+  /**
+   * constructor.
+   */
+  public RocksDbDataSourceImpl(String parentName, String name) {
+    parentName += Args.getInstance().getStorage().getDirectory();
+    this.parentName = parentName;
+    this.dataBaseName = name;
+  }
+
+  @Override
+  public void initDB() {
+    resetDbLock.writeLock().lock();
+    try {
+      logger.debug("~> RocksDbDataSourceImpl.initDB(): " + dataBaseName);
+
+      if (isAlive()) {
+        return;
+      }
+
+      if (dataBaseName == null) {
+        throw new NullPointerException("no name set to the dbStore");
+      }
+
+      instance = RocksDbInstance.acquire(Paths.get(parentName, ROCKSDB_DIRECTORY));
+      database = instance.getDatabase();
+      handle = instance.getColumnFamily(dataBaseName);
+      alive = true;
+    } finally {
+      resetDbLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * reset database.
+   */
+  @Override
+  public void resetDb() {
+    initDB();
+    resetDbLock.writeLock().lock();
+    try {
+      handle = instance.resetColumnFamily(dataBaseName);
+    } finally {
+      resetDbLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean isAlive() {
+    return alive;
+  }
+
+  @Override
+  public String getDBName() {
+    return dataBaseName;
+  }
+
+  @Override
+  public void setDBName(String name) {
+    this.dataBaseName = name;
+  }
+
+  /**
+   * reject null keys with the same error as leveldbjni.
+   */
+  private static void checkKey(byte[] key) {
+    if (key == null) {
+      throw new IllegalArgumentException("The key argument cannot be null");
+    }
+  }
+
+  @Override
+  public byte[] getData(byte[] key) {
+    checkKey(key);
+    resetDbLock.readLock().lock();
+    try {
+      return database.get(handle, key);
+    } catch (RocksDBException e) {
+      logger.debug(e.getMessage(), e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+    return null;
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value) {
+    putData(key, value, DEFAULT_WRITE_OPTIONS);
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value, org.iq80.leveldb.WriteOptions options) {
+    putData(key, value, options.sync() ? SYNC_WRITE_OPTIONS : DEFAULT_WRITE_OPTIONS);
+  }
+
+  private void putData(byte[] key, byte[] value, WriteOptions options) {
+    checkKey(key);
+    resetDbLock.readLock().lock();
+    try {
+      database.put(handle, options, key, value);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void deleteData(byte[] key) {
+    deleteData(key, DEFAULT_WRITE_OPTIONS);
+  }
+
+  @Override
+  public void deleteData(byte[] key, org.iq80.leveldb.WriteOptions options) {
+    deleteData(key, options.sync() ? SYNC_WRITE_OPTIONS : DEFAULT_WRITE_OPTIONS);
+  }
+
+  private void deleteData(byte[] key, WriteOptions options) {
+    checkKey(key);
+    resetDbLock.readLock().lock();
+    try {
+      database.delete(handle, options, key);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * collect the keys or the values of a range, in scan order.
+   */
+  private Set<byte[]> collect(ScanOptions options, boolean keys) {
+    resetDbLock.readLock().lock();
+    try (RockStoreScanIterator iterator =
+        new RockStoreScanIterator(database.newIterator(handle), options)) {
+      Set<byte[]> result = new LinkedHashSet<>();
+      iterator.forEachRemaining(entry -> result.add(keys ? entry.getKey() : entry.getValue()));
+      return result;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Set<byte[]> allKeys() {
+    return collect(ScanOptions.forward(), true);
+  }
+
+  @Override
+  public Set<byte[]> allValues() {
+    return collect(ScanOptions.forward(), false);
+  }
+
+  @Override
+  public Set<byte[]> getlatestValues(long limit) {
+    return collect(ScanOptions.reverse().limit(limit), false);
+  }
+
+  @Override
+  public Set<byte[]> getValuesNext(byte[] key, long limit) {
+    return collect(ScanOptions.forward().from(key).limit(limit), false);
+  }
+
+  @Override
+  public Set<byte[]> getValuesPrev(byte[] key, long limit) {
+    return collect(ScanOptions.reverse().from(key).limit(limit), false);
+  }
+
+  @Override
+  public long getTotal() throws RuntimeException {
+    resetDbLock.readLock().lock();
+    try (RocksIterator iterator = database.newIterator(handle)) {
+      long total = 0;
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        total++;
+      }
+      return total;
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  private void updateByBatchInner(Map<byte[], byte[]> rows, WriteOptions options)
+      throws RocksDBException {
+    try (WriteBatch batch = new WriteBatch()) {
+      for (Entry<byte[], byte[]> row : rows.entrySet()) {
+        if (row.getValue() == null) {
+          batch.delete(handle, row.getKey());
+        } else {
+          batch.put(handle, row.getKey(), row.getValue());
+        }
+      }
+      database.write(options, batch);
+    }
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows) {
+    updateByBatch(rows, DEFAULT_WRITE_OPTIONS);
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows, org.iq80.leveldb.WriteOptions options) {
+    updateByBatch(rows, options.sync() ? SYNC_WRITE_OPTIONS : DEFAULT_WRITE_OPTIONS);
+  }
+
+  private void updateByBatch(Map<byte[], byte[]> rows, WriteOptions options) {
+    resetDbLock.readLock().lock();
+    try {
+      updateByBatchInner(rows, options);
+    } catch (Exception e) {
+      try {
+        updateByBatchInner(rows, options);
+      } catch (Exception e1) {
+        throw new RuntimeException(e);
+      }
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean flush() {
+    return false;
+  }
+
+  @Override
+  public void closeDB() {
+    resetDbLock.writeLock().lock();
+    try {
+      if (!isAlive()) {
+        return;
+      }
+      RocksDbInstance.release(instance);
+      instance = null;
+      database = null;
+      handle = null;
+      alive = false;
+    } finally {
+      resetDbLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public DBIterator iterator() {
+    return new RockStoreIterator(database.newIterator(handle));
+  }
+
+  @Override
+  public DBIterator iterator(ScanOptions options) {
+    return new RockStoreScanIterator(database.newIterator(handle), options);
+  }
+
+  @Override
+  public ReadSnapshot getSnapshot() {
+    resetDbLock.readLock().lock();
+    try {
+      return new RocksDbSnapshot(handle);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * snapshot of one open instance of the column family, it fails once the store is closed.
+   */
+  private class RocksDbSnapshot implements ReadSnapshot {
+
+    private final RocksDB db;
+    private final ColumnFamilyHandle snapshotHandle;
+    private final Snapshot snapshot;
+    private final ReadOptions readOptions;
+
+    private RocksDbSnapshot(ColumnFamilyHandle snapshotHandle) {
+      this.db = database;
+      this.snapshotHandle = snapshotHandle;
+      this.snapshot = db.getSnapshot();
+      this.readOptions = new ReadOptions().setSnapshot(snapshot);
+    }
+
+    private boolean isOpen() {
+      return alive && handle == snapshotHandle;
+    }
+
+    @Override
+    public byte[] getData(byte[] key) {
+      resetDbLock.readLock().lock();
+      try {
+        if (!isOpen()) {
+          throw new IllegalStateException("database " + dataBaseName + " has been closed");
+        }
+        return db.get(snapshotHandle, readOptions, key);
+      } catch (RocksDBException e) {
+        throw new RuntimeException(e);
+      } finally {
+        resetDbLock.readLock().unlock();
+      }
+    }
+
+    @Override
+    public DBIterator iterator(ScanOptions options) {
+      resetDbLock.readLock().lock();
+      try {
+        if (!isOpen()) {
+          throw new IllegalStateException("database " + dataBaseName + " has been closed");
+        }
+        return new RockStoreScanIterator(db.newIterator(snapshotHandle, readOptions), options);
+      } finally {
+        resetDbLock.readLock().unlock();
+      }
+    }
+
+    @Override
+    public void close() {
+      resetDbLock.readLock().lock();
+      try {
+        if (isOpen()) {
+          db.releaseSnapshot(snapshot);
+        }
+        readOptions.close();
+      } finally {
+        resetDbLock.readLock().unlock();
+      }
+    }
+  }
+
+  public Stream<Entry<byte[], byte[]>> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  public Stream<Entry<byte[], byte[]>> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
+}
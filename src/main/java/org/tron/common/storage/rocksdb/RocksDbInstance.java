@@ -0,0 +1,210 @@
+package org.tron.common.storage.rocksdb;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.AbstractNativeReference;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.RateLimiter;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.tron.core.config.args.Args;
+import org.tron.core.config.args.Storage;
+import org.tron.core.config.args.StorageProfile;
+
+/**
+ * One RocksDB database per directory, shared by all the RocksDB stores of that directory. Every
+ * store is a column family tuned by its storage profile, all of them share one block cache and
+ * one compaction rate limiter.
+ */
+@Slf4j
+final class RocksDbInstance {
+
+  private static final Map<Path, RocksDbInstance> INSTANCES = new HashMap<>();
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  private final Path path;
+  private final Map<String, ColumnFamilyHandle> handles = new HashMap<>();
+  private final List<AbstractNativeReference> resources = new ArrayList<>();
+  private Cache blockCache;
+  private RateLimiter rateLimiter;
+  private DBOptions dbOptions;
+  private RocksDB database;
+  private int references;
+
+  private RocksDbInstance(Path path) {
+    this.path = path;
+  }
+
+  /**
+   * open the database of path if it is not open yet and take a reference on it.
+   */
+  static synchronized RocksDbInstance acquire(Path path) {
+    Path key = path.toAbsolutePath().normalize();
+    RocksDbInstance instance = INSTANCES.get(key);
+    if (instance == null) {
+      instance = new RocksDbInstance(key);
+      instance.open();
+      INSTANCES.put(key, instance);
+    }
+
+    instance.references++;
+    return instance;
+  }
+
+  /**
+   * drop a reference, the database is closed with its last reference.
+   */
+  static synchronized void release(RocksDbInstance instance) {
+    if (--instance.references > 0) {
+      return;
+    }
+
+    INSTANCES.remove(instance.path);
+    instance.close();
+  }
+
+  RocksDB getDatabase() {
+    return database;
+  }
+
+  /**
+   * get the column family of a store, creating it on first use.
+   */
+  synchronized ColumnFamilyHandle getColumnFamily(String name) {
+    ColumnFamilyHandle handle = handles.get(name);
+    if (handle != null) {
+      return handle;
+    }
+
+    try {
+      handle = database.createColumnFamily(new ColumnFamilyDescriptor(
+          name.getBytes(StandardCharsets.UTF_8), createColumnFamilyOptions(name)));
+    } catch (RocksDBException e) {
+      throw new RuntimeException("Can't create column family " + name, e);
+    }
+    handles.put(name, handle);
+    return handle;
+  }
+
+  /**
+   * drop every key of a store by recreating its column family.
+   */
+  synchronized ColumnFamilyHandle resetColumnFamily(String name) {
+    ColumnFamilyHandle handle = handles.remove(name);
+    if (handle != null) {
+      try {
+        database.dropColumnFamily(handle);
+      } catch (RocksDBException e) {
+        throw new RuntimeException("Can't drop column family " + name, e);
+      } finally {
+        handle.close();
+      }
+    }
+
+    return getColumnFamily(name);
+  }
+
+  private void open() {
+    Storage storage = Args.getInstance().getStorage();
+    blockCache = new LRUCache(storage.getRocksDbBlockCacheSize());
+    dbOptions = new DBOptions()
+        .setCreateIfMissing(true)
+        .setCreateMissingColumnFamilies(true)
+        .setParanoidChecks(true)
+        .setMaxOpenFiles(storage.getRocksDbMaxOpenFiles())
+        .setMaxBackgroundCompactions(storage.getRocksDbMaxBackgroundCompactions());
+    if (storage.getRocksDbCompactionRateLimit() > 0) {
+      rateLimiter = new RateLimiter(storage.getRocksDbCompactionRateLimit());
+      dbOptions.setRateLimiter(rateLimiter);
+    }
+
+    try {
+      Files.createDirectories(path);
+      List<byte[]> names = listColumnFamilies();
+      List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+      for (byte[] name : names) {
+        descriptors.add(new ColumnFamilyDescriptor(name,
+            createColumnFamilyOptions(new String(name, StandardCharsets.UTF_8))));
+      }
+
+      List<ColumnFamilyHandle> opened = new ArrayList<>();
+      database = RocksDB.open(dbOptions, path.toString(), descriptors, opened);
+      for (int i = 0; i < names.size(); i++) {
+        handles.put(new String(names.get(i), StandardCharsets.UTF_8), opened.get(i));
+      }
+    } catch (IOException | RocksDBException e) {
+      close();
+      throw new RuntimeException("Can't initialize database " + path, e);
+    }
+    logger.info("open rocksdb {} with column families {}", path, handles.keySet());
+  }
+
+  private List<byte[]> listColumnFamilies() throws RocksDBException {
+    if (!Files.exists(path.resolve("CURRENT"))) {
+      return Collections.singletonList(RocksDB.DEFAULT_COLUMN_FAMILY);
+    }
+
+    try (Options options = new Options()) {
+      return RocksDB.listColumnFamilies(options, path.toString());
+    }
+  }
+
+  private ColumnFamilyOptions createColumnFamilyOptions(String name) {
+    StorageProfile profile = Args.getInstance().getStorage().getProfile(name);
+    BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+        .setBlockCache(blockCache)
+        .setBlockSize(profile.getBlockSize())
+        .setCacheIndexAndFilterBlocks(true)
+        .setPinL0FilterAndIndexBlocksInCache(true);
+    if (profile.getBloomFilterBitsPerKey() > 0) {
+      BloomFilter filter = new BloomFilter(profile.getBloomFilterBitsPerKey(), false);
+      resources.add(filter);
+      tableConfig.setFilter(filter);
+    }
+
+    ColumnFamilyOptions options = new ColumnFamilyOptions()
+        .setWriteBufferSize(profile.getWriteBufferSize())
+        .setCompressionType(profile.isCompression()
+            ? CompressionType.SNAPPY_COMPRESSION : CompressionType.NO_COMPRESSION)
+        .setLevelCompactionDynamicLevelBytes(true)
+        .setTableFormatConfig(tableConfig);
+    resources.add(options);
+    return options;
+  }
+
+  private synchronized void close() {
+    handles.values().forEach(ColumnFamilyHandle::close);
+    handles.clear();
+    if (database != null) {
+      database.close();
+      database = null;
+    }
+    resources.forEach(AbstractNativeReference::close);
+    resources.clear();
+    dbOptions.close();
+    if (rateLimiter != null) {
+      rateLimiter.close();
+    }
+    blockCache.close();
+  }
+}
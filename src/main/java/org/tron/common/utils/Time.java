@@ -4,8 +4,23 @@ import java.sql.Timestamp;
 
 public class Time {
 
+  private static final ThreadLocal<Long> PINNED = new ThreadLocal<>();
+
   public static long getCurrentMillis() {
-    return System.currentTimeMillis();
+    Long pinned = PINNED.get();
+    return pinned == null ? System.currentTimeMillis() : pinned;
+  }
+
+  /**
+   * make {@link #getCurrentMillis()} return millis on the current thread until {@link #unpin()},
+   * so work depending on the clock can be repeated with the same result.
+   */
+  public static void pin(long millis) {
+    PINNED.set(millis);
+  }
+
+  public static void unpin() {
+    PINNED.remove();
   }
 
   public static String getTimeString(long time) {
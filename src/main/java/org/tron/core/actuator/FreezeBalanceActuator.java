@@ -5,6 +5,7 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.utils.StringUtil;
+import org.tron.common.utils.Time;
 import org.tron.core.Wallet;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.capsule.TransactionResultCapsule;
@@ -32,7 +33,7 @@ public class FreezeBalanceActuator extends AbstractActuator {
       AccountCapsule accountCapsule = dbManager.getAccountStore()
           .get(freezeBalanceContract.getOwnerAddress().toByteArray());
 
-      long now = System.currentTimeMillis();
+      long now = Time.getCurrentMillis();
       long duration = freezeBalanceContract.getFrozenDuration() * 24 * 3600 * 1000L;
       Frozen newFrozen = Frozen.newBuilder()
           .setFrozenBalance(freezeBalanceContract.getFrozenBalance())
@@ -5,6 +5,7 @@ import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
+import org.tron.common.utils.Time;
 import org.tron.core.Wallet;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.capsule.TransactionResultCapsule;
@@ -106,7 +107,7 @@ public class TransferActuator extends AbstractActuator {
           throw new ContractValidateException(
               "For a non-existent account transfer, the minimum amount is 1 TRX");
         }
-        toAccount = new AccountCapsule(transferContract.getToAddress(), AccountType.Normal, System.currentTimeMillis());
+        toAccount = new AccountCapsule(transferContract.getToAddress(), AccountType.Normal, Time.getCurrentMillis());
         dbManager.getAccountStore().put(transferContract.getToAddress().toByteArray(), toAccount);
       } else {
         //check to account balance if overflow
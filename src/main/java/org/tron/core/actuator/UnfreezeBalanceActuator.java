@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.utils.StringUtil;
+import org.tron.common.utils.Time;
 import org.tron.core.Wallet;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.capsule.TransactionResultCapsule;
@@ -40,7 +41,7 @@ public class UnfreezeBalanceActuator extends AbstractActuator {
       List<Frozen> frozenList = Lists.newArrayList();
       frozenList.addAll(accountCapsule.getFrozenList());
       Iterator<Frozen> iterator = frozenList.iterator();
-      long now = System.currentTimeMillis();
+      long now = Time.getCurrentMillis();
       while (iterator.hasNext()) {
         Frozen next = iterator.next();
         if (next.getExpireTime() <= now) {
@@ -92,7 +93,7 @@ public class UnfreezeBalanceActuator extends AbstractActuator {
         throw new ContractValidateException("no frozenBalance");
       }
 
-      long now = System.currentTimeMillis();
+      long now = Time.getCurrentMillis();
       long allowedUnfreezeCount = accountCapsule.getFrozenList().stream()
           .filter(frozen -> frozen.getExpireTime() <= now).count();
       if (allowedUnfreezeCount <= 0) {
@@ -6,6 +6,7 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.utils.StringUtil;
+import org.tron.common.utils.Time;
 import org.tron.core.Wallet;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.capsule.TransactionResultCapsule;
@@ -35,7 +36,7 @@ public class WithdrawBalanceActuator extends AbstractActuator {
       long oldBalance = accountCapsule.getBalance();
       long allowance = accountCapsule.getAllowance();
 
-      long now = System.currentTimeMillis();
+      long now = Time.getCurrentMillis();
       accountCapsule.setInstance(accountCapsule.getInstance().toBuilder()
           .setBalance(oldBalance + allowance)
           .setAllowance(0L)
@@ -84,7 +85,7 @@ public class WithdrawBalanceActuator extends AbstractActuator {
           .get(ownerAddress.toByteArray());
 
       long latestWithdrawTime = accountCapsule.getLatestWithdrawTime();
-      long now = System.currentTimeMillis();
+      long now = Time.getCurrentMillis();
       long witnessAllowanceFrozenTime =
           dbManager.getDynamicPropertiesStore().getWitnessAllowanceFrozenTime() * 24 * 3600 * 1000L;
 
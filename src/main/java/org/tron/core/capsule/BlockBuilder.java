@@ -0,0 +1,76 @@
+package org.tron.core.capsule;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.utils.MerkleRoot;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.BlockHeader;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Collects the transactions of a block being produced. Unlike {@link
+ * BlockCapsule#addTransaction(TransactionCapsule)}, adding a transaction doesn't copy the block,
+ * the block is built once when sealed.
+ */
+public class BlockBuilder {
+
+  private final BlockHeader.raw.Builder header;
+  private final List<Transaction> transactions = new ArrayList<>();
+  private final List<Sha256Hash> hashes = new ArrayList<>();
+  private long transactionsSize = 0;
+
+  public BlockBuilder(long number, Sha256Hash parentHash, long when, ByteString witnessAddress) {
+    this.header = BlockHeader.raw.newBuilder()
+        .setNumber(number)
+        .setParentHash(parentHash.getByteString())
+        .setTimestamp(when)
+        .setWitnessAddress(witnessAddress);
+  }
+
+  /**
+   * bytes transaction takes in a block.
+   */
+  public static long sizeOf(TransactionCapsule transaction) {
+    return CodedOutputStream
+        .computeMessageSize(Block.TRANSACTIONS_FIELD_NUMBER, transaction.getInstance());
+  }
+
+  public void addTransaction(TransactionCapsule transaction) {
+    transactions.add(transaction.getInstance());
+    hashes.add(transaction.getHash());
+    transactionsSize += sizeOf(transaction);
+  }
+
+  /**
+   * bytes the transactions added so far take in the block.
+   */
+  public long getTransactionsSize() {
+    return transactionsSize;
+  }
+
+  public int getTransactionCount() {
+    return transactions.size();
+  }
+
+  /**
+   * build the block with its merkle root, signed by privateKey.
+   */
+  public BlockCapsule seal(byte[] privateKey) {
+    header.setTxTrieRoot(MerkleRoot.of(hashes).getByteString());
+    BlockHeader.raw raw = header.build();
+
+    ECDSASignature signature = ECKey.fromPrivate(privateKey)
+        .sign(Sha256Hash.of(raw.toByteArray()).getBytes());
+    return new BlockCapsule(Block.newBuilder()
+        .setBlockHeader(BlockHeader.newBuilder()
+            .setRawData(raw)
+            .setWitnessSignature(ByteString.copyFrom(signature.toByteArray())))
+        .addAllTransactions(transactions)
+        .build());
+  }
+}
@@ -17,13 +17,17 @@ package org.tron.core.capsule;
 
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
 import java.security.SignatureException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.tron.common.crypto.ECKey;
@@ -31,7 +35,7 @@ import org.tron.common.crypto.ECKey.ECDSASignature;
 import org.tron.common.utils.ByteUtil;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.common.utils.Time;
-import org.tron.core.capsule.utils.MerkleTree;
+import org.tron.core.capsule.utils.MerkleRoot;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ValidateSignatureException;
 import org.tron.protos.Protocol.Block;
@@ -119,11 +123,28 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     }
   }
 
-  private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
-
   private Block block;
   public boolean generatedByMyself = false;
 
+  /**
+   * views of block computed on first use, cleared whenever block is replaced. The network, the
+   * fork database and the manager share one capsule per block, so they are computed once.
+   */
+  private volatile BlockId blockId;
+  private volatile byte[] data;
+  private volatile List<TransactionCapsule> transactions;
+
+  /**
+   * true once every transaction signature was recovered and matched, the transactions then skip
+   * the check when they are applied.
+   */
+  private volatile boolean transactionSignaturesValidated = false;
+
+  /**
+   * merkle root of the transactions, null until calculated.
+   */
+  private volatile Sha256Hash calculatedMerkleRoot;
+
   public BlockCapsule(long number, Sha256Hash hash, long when, ByteString witnessAddress) {
     // blockheader raw
     BlockHeader.raw.Builder blockHeaderRawBuild = BlockHeader.raw.newBuilder();
@@ -183,12 +204,78 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
   public void addTransaction(TransactionCapsule pendingTrx) {
     this.block = this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build();
+    this.transactionSignaturesValidated = false;
+    this.calculatedMerkleRoot = null;
+    this.transactions = null;
+    clearCache();
   }
 
+  /**
+   * the transactions of the block, the same unmodifiable list of capsules on every call so their
+   * ids, hashes and signature checks are shared.
+   */
   public List<TransactionCapsule> getTransactions() {
-    return this.block.getTransactionsList().stream()
-        .map(trx -> new TransactionCapsule(trx))
-        .collect(Collectors.toList());
+    List<TransactionCapsule> result = transactions;
+    if (result == null) {
+      synchronized (this) {
+        result = transactions;
+        if (result == null) {
+          result = Collections.unmodifiableList(this.block.getTransactionsList().stream()
+              .map(TransactionCapsule::new)
+              .collect(Collectors.toList()));
+          transactions = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * recover the signers of all transactions on pool, in parallel. Throws the error of the first
+   * invalid transaction in block order.
+   */
+  public void validateTransactionSignatures(ForkJoinPool pool)
+      throws ValidateSignatureException {
+    if (transactionSignaturesValidated) {
+      return;
+    }
+
+    List<TransactionCapsule> transactions = getTransactions();
+    ValidateSignatureException[] errors = new ValidateSignatureException[transactions.size()];
+    boolean parallel = transactions.size() > 1 && pool.getParallelism() > 1;
+    Runnable validate = () -> {
+      IntStream indexes = IntStream.range(0, transactions.size());
+      (parallel ? indexes.parallel() : indexes).forEach(i -> {
+        try {
+          transactions.get(i).validateSignature();
+        } catch (ValidateSignatureException e) {
+          errors[i] = e;
+        }
+      });
+    };
+
+    // a parallel stream forks onto the pool running it
+    if (parallel) {
+      pool.submit(validate).join();
+    } else {
+      validate.run();
+    }
+
+    for (ValidateSignatureException error : errors) {
+      if (error != null) {
+        throw error;
+      }
+    }
+    transactionSignaturesValidated = true;
+  }
+
+  /**
+   * take the transaction signatures as valid without recovering them, for a block trusted from a
+   * checkpoint.
+   */
+  public void trustTransactionSignatures() {
+    getTransactions().forEach(TransactionCapsule::setSignatureValidated);
+    transactionSignaturesValidated = true;
   }
 
   public void sign(byte[] privateKey) {
@@ -201,6 +288,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         .build();
 
     this.block = this.block.toBuilder().setBlockHeader(blockHeader).build();
+    clearCache();
   }
 
   private Sha256Hash getRawHash() {
@@ -220,25 +308,33 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   }
 
   public BlockId getBlockId() {
-    if (blockId.equals(Sha256Hash.ZERO_HASH)) {
-      blockId = new BlockId(Sha256Hash.of(this.block.getBlockHeader().toByteArray()), getNum());
+    BlockId result = blockId;
+    if (result == null) {
+      result = new BlockId(Sha256Hash.of(this.block.getBlockHeader().toByteArray()), getNum());
+      blockId = result;
     }
-    return blockId;
+    return result;
   }
 
   public Sha256Hash calcMerkleRoot() {
-    List<Transaction> transactionsList = this.block.getTransactionsList();
+    Sha256Hash root = calculatedMerkleRoot;
+    if (root != null) {
+      return root;
+    }
+
+    List<TransactionCapsule> transactionsList = getTransactions();
 
     if (CollectionUtils.isEmpty(transactionsList)) {
       return Sha256Hash.ZERO_HASH;
     }
 
-    Vector<Sha256Hash> ids = transactionsList.stream()
-        .map(TransactionCapsule::new)
+    List<Sha256Hash> ids = transactionsList.stream()
         .map(TransactionCapsule::getHash)
-        .collect(Collectors.toCollection(Vector::new));
+        .collect(Collectors.toList());
 
-    return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    root = MerkleRoot.of(ids);
+    calculatedMerkleRoot = root;
+    return root;
   }
 
   public void setMerkleRoot() {
@@ -248,6 +344,15 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
     this.block = this.block.toBuilder().setBlockHeader(
         this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+    clearCache();
+  }
+
+  /**
+   * forget the id and bytes of a block whose header or transactions changed.
+   */
+  private void clearCache() {
+    this.blockId = null;
+    this.data = null;
   }
 
   public Sha256Hash getMerkleRoot() {
@@ -263,17 +368,30 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     this.block = block;
   }
 
+  /**
+   * parse a block from data, which is kept as its bytes. The bytes fields of the block share
+   * data instead of copying it, so it must not be changed.
+   */
   public BlockCapsule(byte[] data) throws BadItemException {
     try {
-      this.block = Block.parseFrom(data);
-    } catch (InvalidProtocolBufferException e) {
+      // a wrapped array counts as immutable, so the bytes fields share it instead of copying
+      CodedInputStream input = UnsafeByteOperations.unsafeWrap(data).newCodedInput();
+      input.enableAliasing(true);
+      this.block = Block.parseFrom(input);
+      this.data = data;
+    } catch (IOException e) {
       throw new BadItemException();
     }
   }
 
   @Override
   public byte[] getData() {
-    return this.block.toByteArray();
+    byte[] result = data;
+    if (result == null) {
+      result = this.block.toByteArray();
+      data = result;
+    }
+    return result;
   }
 
   @Override
@@ -318,11 +436,12 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     toStringBuff.append("generate time=").append(Time.getTimeString(getTimeStamp())).append("\n");
 
     AtomicInteger index = new AtomicInteger();
-    if (!getTransactions().isEmpty()) {
+    List<TransactionCapsule> transactions = getTransactions();
+    if (!transactions.isEmpty()) {
       toStringBuff.append("merkle root=").append(getMerkleRoot()).append("\n");
-      toStringBuff.append("txs size=").append(getTransactions().size()).append("\n");
+      toStringBuff.append("txs size=").append(transactions.size()).append("\n");
       toStringBuff.append("tx: {");
-      getTransactions().forEach(tx -> toStringBuff
+      transactions.forEach(tx -> toStringBuff
           .append(index.getAndIncrement()).append(":")
           .append(tx).append("\n"));
       toStringBuff.append("}");
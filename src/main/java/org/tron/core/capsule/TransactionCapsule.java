@@ -24,8 +24,12 @@ import static org.tron.protos.Contract.WitnessUpdateContract;
 
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
 import java.security.SignatureException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -35,6 +39,7 @@ import org.tron.common.crypto.ECKey.ECDSASignature;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Wallet;
+import org.tron.core.capsule.utils.VerifiedSignatureCache;
 import org.tron.core.db.AccountStore;
 import org.tron.core.exception.ValidateBandwidthException;
 import org.tron.core.exception.ValidateSignatureException;
@@ -55,6 +60,15 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   private Transaction transaction;
   private boolean isValidated = false;
 
+  /**
+   * serialized forms and hashes of transaction, computed on first use and cleared whenever
+   * transaction is replaced.
+   */
+  private volatile byte[] rawBytes;
+  private volatile byte[] data;
+  private volatile Sha256Hash transactionId;
+  private volatile Sha256Hash hash;
+
   /**
    * constructor TransactionCapsule.
    */
@@ -63,12 +77,17 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   }
 
   /**
-   * get account from bytes data.
+   * parse a transaction from data, which is kept as its bytes and shared by its bytes fields, so
+   * it must not be changed.
    */
   public TransactionCapsule(byte[] data) {
     try {
-      this.transaction = Transaction.parseFrom(data);
-    } catch (InvalidProtocolBufferException e) {
+      // a wrapped array counts as immutable, so the bytes fields share it instead of copying
+      CodedInputStream input = UnsafeByteOperations.unsafeWrap(data).newCodedInput();
+      input.enableAliasing(true);
+      this.transaction = Transaction.parseFrom(input);
+      this.data = data;
+    } catch (IOException e) {
       logger.debug(e.getMessage());
     }
   }
@@ -133,6 +152,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
   public void setResult(TransactionResultCapsule transactionResultCapsule) {
     //this.getInstance().toBuilder(). (transactionResultCapsule.getInstance());
+    clearCache();
   }
 
   public void setReference(long blockNum, byte[] blockHash) {
@@ -142,12 +162,14 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         .setRefBlockBytes(ByteString.copyFrom(ByteArray.subArray(refBlockNum, 6, 8)))
         .build();
     this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    clearCache();
   }
 
   public void setExpiration(long expiration) {
     Transaction.raw rawData = this.transaction.getRawData().toBuilder().setExpiration(expiration)
         .build();
     this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    clearCache();
   }
 
   @Deprecated
@@ -172,15 +194,42 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
             Any.pack(message)).build());
     logger.info("Transaction create succeeded！");
     transaction = Transaction.newBuilder().setRawData(transactionBuilder.build()).build();
+    clearCache();
   }
 
   public Sha256Hash getHash() {
-    byte[] transBytes = this.transaction.toByteArray();
-    return Sha256Hash.of(transBytes);
+    Sha256Hash result = hash;
+    if (result == null) {
+      result = Sha256Hash.of(getData());
+      hash = result;
+    }
+    return result;
   }
 
   public Sha256Hash getRawHash() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    return getTransactionId();
+  }
+
+  /**
+   * serialized raw data, the bytes signed and hashed into the transaction id.
+   */
+  private byte[] getRawBytes() {
+    byte[] result = rawBytes;
+    if (result == null) {
+      result = this.transaction.getRawData().toByteArray();
+      rawBytes = result;
+    }
+    return result;
+  }
+
+  /**
+   * forget the serialized forms and hashes of a transaction that was replaced.
+   */
+  private void clearCache() {
+    rawBytes = null;
+    data = null;
+    transactionId = null;
+    hash = null;
   }
 
   /**
@@ -216,6 +265,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     ECDSASignature signature = ecKey.sign(getRawHash().getBytes());
     ByteString sig = ByteString.copyFrom(signature.toBase64().getBytes());
     this.transaction = this.transaction.toBuilder().addSignature(sig).build();
+    clearCache();
   }
 
   // todo mv this static function to capsule util
@@ -330,34 +380,61 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       throw new ValidateSignatureException("miss sig or contract");
     }
 
+    Sha256Hash rawHash = getRawHash();
+    List<ByteString> signatures = this.transaction.getSignatureList();
+    VerifiedSignatureCache cache = VerifiedSignatureCache.getInstance();
+    if (cache.getSigners(rawHash, signatures) != null) {
+      isValidated = true;
+      return true;
+    }
+
     List<Transaction.Contract> listContract = this.transaction.getRawData().getContractList();
-    for (int i = 0; i < this.transaction.getSignatureCount(); ++i) {
+    List<byte[]> signers = new ArrayList<>(signatures.size());
+    for (int i = 0; i < signatures.size(); ++i) {
       try {
         Transaction.Contract contract = listContract.get(i);
         byte[] owner = getOwner(contract);
-        byte[] address = ECKey.signatureToAddress(getRawHash().getBytes(),
-            getBase64FromByteString(this.transaction.getSignature(i)));
+        byte[] address = ECKey.signatureToAddress(rawHash.getBytes(),
+            getBase64FromByteString(signatures.get(i)));
         if (!Arrays.equals(owner, address)) {
           isValidated = false;
           throw new ValidateSignatureException("sig error");
         }
+        signers.add(address);
       } catch (SignatureException e) {
         isValidated = false;
         throw new ValidateSignatureException(e.getMessage());
       }
     }
+    cache.put(rawHash, signatures, signers);
     isValidated = true;
     return true;
   }
 
+  /**
+   * skip the signature check, for a transaction of a block trusted from a checkpoint.
+   */
+  void setSignatureValidated() {
+    isValidated = true;
+  }
 
   public Sha256Hash getTransactionId() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    Sha256Hash result = transactionId;
+    if (result == null) {
+      result = Sha256Hash.of(getRawBytes());
+      transactionId = result;
+    }
+    return result;
   }
 
   @Override
   public byte[] getData() {
-    return this.transaction.toByteArray();
+    byte[] result = data;
+    if (result == null) {
+      result = this.transaction.toByteArray();
+      data = result;
+    }
+    return result;
   }
 
   public long getSerializedSize() {
@@ -0,0 +1,92 @@
+package org.tron.core.capsule.utils;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.tron.common.utils.Sha256Hash;
+
+/**
+ * Merkle root of a list of hashes, the root {@link MerkleTree} builds without keeping the tree.
+ * Nodes hash the concatenation of their children, a node without right child keeps the hash of
+ * its left one. The levels are computed in place over one buffer of 32 byte hashes.
+ */
+public final class MerkleRoot {
+
+  private static final int HASH_LENGTH = 32;
+
+  /**
+   * leaf pairs from which the first level is hashed in parallel.
+   */
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private static final ThreadLocal<MessageDigest> DIGEST =
+      ThreadLocal.withInitial(Sha256Hash::newDigest);
+
+  private MerkleRoot() {
+  }
+
+  /**
+   * the root of hashes, ZERO_HASH if there are none.
+   */
+  public static Sha256Hash of(List<Sha256Hash> hashes) {
+    if (hashes.isEmpty()) {
+      return Sha256Hash.ZERO_HASH;
+    }
+
+    byte[] level = new byte[hashes.size() * HASH_LENGTH];
+    for (int i = 0; i < hashes.size(); i++) {
+      System.arraycopy(hashes.get(i).getBytes(), 0, level, i * HASH_LENGTH, HASH_LENGTH);
+    }
+    return of(level, hashes.size());
+  }
+
+  /**
+   * the root of the count hashes laid one after the other in level, which is overwritten.
+   */
+  public static Sha256Hash of(byte[] level, int count) {
+    if (count == 0) {
+      return Sha256Hash.ZERO_HASH;
+    }
+
+    if (count / 2 >= PARALLEL_THRESHOLD) {
+      byte[] parents = new byte[(count + 1) / 2 * HASH_LENGTH];
+      int pairs = count / 2;
+      IntStream.range(0, pairs).parallel()
+          .forEach(i -> hashPair(DIGEST.get(), level, 2 * i, parents, i));
+      if (count % 2 == 1) {
+        System.arraycopy(level, (count - 1) * HASH_LENGTH, parents, pairs * HASH_LENGTH,
+            HASH_LENGTH);
+      }
+      return of(parents, (count + 1) / 2);
+    }
+
+    MessageDigest digest = DIGEST.get();
+    while (count > 1) {
+      int pairs = count / 2;
+      // a parent is written at or before the children it was hashed from
+      for (int i = 0; i < pairs; i++) {
+        hashPair(digest, level, 2 * i, level, i);
+      }
+      if (count % 2 == 1) {
+        System.arraycopy(level, (count - 1) * HASH_LENGTH, level, pairs * HASH_LENGTH,
+            HASH_LENGTH);
+      }
+      count = pairs + count % 2;
+    }
+
+    byte[] root = new byte[HASH_LENGTH];
+    System.arraycopy(level, 0, root, 0, HASH_LENGTH);
+    return Sha256Hash.wrap(root);
+  }
+
+  private static void hashPair(MessageDigest digest, byte[] from, int left, byte[] to,
+      int index) {
+    digest.update(from, left * HASH_LENGTH, 2 * HASH_LENGTH);
+    try {
+      digest.digest(to, index * HASH_LENGTH, HASH_LENGTH);
+    } catch (DigestException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
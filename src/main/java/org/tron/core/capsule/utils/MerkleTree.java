@@ -7,6 +7,10 @@ import java.util.stream.IntStream;
 import lombok.Getter;
 import org.tron.common.utils.Sha256Hash;
 
+/**
+ * Builds the whole tree of a hash list. The shared instance keeps the last tree, so it is not
+ * thread safe, {@link MerkleRoot} computes the root alone.
+ */
 @Getter
 public class MerkleTree {
     private static volatile MerkleTree instance;
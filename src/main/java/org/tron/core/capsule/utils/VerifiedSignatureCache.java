@@ -0,0 +1,126 @@
+package org.tron.core.capsule.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.ByteString;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.config.args.Args;
+
+/**
+ * Bounded cache of the transactions whose signatures were verified, keyed by the raw data hash
+ * and the signatures. A transaction is checked when it enters the pending transactions, again when
+ * it is applied in a block and every time a block makes it revalidated, only the first check
+ * recovers the signers.
+ */
+public class VerifiedSignatureCache {
+
+  private static volatile VerifiedSignatureCache instance;
+
+  private final Cache<Key, List<byte[]>> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public VerifiedSignatureCache(long maxEntries) {
+    this.cache = maxEntries <= 0 ? null
+        : CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+  }
+
+  /**
+   * the cache shared by the transaction capsules, sized by node.signatureCacheSize.
+   */
+  public static VerifiedSignatureCache getInstance() {
+    if (instance == null) {
+      synchronized (VerifiedSignatureCache.class) {
+        if (instance == null) {
+          instance = new VerifiedSignatureCache(Args.getInstance().getSignatureCacheSize());
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * the signer addresses recovered from the signatures, null if they were not verified yet.
+   */
+  public List<byte[]> getSigners(Sha256Hash rawHash, List<ByteString> signatures) {
+    if (cache == null) {
+      return null;
+    }
+
+    List<byte[]> signers = cache.getIfPresent(new Key(rawHash, signatures));
+    if (signers == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return signers;
+  }
+
+  /**
+   * record signatures matching the owners of their contracts, signers are the recovered
+   * addresses.
+   */
+  public void put(Sha256Hash rawHash, List<ByteString> signatures, List<byte[]> signers) {
+    if (cache != null) {
+      cache.put(new Key(rawHash, signatures), signers);
+    }
+  }
+
+  public void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * share of the lookups served from the cache, 0 before the first lookup.
+   */
+  public double getHitRate() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  public long size() {
+    return cache == null ? 0 : cache.size();
+  }
+
+  private static final class Key {
+
+    private final Sha256Hash rawHash;
+    private final List<ByteString> signatures;
+
+    private Key(Sha256Hash rawHash, List<ByteString> signatures) {
+      this.rawHash = rawHash;
+      this.signatures = signatures;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return rawHash.equals(key.rawHash) && signatures.equals(key.signatures);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(rawHash, signatures);
+    }
+  }
+}
@@ -76,6 +76,11 @@ public class DefaultConfig {
     return "witness_schedule";
   }
 
+  @Bean(name = "store-stats")
+  public String storeStats() {
+    return "store-stats";
+  }
+
   @Bean(name = "recent-block")
   public String recentBlock() {
     return "recent-block";
@@ -31,11 +31,15 @@ import org.spongycastle.util.encoders.Hex;
 import org.springframework.stereotype.Component;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.overlay.discover.Node;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Constant;
 import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.config.Configuration;
 import org.tron.core.config.Parameter.ChainConstant;
 import org.tron.core.db.AccountStore;
+import org.tron.core.db.TransactionExecutor;
 
 @Slf4j
 @NoArgsConstructor
@@ -166,6 +170,84 @@ public class Args {
   @Setter
   private long maintenanceTimeInterval; // (ms)
 
+  /**
+   * Threads recovering the transaction signatures of a block before it is applied.
+   */
+  @Getter
+  @Setter
+  private int validateSignThreadNum = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Transactions whose verified signatures are remembered, 0 disables the cache.
+   */
+  @Getter
+  @Setter
+  private long signatureCacheSize = 100_000;
+
+  /**
+   * Transactions kept waiting for a block, the ones closest to expiring are evicted beyond it.
+   */
+  @Getter
+  @Setter
+  private int maxPendingTransactions = 50_000;
+
+  /**
+   * Whether a produced block takes the pending transactions still valid on the pending state
+   * without executing them again.
+   */
+  @Getter
+  @Setter
+  private boolean reusePendingState = true;
+
+  /**
+   * How block transactions are executed: serially, in parallel groups, or both ways compared.
+   */
+  @Getter
+  @Setter
+  private TransactionExecutor.Mode transactionExecutionMode = TransactionExecutor.Mode.SERIAL;
+
+  /**
+   * Blocks known to be on the chain, a block at the number of one must have its id.
+   */
+  @Getter
+  @Setter
+  private List<BlockId> checkpoints = Collections.emptyList();
+
+  /**
+   * Whether the blocks up to the highest checkpoint skip the signature and schedule checks.
+   */
+  @Getter
+  @Setter
+  private boolean fastSync = false;
+
+  /**
+   * Messages of a peer waiting to be handled before its channel stops reading.
+   */
+  @Getter
+  @Setter
+  private int maxPeerMessageQueue = 1000;
+
+  /**
+   * Event loop threads of the peer connections, 0 for twice the number of cores.
+   */
+  @Getter
+  @Setter
+  private int nodeIoThreads = 0;
+
+  /**
+   * Whether netty uses the native epoll transport when it's available.
+   */
+  @Getter
+  @Setter
+  private boolean nodeEpoll = true;
+
+  /**
+   * Whether the grpc server runs on the event loops of the peer connections.
+   */
+  @Getter
+  @Setter
+  private boolean rpcShareEventLoops = false;
+
   @Getter
   @Setter
   @Parameter(names = {"--trust-node"}, description = "Trust node addr")
@@ -201,6 +283,17 @@ public class Args {
     INSTANCE.nodeP2pVersion = 0;
     INSTANCE.rpcPort = 0;
     INSTANCE.maintenanceTimeInterval = 0;
+    INSTANCE.validateSignThreadNum = Runtime.getRuntime().availableProcessors();
+    INSTANCE.signatureCacheSize = 100_000;
+    INSTANCE.maxPendingTransactions = 50_000;
+    INSTANCE.reusePendingState = true;
+    INSTANCE.transactionExecutionMode = TransactionExecutor.Mode.SERIAL;
+    INSTANCE.checkpoints = Collections.emptyList();
+    INSTANCE.fastSync = false;
+    INSTANCE.maxPeerMessageQueue = 1000;
+    INSTANCE.nodeIoThreads = 0;
+    INSTANCE.nodeEpoll = true;
+    INSTANCE.rpcShareEventLoops = false;
     INSTANCE.p2pNodeId = "";
     INSTANCE.solidityNode = false;
     INSTANCE.trustNodeAddr = "";
@@ -235,6 +328,9 @@ public class Args {
     INSTANCE.storage.setDirectory(Optional.ofNullable(INSTANCE.storageDirectory)
         .filter(StringUtils::isNotEmpty)
         .orElse(config.getString("storage.directory")));
+    INSTANCE.storage.setProfilesFromConfig(config);
+    INSTANCE.storage.setRocksDbFromConfig(config);
+    INSTANCE.storage.setRevokingFromConfig(config);
     INSTANCE.seedNode = new SeedNode();
     INSTANCE.seedNode.setIpList(Optional.ofNullable(INSTANCE.seedNodes)
         .filter(seedNode -> 0 != seedNode.size())
@@ -316,6 +412,50 @@ public class Args {
         config.hasPath("block.maintenanceTimeInterval") ? config
             .getInt("block.maintenanceTimeInterval") : 21600000L;
 
+    INSTANCE.validateSignThreadNum = config.hasPath("node.validateSignThreadNum") ? config
+        .getInt("node.validateSignThreadNum") : Runtime.getRuntime().availableProcessors();
+    if (INSTANCE.validateSignThreadNum <= 0) {
+      throw new IllegalArgumentException("node.validateSignThreadNum must be positive");
+    }
+
+    INSTANCE.signatureCacheSize = config.hasPath("node.signatureCacheSize") ? config
+        .getLong("node.signatureCacheSize") : 100_000;
+
+    INSTANCE.maxPendingTransactions = config.hasPath("node.maxPendingTransactions") ? config
+        .getInt("node.maxPendingTransactions") : 50_000;
+    if (INSTANCE.maxPendingTransactions <= 0) {
+      throw new IllegalArgumentException("node.maxPendingTransactions must be positive");
+    }
+
+    INSTANCE.reusePendingState = !config.hasPath("node.reusePendingState") || config
+        .getBoolean("node.reusePendingState");
+
+    INSTANCE.transactionExecutionMode = config.hasPath("node.transactionExecution")
+        ? TransactionExecutor.Mode.valueOf(config.getString("node.transactionExecution")
+        .toUpperCase()) : TransactionExecutor.Mode.SERIAL;
+
+    INSTANCE.checkpoints = config.hasPath("node.checkpoints") ? getCheckpointsFromConfig(config)
+        : Collections.emptyList();
+
+    INSTANCE.fastSync = config.hasPath("node.fastSync") && config.getBoolean("node.fastSync");
+
+    INSTANCE.maxPeerMessageQueue = config.hasPath("node.maxPeerMessageQueue") ? config
+        .getInt("node.maxPeerMessageQueue") : 1000;
+    if (INSTANCE.maxPeerMessageQueue <= 0) {
+      throw new IllegalArgumentException("node.maxPeerMessageQueue must be positive");
+    }
+
+    INSTANCE.nodeIoThreads =
+        config.hasPath("node.ioThreads") ? config.getInt("node.ioThreads") : 0;
+    if (INSTANCE.nodeIoThreads < 0) {
+      throw new IllegalArgumentException("node.ioThreads must not be negative");
+    }
+
+    INSTANCE.nodeEpoll = !config.hasPath("node.epoll") || config.getBoolean("node.epoll");
+
+    INSTANCE.rpcShareEventLoops = config.hasPath("node.rpc.shareEventLoops") && config
+        .getBoolean("node.rpc.shareEventLoops");
+
     if (StringUtils.isEmpty(INSTANCE.trustNodeAddr)) {
       INSTANCE.trustNodeAddr = config.hasPath("node.trustNode") ? config.getString("node.trustNode") : null;
     }
@@ -336,6 +476,26 @@ public class Args {
     return witness;
   }
 
+  private static List<BlockId> getCheckpointsFromConfig(final com.typesafe.config.Config config) {
+    return config.getObjectList("node.checkpoints").stream()
+        .map(Args::createCheckpoint)
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  private static BlockId createCheckpoint(final ConfigObject checkpoint) {
+    final long number = checkpoint.toConfig().getLong("number");
+    final byte[] id = ByteArray.fromHexString(checkpoint.get("id").unwrapped().toString());
+    if (id.length != 32) {
+      throw new IllegalArgumentException("The id of checkpoint " + number + " must be 32 bytes.");
+    }
+    final BlockId blockId = new BlockId(Sha256Hash.wrap(id));
+    if (blockId.getNum() != number) {
+      throw new IllegalArgumentException(
+          "The id of checkpoint " + number + " is the one of block " + blockId.getNum() + ".");
+    }
+    return blockId;
+  }
+
   private static List<Account> getAccountsFromConfig(final com.typesafe.config.Config config) {
     return config.getObjectList("genesis.block.assets").stream()
         .map(Args::createAccount)
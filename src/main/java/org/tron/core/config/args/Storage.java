@@ -1,11 +1,157 @@
 package org.tron.core.config.args;
 
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 
 public class Storage {
 
+  private static final String DEFAULT_PROFILE_KEY = "storage.default";
+  private static final String PROFILES_KEY = "storage.profiles";
+  private static final String ROCKSDB_KEY = "storage.rocksdb";
+  private static final String REVOKING_KEY = "storage.revoking";
+
   @Getter
   @Setter
   private String directory;
+
+  @Getter
+  private StorageProfile defaultProfile = StorageProfile.defaultProfile();
+
+  private Map<String, StorageProfile> profiles = new HashMap<>();
+
+  /**
+   * Size in bytes of the block cache shared by all the RocksDB stores.
+   */
+  @Getter
+  @Setter
+  private long rocksDbBlockCacheSize = 256L * 1024 * 1024;
+
+  /**
+   * Bytes per second compaction and flush may write, 0 disables the limit.
+   */
+  @Getter
+  @Setter
+  private long rocksDbCompactionRateLimit = 64L * 1024 * 1024;
+
+  @Getter
+  @Setter
+  private int rocksDbMaxBackgroundCompactions = 4;
+
+  @Getter
+  @Setter
+  private int rocksDbMaxOpenFiles = 1024;
+
+  /**
+   * Keep an on-disk journal of the unsolidified blocks so they survive a restart.
+   */
+  @Getter
+  @Setter
+  private boolean revokingJournal = true;
+
+  /**
+   * Unsolidified blocks kept in memory, older ones are written to the stores and stay revocable
+   * through the undo records of the journal.
+   */
+  @Getter
+  @Setter
+  private int revokingHeapSnapshots = 64;
+
+  public Storage() {
+    StorageProfile account = StorageProfile.pointLookup("account", 64 * 1024 * 1024);
+    account.setCapsuleCacheSize(16 * 1024 * 1024);
+    putProfile(account);
+    putProfile(StorageProfile.pointLookup("properties", 1024 * 1024));
+    putProfile(StorageProfile.pointLookup("block-index", 16 * 1024 * 1024));
+    StorageProfile witness = StorageProfile.pointLookup("witness", 4 * 1024 * 1024);
+    witness.setCapsuleCacheSize(1024 * 1024);
+    putProfile(witness);
+    putProfile(StorageProfile.pointLookup("witness_schedule", 1024 * 1024));
+    StorageProfile assetIssue = StorageProfile.pointLookup("asset-issue", 4 * 1024 * 1024);
+    assetIssue.setCapsuleCacheSize(4 * 1024 * 1024);
+    putProfile(assetIssue);
+    putProfile(StorageProfile.pointLookup("store-stats", 1024 * 1024));
+    putProfile(StorageProfile.bulk("block"));
+    putProfile(StorageProfile.bulk("trans"));
+  }
+
+  public void putProfile(StorageProfile profile) {
+    profiles.put(profile.getName(), profile);
+  }
+
+  /**
+   * get the profile of a database, falls back to the default profile.
+   */
+  public StorageProfile getProfile(String dbName) {
+    StorageProfile profile = profiles.get(dbName);
+    return profile == null ? defaultProfile : profile;
+  }
+
+  /**
+   * override the built-in profiles with storage.default and storage.profiles.
+   */
+  public void setProfilesFromConfig(final Config config) {
+    if (config.hasPath(DEFAULT_PROFILE_KEY)) {
+      defaultProfile = defaultProfile.merge("default", config.getConfig(DEFAULT_PROFILE_KEY));
+    }
+
+    if (!config.hasPath(PROFILES_KEY)) {
+      return;
+    }
+
+    for (ConfigObject object : config.getObjectList(PROFILES_KEY)) {
+      Config profileConfig = object.toConfig();
+      if (!profileConfig.hasPath("name")) {
+        throw new IllegalArgumentException("storage profile must have a name");
+      }
+      String name = profileConfig.getString("name");
+      putProfile(getProfile(name).merge(name, profileConfig));
+    }
+  }
+
+  /**
+   * read the options shared by the RocksDB stores from storage.rocksdb.
+   */
+  public void setRocksDbFromConfig(final Config config) {
+    if (!config.hasPath(ROCKSDB_KEY)) {
+      return;
+    }
+
+    Config rocksDb = config.getConfig(ROCKSDB_KEY);
+    if (rocksDb.hasPath("blockCacheSize")) {
+      rocksDbBlockCacheSize = rocksDb.getBytes("blockCacheSize");
+    }
+    if (rocksDb.hasPath("compactionRateLimit")) {
+      rocksDbCompactionRateLimit = rocksDb.getBytes("compactionRateLimit");
+    }
+    if (rocksDb.hasPath("maxBackgroundCompactions")) {
+      rocksDbMaxBackgroundCompactions = rocksDb.getInt("maxBackgroundCompactions");
+    }
+    if (rocksDb.hasPath("maxOpenFiles")) {
+      rocksDbMaxOpenFiles = rocksDb.getInt("maxOpenFiles");
+    }
+  }
+
+  /**
+   * read the options of the revoking database from storage.revoking.
+   */
+  public void setRevokingFromConfig(final Config config) {
+    if (!config.hasPath(REVOKING_KEY)) {
+      return;
+    }
+
+    Config revoking = config.getConfig(REVOKING_KEY);
+    if (revoking.hasPath("journal")) {
+      revokingJournal = revoking.getBoolean("journal");
+    }
+    if (revoking.hasPath("heapSnapshots")) {
+      revokingHeapSnapshots = revoking.getInt("heapSnapshots");
+      if (revokingHeapSnapshots <= 0) {
+        throw new IllegalArgumentException("storage.revoking.heapSnapshots must be positive");
+      }
+    }
+  }
 }
@@ -0,0 +1,163 @@
+package org.tron.core.config.args;
+
+import com.typesafe.config.Config;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Engine independent tuning options of a single named database.
+ */
+@ToString
+public class StorageProfile {
+
+  public static final String ENGINE_LEVELDB = "LEVELDB";
+  public static final String ENGINE_ROCKSDB = "ROCKSDB";
+
+  private static final String ENGINE_KEY = "engine";
+  private static final String BLOCK_CACHE_SIZE_KEY = "blockCacheSize";
+  private static final String BLOOM_FILTER_BITS_PER_KEY_KEY = "bloomFilterBitsPerKey";
+  private static final String BLOCK_SIZE_KEY = "blockSize";
+  private static final String WRITE_BUFFER_SIZE_KEY = "writeBufferSize";
+  private static final String COMPRESSION_KEY = "compression";
+  private static final String MAX_OPEN_FILES_KEY = "maxOpenFiles";
+  private static final String CAPSULE_CACHE_SIZE_KEY = "capsuleCacheSize";
+
+  @Getter
+  @Setter
+  private String name;
+
+  /**
+   * Storage engine of the database, LEVELDB or ROCKSDB.
+   */
+  @Getter
+  @Setter
+  private String engine = ENGINE_LEVELDB;
+
+  /**
+   * Size in bytes of the uncompressed block cache, 0 disables the cache. RocksDB stores share
+   * one cache sized by storage.rocksdb.blockCacheSize instead.
+   */
+  @Getter
+  @Setter
+  private long blockCacheSize;
+
+  /**
+   * Bits per key of the bloom filter, 0 disables the filter. Only honoured by RocksDB, leveldbjni
+   * does not expose a filter policy.
+   */
+  @Getter
+  @Setter
+  private int bloomFilterBitsPerKey;
+
+  @Getter
+  @Setter
+  private int blockSize;
+
+  @Getter
+  @Setter
+  private int writeBufferSize;
+
+  @Getter
+  @Setter
+  private boolean compression;
+
+  /**
+   * Open file limit of a LevelDB store. RocksDB stores share storage.rocksdb.maxOpenFiles.
+   */
+  @Getter
+  @Setter
+  private int maxOpenFiles;
+
+  /**
+   * Serialized bytes of the parsed values a store keeps in memory, 0 disables the cache. Only
+   * the account, witness and asset-issue stores have a cache.
+   */
+  @Getter
+  @Setter
+  private long capsuleCacheSize;
+
+  public StorageProfile(String name, long blockCacheSize, int bloomFilterBitsPerKey,
+      int blockSize, int writeBufferSize, boolean compression, int maxOpenFiles) {
+    this.name = name;
+    this.blockCacheSize = blockCacheSize;
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.blockSize = blockSize;
+    this.writeBufferSize = writeBufferSize;
+    this.compression = compression;
+    this.maxOpenFiles = maxOpenFiles;
+  }
+
+  /**
+   * profile for stores served by random point lookups, e.g. account.
+   */
+  public static StorageProfile pointLookup(String name, long blockCacheSize) {
+    return new StorageProfile(name, blockCacheSize, 10, 4 * 1024, 16 * 1024 * 1024, true, 256);
+  }
+
+  /**
+   * profile for append mostly stores read by sequential scans, e.g. block.
+   */
+  public static StorageProfile bulk(String name) {
+    return new StorageProfile(name, 8 * 1024 * 1024, 0, 256 * 1024, 64 * 1024 * 1024, true, 128);
+  }
+
+  /**
+   * profile of the stores which have no explicit profile.
+   */
+  public static StorageProfile defaultProfile() {
+    return new StorageProfile("default", 8 * 1024 * 1024, 0, 16 * 1024, 10 * 1024 * 1024,
+        false, 64);
+  }
+
+  /**
+   * copy this profile under another name, overriding every option present in config.
+   */
+  public StorageProfile merge(String name, Config config) {
+    StorageProfile profile = new StorageProfile(name, blockCacheSize, bloomFilterBitsPerKey,
+        blockSize, writeBufferSize, compression, maxOpenFiles);
+    profile.engine = engine;
+    profile.capsuleCacheSize = capsuleCacheSize;
+    if (config.hasPath(ENGINE_KEY)) {
+      profile.engine = config.getString(ENGINE_KEY).toUpperCase();
+    }
+    if (config.hasPath(BLOCK_CACHE_SIZE_KEY)) {
+      profile.blockCacheSize = config.getBytes(BLOCK_CACHE_SIZE_KEY);
+    }
+    if (config.hasPath(BLOOM_FILTER_BITS_PER_KEY_KEY)) {
+      profile.bloomFilterBitsPerKey = config.getInt(BLOOM_FILTER_BITS_PER_KEY_KEY);
+    }
+    if (config.hasPath(BLOCK_SIZE_KEY)) {
+      profile.blockSize = config.getBytes(BLOCK_SIZE_KEY).intValue();
+    }
+    if (config.hasPath(WRITE_BUFFER_SIZE_KEY)) {
+      profile.writeBufferSize = config.getBytes(WRITE_BUFFER_SIZE_KEY).intValue();
+    }
+    if (config.hasPath(COMPRESSION_KEY)) {
+      profile.compression = config.getBoolean(COMPRESSION_KEY);
+    }
+    if (config.hasPath(MAX_OPEN_FILES_KEY)) {
+      profile.maxOpenFiles = config.getInt(MAX_OPEN_FILES_KEY);
+    }
+    if (config.hasPath(CAPSULE_CACHE_SIZE_KEY)) {
+      profile.capsuleCacheSize = config.getBytes(CAPSULE_CACHE_SIZE_KEY);
+    }
+    profile.validate();
+    return profile;
+  }
+
+  private void validate() {
+    if (!ENGINE_LEVELDB.equals(engine) && !ENGINE_ROCKSDB.equals(engine)) {
+      throw new IllegalArgumentException(
+          "engine of " + name + " must be " + ENGINE_LEVELDB + " or " + ENGINE_ROCKSDB);
+    }
+    if (blockCacheSize < 0 || bloomFilterBitsPerKey < 0 || capsuleCacheSize < 0) {
+      throw new IllegalArgumentException("blockCacheSize, bloomFilterBitsPerKey and "
+          + "capsuleCacheSize of " + name + " must not be negative");
+    }
+    if (blockSize <= 0 || writeBufferSize <= 0 || maxOpenFiles <= 0) {
+      throw new IllegalArgumentException(
+          "blockSize, writeBufferSize and maxOpenFiles of " + name + " must be positive");
+    }
+  }
+}
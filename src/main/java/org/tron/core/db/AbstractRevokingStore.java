@@ -9,12 +9,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
 import org.iq80.leveldb.WriteOptions;
+import org.tron.common.storage.DbSourceInter;
 import org.tron.common.storage.SourceInter;
 import org.tron.common.utils.Utils;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
@@ -31,6 +34,23 @@ public abstract class AbstractRevokingStore implements RevokingDatabase {
   private AtomicInteger maxSize = new AtomicInteger(DEFAULT_STACK_MAX_SIZE);
   private WriteOptions writeOptions = new WriteOptions().sync(true);
 
+  @Override
+  public DbSourceInter<byte[]> wrap(DbSourceInter<byte[]> source) {
+    return source;
+  }
+
+  @Override
+  public void recover() {
+  }
+
+  /**
+   * the undo log writes in place, so the view reads the live state.
+   */
+  @Override
+  public ReadView openView() {
+    return ReadView.live();
+  }
+
   @Override
   public Dialog buildDialog() {
     return buildDialog(false);
@@ -108,6 +128,51 @@ public abstract class AbstractRevokingStore implements RevokingDatabase {
     state.removed.put(tuple, Utils.clone(value));
   }
 
+  @Override
+  public synchronized void onPut(RevokingTuple tuple, Supplier<byte[]> value) {
+    if (disabled) {
+      return;
+    }
+
+    addIfEmtpy();
+    RevokingState state = stack.peekLast();
+    if (state.newIds.contains(tuple) || state.oldValues.containsKey(tuple)) {
+      return;
+    }
+
+    if (state.removed.containsKey(tuple)) {
+      state.newIds.add(tuple);
+      return;
+    }
+
+    byte[] oldValue = value.get();
+    if (ArrayUtils.isEmpty(oldValue)) {
+      state.newIds.add(tuple);
+    } else {
+      state.oldValues.put(tuple, Utils.clone(oldValue));
+    }
+  }
+
+  @Override
+  public synchronized void onDelete(RevokingTuple tuple, Supplier<byte[]> value) {
+    if (disabled) {
+      return;
+    }
+
+    addIfEmtpy();
+    RevokingState state = stack.peekLast();
+    if (state.newIds.contains(tuple) || state.oldValues.containsKey(tuple)
+        || state.removed.containsKey(tuple)) {
+      onRemove(tuple, null);
+      return;
+    }
+
+    byte[] oldValue = value.get();
+    if (Objects.nonNull(oldValue)) {
+      state.removed.put(tuple, Utils.clone(oldValue));
+    }
+  }
+
   @Override
   public synchronized void merge() throws RevokingStoreIllegalStateException {
     if (activeDialog <= 0) {
@@ -220,7 +285,6 @@ public abstract class AbstractRevokingStore implements RevokingDatabase {
     }
   }
 
-  @Override
   public synchronized RevokingState head() {
     if (stack.isEmpty()) {
       return null;
@@ -250,6 +314,7 @@ public abstract class AbstractRevokingStore implements RevokingDatabase {
     return stack.size();
   }
 
+  @Override
   public void setMaxSize(int maxSize) {
     this.maxSize.set(maxSize);
   }
@@ -1,20 +1,22 @@
 package org.tron.core.db;
 
 import com.typesafe.config.ConfigObject;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.tron.common.storage.ScanOptions;
 import org.tron.core.Wallet;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.db.common.iterator.AccountIterator;
+import org.tron.protos.Protocol.Account;
 
 @Slf4j
 @Component
@@ -52,7 +54,12 @@ public class AccountStore extends TronStoreWithRevoking<AccountCapsule> {
   @Override
   public AccountCapsule get(byte[] key) {
     byte[] value = dbSource.getData(key);
-    return ArrayUtils.isEmpty(value) ? null : new AccountCapsule(value);
+    if (ArrayUtils.isEmpty(value)) {
+      return null;
+    }
+
+    Account account = getParsed(key, value, data -> new AccountCapsule(data).getInstance());
+    return account == null ? new AccountCapsule(value) : new AccountCapsule(account);
   }
 
   /**
@@ -78,11 +85,9 @@ public class AccountStore extends TronStoreWithRevoking<AccountCapsule> {
    * get all accounts.
    */
   public List<AccountCapsule> getAllAccounts() {
-    return dbSource
-        .allValues()
-        .stream()
-        .map(bytes -> new AccountCapsule(bytes))
-        .collect(Collectors.toList());
+    List<AccountCapsule> accounts = new ArrayList<>();
+    iterator(ScanOptions.forward()).forEachRemaining(entry -> accounts.add(entry.getValue()));
+    return accounts;
   }
 
   /**
@@ -126,4 +131,9 @@ public class AccountStore extends TronStoreWithRevoking<AccountCapsule> {
   public Iterator<Entry<byte[], AccountCapsule>> iterator() {
     return new AccountIterator(dbSource.iterator());
   }
+
+  @Override
+  public AccountIterator iterator(ScanOptions options) {
+    return new AccountIterator(dbSource.iterator(options));
+  }
 }
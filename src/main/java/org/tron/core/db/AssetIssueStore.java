@@ -1,16 +1,18 @@
 package org.tron.core.db;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.tron.common.storage.ScanOptions;
 import org.tron.core.capsule.AssetIssueCapsule;
 import org.tron.core.db.common.iterator.AssetIssueIterator;
+import org.tron.protos.Contract.AssetIssueContract;
 
 @Slf4j
 @Component
@@ -46,7 +48,13 @@ public class AssetIssueStore extends TronStoreWithRevoking<AssetIssueCapsule> {
   @Override
   public AssetIssueCapsule get(byte[] key) {
     byte[] value = dbSource.getData(key);
-    return ArrayUtils.isEmpty(value) ? null : new AssetIssueCapsule(value);
+    if (ArrayUtils.isEmpty(value)) {
+      return null;
+    }
+
+    AssetIssueContract assetIssue = getParsed(key, value,
+        data -> new AssetIssueCapsule(data).getInstance());
+    return assetIssue == null ? new AssetIssueCapsule(value) : new AssetIssueCapsule(assetIssue);
   }
 
   /**
@@ -73,9 +81,9 @@ public class AssetIssueStore extends TronStoreWithRevoking<AssetIssueCapsule> {
    * get all asset issues.
    */
   public List<AssetIssueCapsule> getAllAssetIssues() {
-    return dbSource.allKeys().stream()
-        .map(this::get)
-        .collect(Collectors.toList());
+    List<AssetIssueCapsule> assetIssues = new ArrayList<>();
+    iterator(ScanOptions.forward()).forEachRemaining(entry -> assetIssues.add(entry.getValue()));
+    return assetIssues;
   }
 
   @Override
@@ -83,4 +91,9 @@ public class AssetIssueStore extends TronStoreWithRevoking<AssetIssueCapsule> {
     return new AssetIssueIterator(dbSource.iterator());
   }
 
+  @Override
+  public AssetIssueIterator iterator(ScanOptions options) {
+    return new AssetIssueIterator(dbSource.iterator(options));
+  }
+
 }
@@ -26,6 +26,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.tron.common.storage.ScanOptions;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
@@ -52,6 +53,11 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
     instance = null;
   }
 
+  @Override
+  protected boolean isCounted() {
+    return true;
+  }
+
   @Override
   public void put(byte[] key, BlockCapsule item) {
     super.put(key, item);
@@ -125,4 +131,9 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
     return new BlockIterator(dbSource.iterator());
   }
 
+  @Override
+  public BlockIterator iterator(ScanOptions options) {
+    return new BlockIterator(dbSource.iterator(options));
+  }
+
 }
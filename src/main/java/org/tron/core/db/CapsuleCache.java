@@ -0,0 +1,117 @@
+package org.tron.core.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the parsed values of a store, weighed by their serialized size. An entry keeps
+ * the bytes it was parsed from and is only served while the store returns the same bytes, so a
+ * revoked dialog, a popped block or a read view pinned to an older head never sees a stale value
+ * and the revoking stores need not notify the cache.
+ */
+public class CapsuleCache<V> {
+
+  /**
+   * heap of a parsed value relative to its serialized size, protobuf messages take about twice
+   * the bytes they are encoded in.
+   */
+  private static final int PARSED_WEIGHT = 2;
+
+  private final Cache<ByteArrayWrapper, Entry<V>> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public CapsuleCache(long maxBytes) {
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((ByteArrayWrapper key, Entry<V> entry) -> entry.weight(key))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * the value parsed from data, parse is only called if the cached value was parsed from other
+   * bytes. A null result is returned but not cached.
+   */
+  public V get(byte[] key, byte[] data, Function<byte[], ? extends V> parse) {
+    ByteArrayWrapper wrapper = new ByteArrayWrapper(key);
+    Entry<V> entry = cache.getIfPresent(wrapper);
+    if (entry != null && entry.matches(data)) {
+      hits.increment();
+      return entry.value;
+    }
+
+    misses.increment();
+    V value = parse.apply(data);
+    // a read view sees an older state, keep the cache at the head
+    if (value != null && ReadView.current() == null) {
+      cache.put(wrapper, new Entry<>(data, value));
+    }
+    return value;
+  }
+
+  /**
+   * cache a value about to be written as data.
+   */
+  public void put(byte[] key, byte[] data, V value) {
+    if (value == null) {
+      invalidate(key);
+      return;
+    }
+    cache.put(new ByteArrayWrapper(key), new Entry<>(data, value));
+  }
+
+  public void invalidate(byte[] key) {
+    cache.invalidate(new ByteArrayWrapper(key));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * entries dropped to stay within the size, invalidated entries are not counted.
+   */
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static final class Entry<V> {
+
+    private final byte[] data;
+    private final V value;
+
+    private Entry(byte[] data, V value) {
+      this.data = data;
+      this.value = value;
+    }
+
+    private boolean matches(byte[] other) {
+      return data == other || Arrays.equals(data, other);
+    }
+
+    private int weight(ByteArrayWrapper key) {
+      long weight = (long) key.getData().length + (long) PARSED_WEIGHT * data.length;
+      return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+  }
+}
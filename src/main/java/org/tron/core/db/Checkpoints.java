@@ -0,0 +1,93 @@
+package org.tron.core.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+
+/**
+ * Blocks known to be on the chain, set by node.checkpoints. A block at the number of a checkpoint
+ * must have its id.
+ *
+ * <p>With fast sync, a block is trusted only if its id is proven to be on the chain of a
+ * checkpoint: the id of a checkpoint is proven, and a received block whose id is proven proves
+ * the id of its parent, since its id hashes its header and so its parent hash. {@link #link}
+ * walks the blocks received and not yet executed back from the checkpoints this way, so the
+ * blocks up to a checkpoint are trusted once the sync has fetched them all. A trusted block that
+ * extends the head skips the witness signature, transaction signatures and witness schedule
+ * checks, its merkle root is still checked and its transactions still executed. Any other block
+ * gets every check.
+ */
+public class Checkpoints {
+
+  private final NavigableMap<Long, BlockId> ids = new TreeMap<>();
+  private final boolean fastSync;
+
+  /**
+   * ids proven to be on the chain of a checkpoint, by number.
+   */
+  private final NavigableMap<Long, BlockId> linked = new TreeMap<>();
+
+  public Checkpoints(List<BlockId> checkpoints, boolean fastSync) {
+    checkpoints.forEach(id -> ids.put(id.getNum(), id));
+    this.fastSync = fastSync;
+    if (fastSync) {
+      linked.putAll(ids);
+    }
+  }
+
+  /**
+   * false if a checkpoint at the number of block has another id.
+   */
+  public boolean matches(BlockCapsule block) {
+    BlockId id = ids.get(block.getNum());
+    return id == null || id.equals(block.getBlockId());
+  }
+
+  /**
+   * prove the ids of the received blocks that link back from a checkpoint by their parent
+   * hashes, the ones up to headNum are dropped as they are executed already.
+   */
+  public synchronized void link(Collection<BlockCapsule> received, long headNum) {
+    if (!fastSync) {
+      return;
+    }
+
+    linked.headMap(headNum, true).clear();
+    Map<Sha256Hash, BlockCapsule> blocks = new HashMap<>();
+    received.forEach(block -> blocks.put(block.getBlockId(), block));
+    for (BlockId id : new ArrayList<>(linked.values())) {
+      BlockCapsule block = blocks.get(id);
+      while (block != null && block.getNum() > headNum + 1) {
+        BlockId parent = block.getParentBlockId();
+        if (parent.equals(linked.put(parent.getNum(), parent))) {
+          break;
+        }
+        block = blocks.get(parent);
+      }
+    }
+  }
+
+  /**
+   * whether block can skip the signature and schedule checks on top of head.
+   */
+  public synchronized boolean isTrusted(BlockCapsule block, Sha256Hash head) {
+    return fastSync
+        && head != null
+        && head.equals(block.getParentHash())
+        && block.getBlockId().equals(linked.get(block.getNum()));
+  }
+
+  /**
+   * number of the highest checkpoint, -1 without checkpoints.
+   */
+  public long getHighestNum() {
+    return ids.isEmpty() ? -1 : ids.lastKey();
+  }
+}
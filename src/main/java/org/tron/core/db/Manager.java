@@ -9,11 +9,14 @@ import com.carrotsearch.sizeof.RamUsageEstimator;
 import com.google.common.collect.Lists;
 import com.google.protobuf.ByteString;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import javafx.util.Pair;
 import javax.annotation.PostConstruct;
@@ -26,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.overlay.discover.Node;
+import org.tron.common.storage.DbSourceInter;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.DialogOptional;
 import org.tron.common.utils.Sha256Hash;
@@ -34,6 +38,7 @@ import org.tron.common.utils.Time;
 import org.tron.core.actuator.Actuator;
 import org.tron.core.actuator.ActuatorFactory;
 import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.BlockBuilder;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.capsule.BytesCapsule;
@@ -88,6 +93,8 @@ public class Manager {
   private WitnessScheduleStore witnessScheduleStore;
   @Autowired
   private RecentBlockStore recentBlockStore;
+  @Autowired
+  private StoreStatisticsStore storeStatisticsStore;
 
   // for network
   @Autowired
@@ -100,6 +107,16 @@ public class Manager {
 
   private BlockCapsule genesisBlock;
   private RevokingDatabase revokingStore;
+  private WriteSession writeSession = WriteSession.getInstance();
+
+  /**
+   * recovers the transaction signers of a block before it is applied and runs the independent
+   * transactions in parallel.
+   */
+  private ForkJoinPool blockProcessPool;
+
+  @Getter
+  private TransactionExecutor transactionExecutor;
 
   @Getter
   private DialogOptional dialog = DialogOptional.instance();
@@ -140,7 +157,7 @@ public class Manager {
     this.witnessScheduleStore = witnessScheduleStore;
   }
 
-  public List<TransactionCapsule> getPendingTransactions() {
+  public TransactionPool getPendingTransactions() {
     return this.pendingTransactions;
   }
 
@@ -149,7 +166,18 @@ public class Manager {
   }
 
   // transactions cache
-  private List<TransactionCapsule> pendingTransactions;
+  private TransactionPool pendingTransactions;
+
+  /**
+   * head block the pending state was last rebuilt on.
+   */
+  private Sha256Hash pendingStateHead;
+
+  private final LongAdder reusedTransactions = new LongAdder();
+  private final LongAdder reexecutedTransactions = new LongAdder();
+
+  private Checkpoints checkpoints;
+  private final LongAdder trustedBlocks = new LongAdder();
 
   // transactions popped
   private List<TransactionCapsule> popedTransactions =
@@ -188,6 +216,14 @@ public class Manager {
     return getDynamicPropertiesStore().getLatestBlockHeaderNumber();
   }
 
+  /**
+   * open a read view of the stores at the current head block, bound to the calling thread until
+   * it is closed.
+   */
+  public ReadView openReadView() {
+    return revokingStore.openView();
+  }
+
   public long getHeadBlockTimeStamp() {
     return getDynamicPropertiesStore().getLatestBlockHeaderTimestamp();
   }
@@ -238,8 +274,19 @@ public class Manager {
   public void init() {
     revokingStore = RevokingStore.getInstance();
     revokingStore.disable();
+    revokingStore.recover();
+    storeStatisticsStore.seed(transactionStore);
+    storeStatisticsStore.seed(blockStore);
     this.setWitnessController(WitnessController.createInstance(this));
-    this.pendingTransactions = Collections.synchronizedList(Lists.newArrayList());
+    this.pendingTransactions = new TransactionPool(Args.getInstance().getMaxPendingTransactions());
+    this.blockProcessPool = new ForkJoinPool(Args.getInstance().getValidateSignThreadNum());
+    this.transactionExecutor = new TransactionExecutor(this, revokingStore, blockProcessPool,
+        Args.getInstance().getTransactionExecutionMode());
+    this.checkpoints = new Checkpoints(Args.getInstance().getCheckpoints(),
+        Args.getInstance().isFastSync());
+    if (Args.getInstance().isFastSync()) {
+      logger.info("fast sync up to block {}", checkpoints.getHighestNum());
+    }
     this.initGenesis();
     try {
       this.khaosDb.start(getBlockById(getDynamicPropertiesStore().getLatestBlockHeaderHash()));
@@ -408,39 +455,116 @@ public class Manager {
   }
 
   /**
-   * push transaction into db.
+   * push transaction into the pending transactions, false if they are full of transactions
+   * expiring later or the transaction expired.
    */
   public synchronized boolean pushTransactions(final TransactionCapsule trx)
       throws ValidateSignatureException, ContractValidateException, ContractExeException,
       ValidateBandwidthException, DupTransactionException, TaposException {
     logger.info("push transaction");
 
+    if (pendingTransactions.contains(trx.getTransactionId())) {
+      throw new DupTransactionException("dup trans");
+    }
+
     if (getTransactionStore().get(trx.getTransactionId().getBytes()) != null) {
       logger.debug(getTransactionStore().get(trx.getTransactionId().getBytes()).toString());
       throw new DupTransactionException("dup trans");
     }
 
+    if (!pendingTransactions
+        .admits(trx, getDynamicPropertiesStore().getLatestBlockHeaderTimestamp())) {
+      logger.info("transaction expired or pending transactions full");
+      return false;
+    }
+
+    pendingTransactions.add(trx, executePending(trx));
+    return true;
+  }
+
+  /**
+   * validate and execute a pending transaction on the pending state. The writes of the execution
+   * are left in the state and returned, null if they can't be told apart.
+   */
+  WriteSet executePending(final TransactionCapsule trx)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      ValidateBandwidthException, TaposException {
     if (!trx.validateSignature()) {
       throw new ValidateSignatureException("trans sig validate failed");
     }
 
-    validateTapos(trx);
-
     //validateFreq(trx);
 
     if (!dialog.valid()) {
       dialog.setValue(revokingStore.buildDialog());
     }
 
-    try (RevokingStore.Dialog tmpDialog = revokingStore.buildDialog()) {
-      consumeBandwidth(trx);
-      processTransaction(trx);
-      pendingTransactions.add(trx);
-      tmpDialog.merge();
+    try {
+      return executeCapturing(trx, true);
     } catch (RevokingStoreIllegalStateException e) {
       logger.debug(e.getMessage(), e);
+      return null;
     }
-    return true;
+  }
+
+  /**
+   * execute trx in a dialog merged into the current one, a pending transaction is also checked and
+   * charged as on arrival. Returns the writes, null if they can't be told apart.
+   */
+  private WriteSet executeCapturing(final TransactionCapsule trx, boolean pending)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      ValidateBandwidthException, TaposException, RevokingStoreIllegalStateException {
+    try (Dialog tmpDialog = revokingStore.buildDialog()) {
+      WriteSet writes = null;
+      if (revokingStore instanceof SnapshotRevokingStore) {
+        // the tapos check reads the recent block store, reusing the slot makes it stale
+        try (WriteSet set = new WriteSet()) {
+          runTransaction(trx, pending);
+          writes = set;
+        }
+        writes.apply((SnapshotRevokingStore) revokingStore);
+      } else {
+        runTransaction(trx, pending);
+      }
+      tmpDialog.merge();
+      return writes;
+    }
+  }
+
+  private void runTransaction(final TransactionCapsule trx, boolean pending)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      ValidateBandwidthException, TaposException {
+    if (pending) {
+      validateTapos(trx);
+      consumeBandwidth(trx);
+    }
+    executeTransaction(trx);
+  }
+
+  void setPendingStateHead(Sha256Hash head) {
+    this.pendingStateHead = head;
+  }
+
+  void setCheckpoints(Checkpoints checkpoints) {
+    this.checkpoints = checkpoints;
+  }
+
+  /**
+   * prove the received blocks, not executed yet, that link back from a checkpoint, so they're
+   * trusted with fast sync.
+   */
+  public void linkCheckpoints(Collection<BlockCapsule> received) {
+    checkpoints.link(received, getDynamicPropertiesStore().getLatestBlockHeaderNumber());
+  }
+
+  /**
+   * apply the writes of a pending transaction to the pending state again, without executing it.
+   */
+  void applyPending(final WriteSet writes) {
+    if (!dialog.valid()) {
+      dialog.setValue(revokingStore.buildDialog());
+    }
+    writes.apply((SnapshotRevokingStore) revokingStore);
   }
 
 
@@ -525,9 +649,17 @@ public class Manager {
 
   private void applyBlock(BlockCapsule block)
       throws ContractValidateException, ContractExeException, ValidateSignatureException, ValidateBandwidthException {
-    processBlock(block);
-    this.blockStore.put(block.getBlockId().getBytes(), block);
-    this.blockIndexStore.put(block.getBlockId());
+    block.validateTransactionSignatures(blockProcessPool);
+    writeSession.begin();
+    try {
+      processBlock(block);
+      this.blockStore.put(block.getBlockId().getBytes(), block);
+      this.blockIndexStore.put(block.getBlockId());
+      writeSession.commit();
+      block.getTransactions().forEach(pendingTransactions::remove);
+    } finally {
+      writeSession.discard();
+    }
   }
 
   private void switchFork(BlockCapsule newHead) {
@@ -588,8 +720,15 @@ public class Manager {
 
     try (PendingManager pm = new PendingManager(this)) {
 
+      if (!checkpoints.matches(block)) {
+        throw new ValidateScheduleException(
+            "block " + block.getBlockId().getString() + " doesn't match its checkpoint");
+      }
+      boolean trusted =
+          checkpoints.isTrusted(block, getDynamicPropertiesStore().getLatestBlockHeaderHash());
+
       if (!block.generatedByMyself) {
-        if (!block.validateSignature()) {
+        if (!trusted && !block.validateSignature()) {
           logger.info("The siganature is not validated.");
           // TODO: throw exception here.
           return;
@@ -607,7 +746,10 @@ public class Manager {
       }
 
       // checkWitness
-      if (!witnessController.validateWitnessSchedule(block)) {
+      if (trusted) {
+        block.trustTransactionSignatures();
+        trustedBlocks.increment();
+      } else if (!witnessController.validateWitnessSchedule(block)) {
         throw new ValidateScheduleException("validateWitnessSchedule error");
       }
 
@@ -649,6 +791,7 @@ public class Manager {
                   + ", khaosDb unlinkMiniStore size: "
                   + khaosDb.getMiniUnlinkedStore().size());
 
+          pm.touched(null);
           switchFork(newBlock);
           logger.info("save block: " + newBlock);
 
@@ -674,6 +817,8 @@ public class Manager {
         }
         try (Dialog tmpDialog = revokingStore.buildDialog()) {
           applyBlock(newBlock);
+          pm.touched(revokingStore instanceof SnapshotRevokingStore
+              ? ((SnapshotRevokingStore) revokingStore).dialogKeys() : null);
           tmpDialog.commit();
         } catch (RevokingStoreIllegalStateException e) {
           logger.debug(e.getMessage(), e);
@@ -710,12 +855,11 @@ public class Manager {
     this.dynamicPropertiesStore.saveLatestBlockHeaderNumber(block.getNum());
     this.dynamicPropertiesStore.saveLatestBlockHeaderTimestamp(block.getTimeStamp());
 
-    ((AbstractRevokingStore) revokingStore)
-        .setMaxSize(
-            (int)
-                (dynamicPropertiesStore.getLatestBlockHeaderNumber()
-                    - dynamicPropertiesStore.getLatestSolidifiedBlockNum()
-                    + 1));
+    revokingStore.setMaxSize(
+        (int)
+            (dynamicPropertiesStore.getLatestBlockHeaderNumber()
+                - dynamicPropertiesStore.getLatestSolidifiedBlockNum()
+                + 1));
     khaosDb.setMaxSize((int)
         (dynamicPropertiesStore.getLatestBlockHeaderNumber()
             - dynamicPropertiesStore.getLatestSolidifiedBlockNum()
@@ -792,7 +936,7 @@ public class Manager {
    * judge has blocks.
    */
   public boolean hasBlocks() {
-    return blockStore.dbSource.allKeys().size() > 0 || this.khaosDb.hasData();
+    return blockStore.getCount() > 0 || this.khaosDb.hasData();
   }
 
   /**
@@ -804,6 +948,16 @@ public class Manager {
     if (trxCap == null) {
       return false;
     }
+    executeTransaction(trxCap);
+    storeTransaction(trxCap);
+    return true;
+  }
+
+  /**
+   * validate and execute a transaction without storing it.
+   */
+  void executeTransaction(final TransactionCapsule trxCap)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException, ValidateBandwidthException {
     if (!trxCap.validateSignature()) {
       throw new ValidateSignatureException("trans sig validate failed");
     }
@@ -817,8 +971,10 @@ public class Manager {
       act.execute(ret);
       trxCap.setResult(ret);
     }
+  }
+
+  void storeTransaction(final TransactionCapsule trxCap) {
     transactionStore.put(trxCap.getTransactionId().getBytes(), trxCap);
-    return true;
   }
 
   /**
@@ -849,22 +1005,49 @@ public class Manager {
       throw new IllegalArgumentException("generate block timestamp is invalid.");
     }
 
-    long currentTrxSize = 0;
-    long postponedTrxCount = 0;
-
-    final BlockCapsule blockCapsule =
-        new BlockCapsule(number + 1, preHash, when, witnessCapsule.getAddress());
+    final BlockBuilder blockBuilder =
+        new BlockBuilder(number + 1, preHash, when, witnessCapsule.getAddress());
 
     dialog.reset();
     dialog.setValue(revokingStore.buildDialog());
+    long postponedTrxCount = fillBlock(blockBuilder, when);
+    dialog.reset();
 
-    Iterator iterator = pendingTransactions.iterator();
-    while (iterator.hasNext()) {
-      TransactionCapsule trx = (TransactionCapsule) iterator.next();
-      currentTrxSize += trx.getSerializedSize();
+    if (postponedTrxCount > 0) {
+      logger.info("{} transactions over the block size limit", postponedTrxCount);
+    }
+
+    logger.info(
+        "postponedTrxCount[" + postponedTrxCount + "],TrxLeft[" + pendingTransactions.size() + "]");
+
+    final BlockCapsule blockCapsule = blockBuilder.seal(privateKey);
+    blockCapsule.generatedByMyself = true;
+    this.pushBlock(blockCapsule);
+    return blockCapsule;
+  }
+
+  /**
+   * add the pending transactions that apply on the head to blockBuilder, returns how many were
+   * over the block size limit. If the pending state was built on the head, a transaction whose
+   * execution no key written or dropped since changed gets its writes applied again instead of
+   * being executed.
+   */
+  long fillBlock(BlockBuilder blockBuilder, long when)
+      throws ValidateSignatureException, ValidateBandwidthException {
+    long postponedTrxCount = 0;
+    // keys whose pending writes no longer hold, null if the pending state can't be reused
+    Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> invalidated =
+        Args.getInstance().isReusePendingState() && dynamicPropertiesStore
+            .getLatestBlockHeaderHash().equals(pendingStateHead)
+            ? pendingTransactions.getDroppedKeys() : null;
+
+    for (TransactionCapsule trx : pendingTransactions.getTransactions()) {
+      WriteSet writes = pendingTransactions.getWrites(trx);
       // judge block size
-      if (currentTrxSize > ChainConstant.TRXS_SIZE) {
+      if (blockBuilder.getTransactionsSize() + BlockBuilder.sizeOf(trx)
+          > ChainConstant.TRXS_SIZE) {
         postponedTrxCount++;
+        invalidated = WriteSet.addWrittenKeys(invalidated, writes);
         continue;
       }
 
@@ -873,38 +1056,57 @@ public class Manager {
         break;
       }
 
+      if (invalidated != null && writes != null && !writes.touches(invalidated)) {
+        applyPending(writes);
+        blockBuilder.addTransaction(trx);
+        pendingTransactions.remove(trx);
+        reusedTransactions.increment();
+        continue;
+      }
+
       // apply transaction
-      try (Dialog tmpDialog = revokingStore.buildDialog()) {
-        processTransaction(trx);
-        tmpDialog.merge();
+      invalidated = WriteSet.addWrittenKeys(invalidated, writes);
+      try {
+        WriteSet executed = executeCapturing(trx, false);
         // push into block
-        blockCapsule.addTransaction(trx);
-        iterator.remove();
+        blockBuilder.addTransaction(trx);
+        pendingTransactions.remove(trx);
+        reexecutedTransactions.increment();
+        invalidated = WriteSet.addWrittenKeys(invalidated, executed);
       } catch (ContractExeException e) {
         logger.info("contract not processed during execute");
         logger.debug(e.getMessage(), e);
       } catch (ContractValidateException e) {
         logger.info("contract not processed during validate");
         logger.debug(e.getMessage(), e);
+      } catch (TaposException e) {
+        logger.debug(e.getMessage(), e);
       } catch (RevokingStoreIllegalStateException e) {
         logger.debug(e.getMessage(), e);
       }
     }
+    return postponedTrxCount;
+  }
 
-    dialog.reset();
-
-    if (postponedTrxCount > 0) {
-      logger.info("{} transactions over the block size limit", postponedTrxCount);
-    }
+  /**
+   * pending transactions put in a produced block without being executed again.
+   */
+  public long getReusedTransactionCount() {
+    return reusedTransactions.sum();
+  }
 
-    logger.info(
-        "postponedTrxCount[" + postponedTrxCount + "],TrxLeft[" + pendingTransactions.size() + "]");
+  /**
+   * pending transactions executed again to be put in a produced block.
+   */
+  public long getReexecutedTransactionCount() {
+    return reexecutedTransactions.sum();
+  }
 
-    blockCapsule.setMerkleRoot();
-    blockCapsule.sign(privateKey);
-    blockCapsule.generatedByMyself = true;
-    this.pushBlock(blockCapsule);
-    return blockCapsule;
+  /**
+   * blocks applied without the signature and schedule checks, below a checkpoint.
+   */
+  public long getTrustedBlockCount() {
+    return trustedBlocks.sum();
   }
 
   private void setAccountStore(final AccountStore accountStore) {
@@ -945,9 +1147,7 @@ public class Manager {
     this.updateSignedWitness(block);
     this.updateLatestSolidifiedBlock();
 
-    for (TransactionCapsule transactionCapsule : block.getTransactions()) {
-      processTransaction(transactionCapsule);
-    }
+    transactionExecutor.execute(block.getTransactions());
 
     boolean needMaint = needMaintenance(block.getTimeStamp());
     if (needMaint) {
@@ -1105,6 +1305,7 @@ public class Manager {
     closeOneStore(dynamicPropertiesStore);
     closeOneStore(transactionStore);
     closeOneStore(utxoStore);
+    closeOneStore(storeStatisticsStore);
     System.err.println("******** end to close db ********");
   }
 
@@ -7,7 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 import org.tron.common.overlay.discover.Node;
-import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.storage.DbSourceInter;
 
 @Component
 public class PeersStore extends TronDatabase<Set<Node>> {
@@ -18,7 +18,7 @@ public class PeersStore extends TronDatabase<Set<Node>> {
   }
 
   @Override
-  public LevelDbDataSourceImpl getDbSource() {
+  public DbSourceInter<byte[]> getDbSource() {
     return super.getDbSource();
   }
 
@@ -1,8 +1,11 @@
 package org.tron.core.db;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import org.tron.common.storage.DbSourceInter;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.exception.ContractExeException;
 import org.tron.core.exception.ContractValidateException;
@@ -11,41 +14,55 @@ import org.tron.core.exception.TaposException;
 import org.tron.core.exception.ValidateBandwidthException;
 import org.tron.core.exception.ValidateSignatureException;
 
+/**
+ * Takes the pending state off while blocks are applied and rebuilds it afterwards. A pending
+ * transaction is executed again only if it read or wrote a key written by the blocks or by a
+ * pending transaction before it that changed, the others get their former writes back.
+ */
 @Slf4j
 public class PendingManager implements AutoCloseable {
 
-  List<TransactionCapsule> tmpTransactions = new ArrayList<>();
   Manager dbManager;
 
+  /**
+   * keys written by the blocks applied meanwhile, null if unknown.
+   */
+  private Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> touchedKeys = new HashMap<>();
+
   public PendingManager(Manager db) {
     this.dbManager = db;
-    tmpTransactions.addAll(db.getPendingTransactions());
-    db.getPendingTransactions().clear();
     db.getDialog().reset();
   }
 
+  /**
+   * record the keys written by a block, null if unknown.
+   */
+  void touched(Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys) {
+    touchedKeys = addKeys(touchedKeys, keys);
+  }
+
   @Override
   public void close() {
-    this.tmpTransactions.stream()
-        .filter(
-            trx -> dbManager.getTransactionStore().get(trx.getTransactionId().getBytes()) == null)
-        .forEach(trx -> {
-          try {
-            dbManager.pushTransactions(trx);
-          } catch (ValidateSignatureException e) {
-            logger.error(e.getMessage(), e);
-          } catch (ContractValidateException e) {
-            logger.error(e.getMessage(), e);
-          } catch (ContractExeException e) {
-            logger.error(e.getMessage(), e);
-          } catch (ValidateBandwidthException e) {
-            logger.error(e.getMessage(), e);
-          } catch (DupTransactionException e) {
-            logger.error("pending manager: dup trans", e);
-          } catch (TaposException e) {
-            logger.error("pending manager: tapos exception", e);
-          }
-        });
+    TransactionPool pool = dbManager.getPendingTransactions();
+    pool.removeExpired(dbManager.getDynamicPropertiesStore().getLatestBlockHeaderTimestamp());
+    Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> dirty =
+        addKeys(touchedKeys, pool.drainDroppedKeys());
+
+    for (TransactionCapsule trx : pool.getTransactions()) {
+      WriteSet writes = pool.getWrites(trx);
+      if (dirty != null && writes != null && !writes.touches(dirty)) {
+        dbManager.applyPending(writes);
+      } else {
+        dirty = WriteSet.addWrittenKeys(dirty, writes);
+        if (revalidate(pool, trx)) {
+          dirty = WriteSet.addWrittenKeys(dirty, pool.getWrites(trx));
+        }
+      }
+      dirty = addKeys(dirty, pool.drainDroppedKeys());
+    }
+    dbManager.setPendingStateHead(
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash());
+
     dbManager.getPoppedTransactions().stream()
         .filter(
             trx -> dbManager.getTransactionStore().get(trx.getTransactionId().getBytes()) == null)
@@ -68,4 +85,40 @@ public class PendingManager implements AutoCloseable {
         });
     dbManager.getPoppedTransactions().clear();
   }
+
+  /**
+   * execute trx on the rebuilt state, false if it no longer applies and left the pool.
+   */
+  private boolean revalidate(TransactionPool pool, TransactionCapsule trx) {
+    try {
+      pool.setWrites(trx, dbManager.executePending(trx));
+      return true;
+    } catch (ValidateSignatureException e) {
+      logger.error(e.getMessage(), e);
+    } catch (ContractValidateException e) {
+      logger.error(e.getMessage(), e);
+    } catch (ContractExeException e) {
+      logger.error(e.getMessage(), e);
+    } catch (ValidateBandwidthException e) {
+      logger.error(e.getMessage(), e);
+    } catch (TaposException e) {
+      logger.error("pending manager: tapos exception", e);
+    }
+    pool.remove(trx);
+    return false;
+  }
+
+  /**
+   * add keys to target, either being null makes the result null.
+   */
+  private static Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> addKeys(
+      Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> target,
+      Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys) {
+    if (target == null || keys == null) {
+      return null;
+    }
+    keys.forEach((source, added) ->
+        target.computeIfAbsent(source, s -> new HashSet<>()).addAll(added));
+    return target;
+  }
 }
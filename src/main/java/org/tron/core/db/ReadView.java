@@ -0,0 +1,113 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ReadSnapshot;
+import org.tron.common.storage.ScanOptions;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db.common.iterator.MergedScanIterator;
+
+/**
+ * Read-only state of the revoking stores as of the head block when the view was opened. The view
+ * holds the snapshots of the committed dialogs and a snapshot of every database, so the blocks
+ * applied meanwhile are not visible and reading never waits for them.
+ *
+ * <p>A view is bound to the thread that opened it: the revoking stores read through it on that
+ * thread until it is closed. Writes are not affected.
+ */
+public class ReadView implements AutoCloseable {
+
+  private static final ThreadLocal<ReadView> CURRENT = new ThreadLocal<>();
+
+  /**
+   * rows of the committed snapshots, the newest first. A deleted key is mapped to null.
+   */
+  private final List<Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>>> layers;
+  private final Map<DbSourceInter<byte[]>, ReadSnapshot> snapshots;
+  private final ReadView previous;
+  private final Thread owner;
+  private boolean closed = false;
+
+  ReadView(List<Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>>> layers,
+      Map<DbSourceInter<byte[]>, ReadSnapshot> snapshots) {
+    this.layers = layers;
+    this.snapshots = snapshots;
+    this.previous = CURRENT.get();
+    this.owner = Thread.currentThread();
+    CURRENT.set(this);
+  }
+
+  /**
+   * a view reading the live state, for the revoking databases which write in place.
+   */
+  static ReadView live() {
+    return new ReadView(Collections.emptyList(), Collections.emptyMap());
+  }
+
+  /**
+   * the view bound to the current thread, null if there is none.
+   */
+  static ReadView current() {
+    return CURRENT.get();
+  }
+
+  byte[] get(DbSourceInter<byte[]> source, byte[] key) {
+    if (key != null) {
+      for (Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> layer : layers) {
+        NavigableMap<byte[], byte[]> rows = layer.get(source);
+        if (rows != null && rows.containsKey(key)) {
+          return rows.get(key);
+        }
+      }
+    }
+
+    ReadSnapshot snapshot = snapshots.get(source);
+    return snapshot == null ? source.getData(key) : snapshot.getData(key);
+  }
+
+  DBIterator iterator(DbSourceInter<byte[]> source, ScanOptions options) {
+    NavigableMap<byte[], byte[]> pending = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    for (int i = layers.size() - 1; i >= 0; i--) {
+      NavigableMap<byte[], byte[]> rows = layers.get(i).get(source);
+      if (rows != null) {
+        pending.putAll(rows);
+      }
+    }
+
+    ReadSnapshot snapshot = snapshots.get(source);
+    if (pending.isEmpty()) {
+      return snapshot == null ? source.iterator(options) : snapshot.iterator(options);
+    }
+
+    ScanOptions unlimited = options.limit(ScanOptions.NO_LIMIT);
+    return new MergedScanIterator(
+        snapshot == null ? source.iterator(unlimited) : snapshot.iterator(unlimited),
+        pending, options);
+  }
+
+  /**
+   * release the database snapshots and restore the view the thread had before.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    if (Thread.currentThread() != owner) {
+      throw new IllegalStateException("a read view must be closed by the thread opening it");
+    }
+
+    closed = true;
+    snapshots.values().forEach(ReadSnapshot::close);
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -1,12 +1,28 @@
 package org.tron.core.db;
 
+import java.util.function.Supplier;
+import org.tron.common.storage.DbSourceInter;
 import org.tron.core.db.AbstractRevokingStore.Dialog;
-import org.tron.core.db.AbstractRevokingStore.RevokingState;
 import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
 
 public interface RevokingDatabase {
 
+  /**
+   * data source a revoking store reads and writes through, source is the underlying database.
+   */
+  DbSourceInter<byte[]> wrap(DbSourceInter<byte[]> source);
+
+  /**
+   * reload the revoking states which survive a restart, called once the stores are created.
+   */
+  void recover();
+
+  /**
+   * open a read view of the state at the head block, bound to the current thread until closed.
+   */
+  ReadView openView();
+
   Dialog buildDialog();
 
   Dialog buildDialog(boolean forceEnable);
@@ -17,6 +33,19 @@ public interface RevokingDatabase {
 
   void onRemove(RevokingTuple tuple, byte[] value);
 
+  /**
+   * record a write of tuple, value is only read on the first touch of tuple in the current state.
+   * Engines that keep no prior values, like the snapshot one, never read it, so a write of the
+   * revoking stores costs no read.
+   */
+  void onPut(RevokingTuple tuple, Supplier<byte[]> value);
+
+  /**
+   * record a delete of tuple, value is only read on the first touch of tuple in the current
+   * state.
+   */
+  void onDelete(RevokingTuple tuple, Supplier<byte[]> value);
+
   void merge() throws RevokingStoreIllegalStateException;
 
   void revoke() throws RevokingStoreIllegalStateException;
@@ -25,12 +54,12 @@ public interface RevokingDatabase {
 
   void pop() throws RevokingStoreIllegalStateException;
 
-  RevokingState head();
-
   void enable();
 
   int size();
 
+  void setMaxSize(int maxSize);
+
   void disable();
 
   void shutdown();
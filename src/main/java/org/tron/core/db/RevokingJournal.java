@@ -0,0 +1,305 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of the snapshots of a {@link SnapshotRevokingStore}. Every record is framed
+ * by its length and a CRC32 of its payload, a torn or corrupted tail is dropped on replay.
+ */
+@Slf4j
+public class RevokingJournal implements Closeable {
+
+  /**
+   * rows written by a committed snapshot.
+   */
+  public static final byte COMMIT = 1;
+
+  /**
+   * prior values of the rows of a snapshot written to the stores before its block solidified.
+   */
+  public static final byte SPILL = 2;
+
+  /**
+   * the snapshot reached the stores for good.
+   */
+  public static final byte FLUSH = 3;
+
+  /**
+   * the snapshot was revoked.
+   */
+  public static final byte POP = 4;
+
+  private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+  private final Path path;
+  private FileChannel channel;
+
+  public RevokingJournal(Path path) {
+    this.path = path;
+    try {
+      Files.createDirectories(path.getParent());
+      channel = open(path);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static FileChannel open(Path path) throws IOException {
+    return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  public long size() {
+    try {
+      return channel.size();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * append a record, force syncs the journal to the disk.
+   */
+  public void append(Record record, boolean force) {
+    try {
+      byte[] frame = encode(record);
+      long offset = channel.size();
+      write(channel, frame, offset);
+      if (force) {
+        channel.force(false);
+      }
+      record.offset = offset;
+      record.length = frame.length;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * read every valid record, the journal is truncated after the last valid one.
+   */
+  public List<Record> replay() {
+    List<Record> records = new ArrayList<>();
+    try {
+      long offset = 0;
+      long size = channel.size();
+      while (offset < size) {
+        Record record = read(offset, size);
+        if (record == null) {
+          logger.warn("drop {} bytes of torn revoking journal tail", size - offset);
+          channel.truncate(offset);
+          break;
+        }
+        records.add(record);
+        offset += record.length;
+      }
+      channel.position(channel.size());
+      return records;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * read the record at offset, null if it is torn or corrupted.
+   */
+  public Record read(long offset) {
+    try {
+      return read(offset, channel.size());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Record read(long offset, long size) throws IOException {
+    if (offset + HEADER_SIZE > size) {
+      return null;
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    if (!read(header, offset)) {
+      return null;
+    }
+    header.flip();
+    int length = header.getInt();
+    long checksum = header.getLong();
+    if (length < 0 || offset + HEADER_SIZE + length > size) {
+      return null;
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate(length);
+    if (!read(payload, offset + HEADER_SIZE)) {
+      return null;
+    }
+    if (checksum(payload.array()) != checksum) {
+      return null;
+    }
+
+    Record record = decode(payload.array());
+    record.offset = offset;
+    record.length = HEADER_SIZE + length;
+    return record;
+  }
+
+  private boolean read(ByteBuffer buffer, long offset) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * replace the journal by the given records.
+   */
+  public void rewrite(List<Record> records) {
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      long offset = 0;
+      for (Record record : records) {
+        byte[] frame = encode(record);
+        write(out, frame, offset);
+        record.offset = offset;
+        record.length = frame.length;
+        offset += frame.length;
+      }
+      out.force(true);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    try {
+      channel.close();
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      channel = open(path);
+      channel.position(channel.size());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      if (channel.isOpen()) {
+        channel.force(false);
+        channel.close();
+      }
+    } catch (IOException e) {
+      logger.error("close revoking journal error.", e);
+    }
+  }
+
+  private static void write(FileChannel channel, byte[] frame, long offset) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(frame);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, offset + buffer.position());
+    }
+  }
+
+  private static long checksum(byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    return crc.getValue();
+  }
+
+  private static byte[] encode(Record record) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(record.type);
+    out.writeLong(record.seq);
+    out.writeInt(record.rows.size());
+    for (Map.Entry<String, NavigableMap<byte[], byte[]>> store : record.rows.entrySet()) {
+      out.writeUTF(store.getKey());
+      out.writeInt(store.getValue().size());
+      for (Map.Entry<byte[], byte[]> row : store.getValue().entrySet()) {
+        out.writeInt(row.getKey().length);
+        out.write(row.getKey());
+        if (row.getValue() == null) {
+          out.writeInt(-1);
+        } else {
+          out.writeInt(row.getValue().length);
+          out.write(row.getValue());
+        }
+      }
+    }
+    out.flush();
+    byte[] payload = bytes.toByteArray();
+
+    ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+    frame.putInt(payload.length);
+    frame.putLong(checksum(payload));
+    frame.put(payload);
+    return frame.array();
+  }
+
+  private static Record decode(byte[] payload) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+    byte type = in.readByte();
+    long seq = in.readLong();
+    Map<String, NavigableMap<byte[], byte[]>> rows = new HashMap<>();
+    int stores = in.readInt();
+    for (int i = 0; i < stores; i++) {
+      String name = in.readUTF();
+      NavigableMap<byte[], byte[]> storeRows =
+          new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+      int count = in.readInt();
+      for (int j = 0; j < count; j++) {
+        byte[] key = new byte[in.readInt()];
+        in.readFully(key);
+        int length = in.readInt();
+        byte[] value = null;
+        if (length >= 0) {
+          value = new byte[length];
+          in.readFully(value);
+        }
+        storeRows.put(key, value);
+      }
+      rows.put(name, storeRows);
+    }
+    return new Record(type, seq, rows);
+  }
+
+  @Getter
+  public static class Record {
+
+    private final byte type;
+    private final long seq;
+    private final Map<String, NavigableMap<byte[], byte[]>> rows;
+    private long offset;
+    private int length;
+
+    public Record(byte type, long seq, Map<String, NavigableMap<byte[], byte[]>> rows) {
+      this.type = type;
+      this.seq = seq;
+      this.rows = rows;
+    }
+
+    public static Record marker(byte type, long seq) {
+      return new Record(type, seq, new HashMap<>());
+    }
+  }
+}
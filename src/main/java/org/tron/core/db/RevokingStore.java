@@ -1,6 +1,6 @@
 package org.tron.core.db;
 
-public class RevokingStore extends AbstractRevokingStore {
+public class RevokingStore extends SnapshotRevokingStore {
 
   private RevokingStore() {
   }
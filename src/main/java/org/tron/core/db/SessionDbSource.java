@@ -0,0 +1,267 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import org.iq80.leveldb.WriteOptions;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ReadSnapshot;
+import org.tron.common.storage.ScanOptions;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db.common.iterator.MergedScanIterator;
+
+/**
+ * Data source of a revoking store that keeps the writes of an open {@link WriteSession} in
+ * memory. Only the session owner sees the buffered writes, other threads read the committed
+ * state. The buffer is ordered like the underlying engine so range reads can merge both.
+ */
+public class SessionDbSource implements DbSourceInter<byte[]> {
+
+  private final DbSourceInter<byte[]> delegate;
+  private final WriteSession session;
+  private final boolean syncPoint;
+  private final TreeMap<byte[], byte[]> buffer =
+      new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+
+  public SessionDbSource(DbSourceInter<byte[]> delegate, WriteSession session,
+      boolean syncPoint) {
+    this.delegate = delegate;
+    this.session = session;
+    this.syncPoint = syncPoint;
+    session.register(this);
+  }
+
+  public DbSourceInter<byte[]> getDelegate() {
+    return delegate;
+  }
+
+  boolean isSyncPoint() {
+    return syncPoint;
+  }
+
+  boolean hasPendingWrites() {
+    return !buffer.isEmpty();
+  }
+
+  void commitBuffer(WriteOptions options) {
+    if (buffer.isEmpty()) {
+      return;
+    }
+
+    delegate.updateByBatch(buffer, options);
+    buffer.clear();
+  }
+
+  void discardBuffer() {
+    buffer.clear();
+  }
+
+  private boolean buffering() {
+    return session.isOwner();
+  }
+
+  private boolean merging() {
+    return buffering() && !buffer.isEmpty();
+  }
+
+  /**
+   * collect the keys or the values of a range, in scan order.
+   */
+  private Set<byte[]> collect(ScanOptions options, boolean keys) {
+    try (DBIterator iterator = iterator(options)) {
+      Set<byte[]> result = new LinkedHashSet<>();
+      iterator.forEachRemaining(entry -> result.add(keys ? entry.getKey() : entry.getValue()));
+      return result;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public String getDBName() {
+    return delegate.getDBName();
+  }
+
+  @Override
+  public void setDBName(String name) {
+    delegate.setDBName(name);
+  }
+
+  @Override
+  public void initDB() {
+    delegate.initDB();
+  }
+
+  @Override
+  public boolean isAlive() {
+    return delegate.isAlive();
+  }
+
+  @Override
+  public void closeDB() {
+    session.unregister(this);
+    delegate.closeDB();
+  }
+
+  @Override
+  public void resetDb() {
+    buffer.clear();
+    delegate.resetDb();
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value) {
+    if (buffering()) {
+      buffer.put(key, value);
+      return;
+    }
+
+    delegate.putData(key, value);
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value, WriteOptions options) {
+    if (buffering()) {
+      buffer.put(key, value);
+      return;
+    }
+
+    delegate.putData(key, value, options);
+  }
+
+  @Override
+  public byte[] getData(byte[] key) {
+    if (key != null && buffering() && buffer.containsKey(key)) {
+      return buffer.get(key);
+    }
+
+    return delegate.getData(key);
+  }
+
+  @Override
+  public void deleteData(byte[] key) {
+    if (buffering()) {
+      buffer.put(key, null);
+      return;
+    }
+
+    delegate.deleteData(key);
+  }
+
+  @Override
+  public void deleteData(byte[] key, WriteOptions options) {
+    if (buffering()) {
+      buffer.put(key, null);
+      return;
+    }
+
+    delegate.deleteData(key, options);
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows) {
+    if (buffering()) {
+      buffer.putAll(rows);
+      return;
+    }
+
+    delegate.updateByBatch(rows);
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows, WriteOptions options) {
+    if (buffering()) {
+      buffer.putAll(rows);
+      return;
+    }
+
+    delegate.updateByBatch(rows, options);
+  }
+
+  @Override
+  public boolean flush() {
+    return delegate.flush();
+  }
+
+  @Override
+  public Set<byte[]> allKeys() {
+    return merging() ? collect(ScanOptions.forward(), true) : delegate.allKeys();
+  }
+
+  @Override
+  public Set<byte[]> allValues() {
+    return merging() ? collect(ScanOptions.forward(), false) : delegate.allValues();
+  }
+
+  @Override
+  public long getTotal() {
+    long total = delegate.getTotal();
+    if (!merging()) {
+      return total;
+    }
+
+    for (Entry<byte[], byte[]> entry : buffer.entrySet()) {
+      boolean stored = delegate.getData(entry.getKey()) != null;
+      if (entry.getValue() != null && !stored) {
+        total++;
+      } else if (entry.getValue() == null && stored) {
+        total--;
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public Set<byte[]> getValuesNext(byte[] key, long limit) {
+    if (!merging()) {
+      return delegate.getValuesNext(key, limit);
+    }
+
+    return collect(ScanOptions.forward().from(key).limit(limit), false);
+  }
+
+  @Override
+  public Set<byte[]> getValuesPrev(byte[] key, long limit) {
+    if (!merging()) {
+      return delegate.getValuesPrev(key, limit);
+    }
+
+    return collect(ScanOptions.reverse().from(key).limit(limit), false);
+  }
+
+  @Override
+  public Set<byte[]> getlatestValues(long limit) {
+    if (!merging()) {
+      return delegate.getlatestValues(limit);
+    }
+
+    return collect(ScanOptions.reverse().limit(limit), false);
+  }
+
+  @Override
+  public DBIterator iterator() {
+    return merging() ? iterator(ScanOptions.forward()) : delegate.iterator();
+  }
+
+  @Override
+  public DBIterator iterator(ScanOptions options) {
+    if (!merging()) {
+      return delegate.iterator(options);
+    }
+
+    return new MergedScanIterator(delegate.iterator(options.limit(ScanOptions.NO_LIMIT)),
+        new TreeMap<>(buffer), options);
+  }
+
+  /**
+   * snapshot of the committed state, writes buffered by a session are left out.
+   */
+  @Override
+  public ReadSnapshot getSnapshot() {
+    return delegate.getSnapshot();
+  }
+}
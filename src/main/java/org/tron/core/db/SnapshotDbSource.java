@@ -0,0 +1,226 @@
+package org.tron.core.db;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import org.iq80.leveldb.WriteOptions;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ReadSnapshot;
+import org.tron.common.storage.ScanOptions;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db.common.iterator.MergedScanIterator;
+
+/**
+ * Data source of a revoking store backed by a {@link SnapshotRevokingStore}. Reads and writes go
+ * through the snapshots of the revoking database, range reads merge the pending writes with the
+ * underlying database. A {@link WriteSet} bound to the thread takes the writes instead and is
+ * read first.
+ */
+public class SnapshotDbSource implements DbSourceInter<byte[]> {
+
+  private final SnapshotRevokingStore revokingStore;
+  private final DbSourceInter<byte[]> delegate;
+
+  public SnapshotDbSource(SnapshotRevokingStore revokingStore, DbSourceInter<byte[]> delegate) {
+    this.revokingStore = revokingStore;
+    this.delegate = delegate;
+  }
+
+  public DbSourceInter<byte[]> getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * collect the keys or the values of a range, in scan order.
+   */
+  private Set<byte[]> collect(ScanOptions options, boolean keys) {
+    try (DBIterator iterator = iterator(options)) {
+      Set<byte[]> result = new LinkedHashSet<>();
+      iterator.forEachRemaining(entry -> result.add(keys ? entry.getKey() : entry.getValue()));
+      return result;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public String getDBName() {
+    return delegate.getDBName();
+  }
+
+  @Override
+  public void setDBName(String name) {
+    delegate.setDBName(name);
+  }
+
+  @Override
+  public void initDB() {
+    delegate.initDB();
+  }
+
+  @Override
+  public boolean isAlive() {
+    return delegate.isAlive();
+  }
+
+  @Override
+  public void closeDB() {
+    revokingStore.purge(delegate, false);
+    delegate.closeDB();
+  }
+
+  @Override
+  public void resetDb() {
+    revokingStore.purge(delegate, true);
+    delegate.resetDb();
+  }
+
+  private void put(byte[] key, byte[] value) {
+    WriteSet writeSet = WriteSet.current();
+    if (writeSet == null) {
+      revokingStore.put(delegate, key, value);
+    } else {
+      writeSet.put(delegate, key, value);
+    }
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value) {
+    put(key, value);
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value, WriteOptions options) {
+    put(key, value);
+  }
+
+  @Override
+  public byte[] getData(byte[] key) {
+    WriteSet writeSet = WriteSet.current();
+    if (writeSet != null) {
+      return writeSet.get(delegate, key, () -> revokingStore.get(delegate, key));
+    }
+
+    ReadView view = ReadView.current();
+    return view == null ? revokingStore.get(delegate, key) : view.get(delegate, key);
+  }
+
+  @Override
+  public void deleteData(byte[] key) {
+    put(key, null);
+  }
+
+  @Override
+  public void deleteData(byte[] key, WriteOptions options) {
+    put(key, null);
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows) {
+    rows.forEach(this::put);
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows, WriteOptions options) {
+    updateByBatch(rows);
+  }
+
+  @Override
+  public boolean flush() {
+    return delegate.flush();
+  }
+
+  @Override
+  public Set<byte[]> allKeys() {
+    return collect(ScanOptions.forward(), true);
+  }
+
+  @Override
+  public Set<byte[]> allValues() {
+    return collect(ScanOptions.forward(), false);
+  }
+
+  @Override
+  public long getTotal() {
+    if (ReadView.current() != null || WriteSet.current() != null) {
+      long total = 0;
+      for (DBIterator iterator = iterator(ScanOptions.forward()); iterator.hasNext();
+          iterator.next()) {
+        total++;
+      }
+      return total;
+    }
+
+    NavigableMap<byte[], byte[]> pending = revokingStore.pending(delegate);
+    long total = delegate.getTotal();
+    for (Entry<byte[], byte[]> entry : pending.entrySet()) {
+      boolean stored = delegate.getData(entry.getKey()) != null;
+      if (entry.getValue() != null && !stored) {
+        total++;
+      } else if (entry.getValue() == null && stored) {
+        total--;
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public Set<byte[]> getValuesNext(byte[] key, long limit) {
+    return collect(ScanOptions.forward().from(key).limit(limit), false);
+  }
+
+  @Override
+  public Set<byte[]> getValuesPrev(byte[] key, long limit) {
+    return collect(ScanOptions.reverse().from(key).limit(limit), false);
+  }
+
+  @Override
+  public Set<byte[]> getlatestValues(long limit) {
+    return collect(ScanOptions.reverse().limit(limit), false);
+  }
+
+  @Override
+  public DBIterator iterator() {
+    return iterator(ScanOptions.forward());
+  }
+
+  /**
+   * the pending writes are copied before the store is opened for the scan, so a flush of the
+   * oldest snapshot in between is seen twice rather than missed.
+   */
+  @Override
+  public DBIterator iterator(ScanOptions options) {
+    WriteSet writeSet = WriteSet.current();
+    if (writeSet != null) {
+      return writeSet.iterator(delegate, options, this::storedIterator);
+    }
+    return storedIterator(options);
+  }
+
+  private DBIterator storedIterator(ScanOptions options) {
+    ReadView view = ReadView.current();
+    if (view != null) {
+      return view.iterator(delegate, options);
+    }
+
+    NavigableMap<byte[], byte[]> pending = revokingStore.pending(delegate);
+    if (pending.isEmpty()) {
+      return delegate.iterator(options);
+    }
+
+    return new MergedScanIterator(delegate.iterator(options.limit(ScanOptions.NO_LIMIT)),
+        pending, options);
+  }
+
+  /**
+   * snapshot of the database only, the writes pending in the revoking database are left out.
+   * Use a {@link ReadView} for the state of the revoking store.
+   */
+  @Override
+  public ReadSnapshot getSnapshot() {
+    return delegate.getSnapshot();
+  }
+}
@@ -0,0 +1,728 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ReadSnapshot;
+import org.tron.common.utils.Utils;
+import org.tron.core.config.args.Args;
+import org.tron.core.config.args.Storage;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
+import org.tron.core.db.RevokingJournal.Record;
+import org.tron.core.exception.RevokingStoreIllegalStateException;
+
+/**
+ * Revoking database made of stacked in-memory snapshots, one per dialog. Writes of the revoking
+ * stores go to the top snapshot and reads fall through the snapshots to the database, so revoking
+ * a dialog or popping a block only drops a snapshot. A snapshot reaches the database when it falls
+ * out of the revoking window, i.e. once its block is solidified.
+ *
+ * <p>After {@link #recover()} the committed snapshots are journaled to disk, so a restart resumes
+ * from the head block instead of the solidified one. Snapshots past the heap limit are spilled:
+ * written to the database early, their prior values kept in the journal to stay revocable.
+ */
+@Slf4j
+public class SnapshotRevokingStore implements RevokingDatabase {
+
+  private static final int DEFAULT_STACK_MAX_SIZE = 256;
+  private static final String JOURNAL_NAME = "revoking.journal";
+  private static final long COMPACT_THRESHOLD = 16L * 1024 * 1024;
+
+  private final LinkedList<Snapshot> stack = new LinkedList<>();
+  private final Deque<Spilled> spilled = new LinkedList<>();
+  private final Map<String, DbSourceInter<byte[]>> sources = new ConcurrentHashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private boolean disabled = true;
+  private int activeDialog = 0;
+  private AtomicInteger maxSize = new AtomicInteger(DEFAULT_STACK_MAX_SIZE);
+  private int maxHeapSize = Integer.MAX_VALUE;
+  private long nextSeq = 0;
+  private RevokingJournal journal;
+
+  @Override
+  public DbSourceInter<byte[]> wrap(DbSourceInter<byte[]> source) {
+    sources.put(source.getDBName(), source);
+    return new SnapshotDbSource(this, source);
+  }
+
+  /**
+   * reload the journaled snapshots, the stores must be created before. Snapshots held in memory
+   * are dropped.
+   */
+  @Override
+  public void recover() {
+    lock.writeLock().lock();
+    try {
+      if (journal != null) {
+        journal.close();
+        journal = null;
+      }
+      stack.clear();
+      spilled.clear();
+      activeDialog = 0;
+
+      Storage storage = Args.getInstance().getStorage();
+      if (!storage.isRevokingJournal()) {
+        return;
+      }
+
+      maxHeapSize = storage.getRevokingHeapSnapshots();
+      journal = new RevokingJournal(
+          Paths.get(Args.getInstance().getOutputDirectory() + storage.getDirectory(),
+              JOURNAL_NAME));
+
+      TreeMap<Long, Record> commits = new TreeMap<>();
+      TreeMap<Long, Record> spills = new TreeMap<>();
+      for (Record record : journal.replay()) {
+        nextSeq = Math.max(nextSeq, record.getSeq() + 1);
+        switch (record.getType()) {
+          case RevokingJournal.COMMIT:
+            commits.put(record.getSeq(), record);
+            break;
+          case RevokingJournal.SPILL:
+            spills.put(record.getSeq(), record);
+            break;
+          default:
+            commits.remove(record.getSeq());
+            spills.remove(record.getSeq());
+            break;
+        }
+      }
+
+      // a spill may have been cut between its journal record and the store writes
+      spills.forEach((seq, record) -> {
+        Record commit = commits.remove(seq);
+        if (commit != null) {
+          writeToStores(resolve(commit.getRows()));
+        }
+        spilled.add(new Spilled(seq, record.getOffset(), record.getLength()));
+      });
+      commits.values().forEach(record -> {
+        Snapshot snapshot = new Snapshot(record.getSeq());
+        resolve(record.getRows()).forEach((source, rows) -> snapshot.rows(source).putAll(rows));
+        stack.add(snapshot);
+      });
+      compact();
+      logger.info("recover {} snapshots and {} spilled snapshots from the revoking journal",
+          stack.size(), spilled.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * the snapshots of the open dialogs are on top of the stack and left out of the view, the
+   * others are sealed so later writes copy them instead of changing what the view reads.
+   */
+  @Override
+  public ReadView openView() {
+    lock.readLock().lock();
+    try {
+      List<Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>>> layers = new ArrayList<>();
+      Iterator<Snapshot> iterator = stack.descendingIterator();
+      for (int i = 0; i < activeDialog && iterator.hasNext(); i++) {
+        iterator.next();
+      }
+      while (iterator.hasNext()) {
+        Snapshot snapshot = iterator.next();
+        snapshot.sealed = true;
+        layers.add(snapshot.values);
+      }
+
+      Map<DbSourceInter<byte[]>, ReadSnapshot> snapshots = new HashMap<>();
+      try {
+        sources.values().forEach(source -> snapshots.put(source, source.getSnapshot()));
+      } catch (RuntimeException e) {
+        snapshots.values().forEach(ReadSnapshot::close);
+        throw e;
+      }
+      return new ReadView(layers, snapshots);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Dialog buildDialog() {
+    return buildDialog(false);
+  }
+
+  @Override
+  public Dialog buildDialog(boolean forceEnable) {
+    lock.writeLock().lock();
+    try {
+      if (disabled && !forceEnable) {
+        return new Dialog(this);
+      }
+
+      boolean disableOnExit = disabled && forceEnable;
+      if (forceEnable) {
+        disabled = false;
+      }
+
+      while (spilled.size() + stack.size() > maxSize.get()) {
+        flushFirst();
+      }
+
+      stack.add(new Snapshot(nextSeq++));
+      ++activeDialog;
+      return new Dialog(this, disableOnExit);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * the writes are recorded by the snapshot itself.
+   */
+  @Override
+  public void onCreate(RevokingTuple tuple, byte[] value) {
+  }
+
+  @Override
+  public void onModify(RevokingTuple tuple, byte[] value) {
+  }
+
+  @Override
+  public void onRemove(RevokingTuple tuple, byte[] value) {
+  }
+
+  @Override
+  public void onPut(RevokingTuple tuple, Supplier<byte[]> value) {
+  }
+
+  @Override
+  public void onDelete(RevokingTuple tuple, Supplier<byte[]> value) {
+  }
+
+  /**
+   * read key of source from the newest snapshot holding it, falls back to the database.
+   */
+  byte[] get(DbSourceInter<byte[]> source, byte[] key) {
+    if (key == null) {
+      return source.getData(null);
+    }
+
+    lock.readLock().lock();
+    try {
+      Iterator<Snapshot> iterator = stack.descendingIterator();
+      while (iterator.hasNext()) {
+        NavigableMap<byte[], byte[]> rows = iterator.next().values.get(source);
+        if (rows != null && rows.containsKey(key)) {
+          return rows.get(key);
+        }
+      }
+
+      return source.getData(key);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * write key of source to the top snapshot, a null value deletes the key. Writes made while the
+   * database is disabled go to the database directly.
+   */
+  void put(DbSourceInter<byte[]> source, byte[] key, byte[] value) {
+    lock.writeLock().lock();
+    try {
+      if (disabled) {
+        ListIterator<Snapshot> iterator = stack.listIterator();
+        while (iterator.hasNext()) {
+          Snapshot snapshot = iterator.next();
+          NavigableMap<byte[], byte[]> rows = snapshot.values.get(source);
+          if (rows != null && rows.containsKey(key)) {
+            snapshot = writable(iterator, snapshot);
+            snapshot.values.get(source).remove(key);
+            rejournal(snapshot);
+          }
+        }
+        if (value == null) {
+          source.deleteData(key);
+        } else {
+          source.putData(key, value);
+        }
+        return;
+      }
+
+      addIfEmpty();
+      writableTop().rows(source).put(key, value == null ? null : Utils.clone(value));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * the writes of source not yet flushed to the database, deletes are mapped to null.
+   */
+  NavigableMap<byte[], byte[]> pending(DbSourceInter<byte[]> source) {
+    lock.readLock().lock();
+    try {
+      NavigableMap<byte[], byte[]> result = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+      stack.forEach(snapshot -> {
+        NavigableMap<byte[], byte[]> rows = snapshot.values.get(source);
+        if (rows != null) {
+          result.putAll(rows);
+        }
+      });
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * the keys written since the innermost open dialog was built, null if the database is disabled
+   * or has no open dialog.
+   */
+  public Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> dialogKeys() {
+    lock.readLock().lock();
+    try {
+      if (disabled || activeDialog <= 0 || stack.isEmpty()) {
+        return null;
+      }
+
+      Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys = new HashMap<>();
+      stack.peekLast().values.forEach((source, rows) -> keys.put(source,
+          rows.keySet().stream().map(ByteArrayWrapper::new).collect(Collectors.toSet())));
+      return keys;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * drop the writes of source from every snapshot, the journal keeps them unless rejournal.
+   */
+  void purge(DbSourceInter<byte[]> source, boolean rejournal) {
+    lock.writeLock().lock();
+    try {
+      ListIterator<Snapshot> iterator = stack.listIterator();
+      while (iterator.hasNext()) {
+        Snapshot snapshot = iterator.next();
+        if (!snapshot.values.containsKey(source)) {
+          continue;
+        }
+        snapshot = writable(iterator, snapshot);
+        snapshot.values.remove(source);
+        if (rejournal) {
+          rejournal(snapshot);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void merge() throws RevokingStoreIllegalStateException {
+    lock.writeLock().lock();
+    try {
+      if (activeDialog <= 0) {
+        throw new RevokingStoreIllegalStateException("activeDialog has to be greater than 0");
+      }
+
+      if (activeDialog == 1 && stack.size() == 1) {
+        Snapshot snapshot = stack.pollLast();
+        writeToStores(snapshot.values);
+        mark(snapshot, RevokingJournal.FLUSH);
+        --activeDialog;
+        return;
+      }
+
+      if (stack.size() < 2) {
+        return;
+      }
+
+      Snapshot snapshot = stack.pollLast();
+      Snapshot target = writableTop();
+      target.merge(snapshot);
+      rejournal(target);
+      --activeDialog;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void revoke() throws RevokingStoreIllegalStateException {
+    lock.writeLock().lock();
+    try {
+      if (disabled) {
+        return;
+      }
+
+      if (activeDialog <= 0) {
+        throw new RevokingStoreIllegalStateException("activeDialog has to be greater than 0");
+      }
+
+      Snapshot snapshot = stack.pollLast();
+      if (snapshot == null) {
+        return;
+      }
+
+      mark(snapshot, RevokingJournal.POP);
+      --activeDialog;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * close the top dialog, its snapshot is journaled and the oldest snapshots past the heap limit
+   * are spilled.
+   */
+  @Override
+  public void commit() throws RevokingStoreIllegalStateException {
+    lock.writeLock().lock();
+    try {
+      if (activeDialog <= 0) {
+        throw new RevokingStoreIllegalStateException("activeDialog has to be greater than 0");
+      }
+
+      --activeDialog;
+      if (journal == null || stack.isEmpty()) {
+        return;
+      }
+
+      journal(stack.peekLast());
+      while (stack.size() > maxHeapSize && stack.peekFirst().journalLength > 0) {
+        spill(stack.peekFirst());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void pop() throws RevokingStoreIllegalStateException {
+    lock.writeLock().lock();
+    try {
+      if (activeDialog != 0) {
+        throw new RevokingStoreIllegalStateException("activeDialog has to be equal 0");
+      }
+
+      if (!stack.isEmpty()) {
+        mark(stack.pollLast(), RevokingJournal.POP);
+        return;
+      }
+
+      if (spilled.isEmpty()) {
+        throw new RevokingStoreIllegalStateException("stack is empty");
+      }
+
+      Spilled last = spilled.peekLast();
+      Record undo = journal.read(last.offset);
+      if (undo == null) {
+        throw new RevokingStoreIllegalStateException(
+            "undo record of snapshot " + last.seq + " is corrupted");
+      }
+      writeToStores(resolve(undo.getRows()));
+      journal.append(Record.marker(RevokingJournal.POP, last.seq), true);
+      spilled.pollLast();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void enable() {
+    lock.writeLock().lock();
+    try {
+      disabled = false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void disable() {
+    lock.writeLock().lock();
+    try {
+      disabled = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return spilled.size() + stack.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void setMaxSize(int maxSize) {
+    this.maxSize.set(maxSize);
+  }
+
+  public int getMaxSize() {
+    return maxSize.get();
+  }
+
+  /**
+   * close the journal, the committed snapshots are recovered on the next start. Without a journal
+   * every snapshot is dropped and the database keeps the state of the latest solidified block.
+   */
+  @Override
+  public void shutdown() {
+    System.err.println("******** begin to close revokingDb ********");
+    System.err.println("******** before revokingDb size:" + size());
+    lock.writeLock().lock();
+    try {
+      disabled = true;
+      if (journal != null) {
+        journal.close();
+        journal = null;
+        return;
+      }
+
+      activeDialog = 0;
+      stack.clear();
+      spilled.clear();
+    } catch (Exception e) {
+      System.err.println("******** faild to close revokingStore. " + e);
+    } finally {
+      lock.writeLock().unlock();
+      System.err.println("******** after revokingStore size:" + size());
+      System.err.println("******** end to close revokingStore ********");
+    }
+  }
+
+  private void addIfEmpty() {
+    if (stack.isEmpty()) {
+      stack.add(new Snapshot(nextSeq++));
+    }
+  }
+
+  /**
+   * the top snapshot, replaced by a copy first if a read view holds it.
+   */
+  private Snapshot writableTop() {
+    Snapshot top = stack.peekLast();
+    if (!top.sealed) {
+      return top;
+    }
+
+    Snapshot copy = top.copy();
+    stack.pollLast();
+    stack.add(copy);
+    return copy;
+  }
+
+  /**
+   * the snapshot last returned by iterator, replaced by a copy first if a read view holds it.
+   */
+  private Snapshot writable(ListIterator<Snapshot> iterator, Snapshot snapshot) {
+    if (!snapshot.sealed) {
+      return snapshot;
+    }
+
+    Snapshot copy = snapshot.copy();
+    iterator.set(copy);
+    return copy;
+  }
+
+  /**
+   * write the oldest snapshot to the database for good.
+   */
+  private void flushFirst() {
+    if (!spilled.isEmpty()) {
+      long seq = spilled.pollFirst().seq;
+      if (journal != null) {
+        journal.append(Record.marker(RevokingJournal.FLUSH, seq), false);
+      }
+    } else {
+      Snapshot snapshot = stack.peekFirst();
+      writeToStores(snapshot.values);
+      stack.pollFirst();
+      mark(snapshot, RevokingJournal.FLUSH);
+    }
+
+    if (journal != null && journal.size() > COMPACT_THRESHOLD
+        && journal.size() > 4 * liveBytes()) {
+      compact();
+    }
+  }
+
+  /**
+   * write the oldest snapshot to the database before its block is solidified, its prior values
+   * are journaled first.
+   */
+  private void spill(Snapshot snapshot) {
+    Map<String, NavigableMap<byte[], byte[]>> undo = new HashMap<>();
+    snapshot.values.forEach((source, rows) -> {
+      NavigableMap<byte[], byte[]> prior = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+      rows.keySet().forEach(key -> prior.put(key, source.getData(key)));
+      undo.put(source.getDBName(), prior);
+    });
+    Record record = new Record(RevokingJournal.SPILL, snapshot.seq, undo);
+    journal.append(record, true);
+    writeToStores(snapshot.values);
+    stack.pollFirst();
+    spilled.add(new Spilled(snapshot.seq, record.getOffset(), record.getLength()));
+  }
+
+  private void journal(Snapshot snapshot) {
+    if (journal == null) {
+      return;
+    }
+
+    Record record = new Record(RevokingJournal.COMMIT, snapshot.seq, names(snapshot.values));
+    journal.append(record, true);
+    snapshot.journalLength = record.getLength();
+  }
+
+  private void rejournal(Snapshot snapshot) {
+    if (snapshot.journalLength > 0) {
+      journal(snapshot);
+    }
+  }
+
+  private void mark(Snapshot snapshot, byte type) {
+    if (journal != null && snapshot.journalLength > 0) {
+      journal.append(Record.marker(type, snapshot.seq), false);
+    }
+  }
+
+  private long liveBytes() {
+    long bytes = 0;
+    for (Snapshot snapshot : stack) {
+      bytes += snapshot.journalLength;
+    }
+    for (Spilled spill : spilled) {
+      bytes += spill.length;
+    }
+    return bytes;
+  }
+
+  /**
+   * rewrite the journal with the records of the live snapshots only.
+   */
+  private void compact() {
+    List<Record> records = new ArrayList<>();
+    for (Spilled spill : spilled) {
+      records.add(journal.read(spill.offset));
+    }
+    List<Snapshot> journaled = new ArrayList<>();
+    for (Snapshot snapshot : stack) {
+      journaled.add(snapshot);
+      records.add(new Record(RevokingJournal.COMMIT, snapshot.seq, names(snapshot.values)));
+    }
+    journal.rewrite(records);
+
+    int i = 0;
+    for (Spilled spill : spilled) {
+      Record record = records.get(i++);
+      spill.offset = record.getOffset();
+      spill.length = record.getLength();
+    }
+    for (Snapshot snapshot : journaled) {
+      snapshot.journalLength = records.get(i++).getLength();
+    }
+  }
+
+  private Map<String, NavigableMap<byte[], byte[]>> names(
+      Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> values) {
+    Map<String, NavigableMap<byte[], byte[]>> result = new HashMap<>();
+    values.forEach((source, rows) -> result.put(source.getDBName(), rows));
+    return result;
+  }
+
+  private Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> resolve(
+      Map<String, NavigableMap<byte[], byte[]>> rows) {
+    Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> result = new HashMap<>();
+    rows.forEach((name, storeRows) -> {
+      DbSourceInter<byte[]> source = sources.get(name);
+      if (source == null) {
+        logger.warn("revoking journal refers to unknown store {}", name);
+        return;
+      }
+      result.put(source, storeRows);
+    });
+    return result;
+  }
+
+  /**
+   * write rows to the database as one batch per store within a write session.
+   */
+  private void writeToStores(Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> values) {
+    WriteSession session = WriteSession.getInstance();
+    session.begin();
+    try {
+      values.forEach(DbSourceInter::updateByBatch);
+      session.commit();
+    } finally {
+      session.discard();
+    }
+  }
+
+  private static class Snapshot {
+
+    private final long seq;
+    private final Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> values =
+        new HashMap<>();
+
+    /**
+     * size of the latest journal record of this snapshot, 0 if not journaled.
+     */
+    private int journalLength;
+
+    /**
+     * true once a read view holds the snapshot, it must not change anymore.
+     */
+    private boolean sealed;
+
+    private Snapshot(long seq) {
+      this.seq = seq;
+    }
+
+    private Snapshot copy() {
+      Snapshot copy = new Snapshot(seq);
+      copy.journalLength = journalLength;
+      values.forEach((source, rows) -> copy.rows(source).putAll(rows));
+      return copy;
+    }
+
+    private NavigableMap<byte[], byte[]> rows(DbSourceInter<byte[]> source) {
+      return values.computeIfAbsent(source,
+          k -> new TreeMap<>(UnsignedBytes.lexicographicalComparator()));
+    }
+
+    private void merge(Snapshot snapshot) {
+      snapshot.values.forEach((source, rows) -> rows(source).putAll(rows));
+    }
+  }
+
+  @AllArgsConstructor
+  private static class Spilled {
+
+    private final long seq;
+    private long offset;
+    private int length;
+  }
+}
@@ -0,0 +1,89 @@
+package org.tron.core.db;
+
+import java.nio.ByteBuffer;
+import java.util.Map.Entry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.db.common.iterator.DBIterator;
+
+/**
+ * Entry count and total value bytes of the counted stores, keyed by db name. The counters are
+ * written through the revoking database together with the store, so revoked writes are uncounted
+ * as well.
+ */
+@Slf4j
+@Component
+public class StoreStatisticsStore extends TronStoreWithRevoking<BytesCapsule> {
+
+  @Autowired
+  private StoreStatisticsStore(@Qualifier("store-stats") String dbName) {
+    super(dbName);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = dbSource.getData(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  @Override
+  public boolean has(byte[] key) {
+    return dbSource.getData(key) != null;
+  }
+
+  public long getCount(String dbName) {
+    return read(dbName).getLong(0);
+  }
+
+  public long getTotalBytes(String dbName) {
+    return read(dbName).getLong(Long.BYTES);
+  }
+
+  /**
+   * add count entries and bytes value bytes to the counters of a store.
+   */
+  public void add(String dbName, long count, long bytes) {
+    if (count == 0 && bytes == 0) {
+      return;
+    }
+
+    ByteBuffer counters = read(dbName);
+    save(dbName, counters.getLong(0) + count, counters.getLong(Long.BYTES) + bytes);
+  }
+
+  /**
+   * count a store by a full scan if it has no counters yet, e.g. a database created before the
+   * counters existed.
+   */
+  public void seed(TronStoreWithRevoking<?> store) {
+    String dbName = store.getDbSource().getDBName();
+    if (has(dbName.getBytes())) {
+      return;
+    }
+
+    long count = 0;
+    long bytes = 0;
+    DBIterator iterator = store.getDbSource().iterator();
+    while (iterator.hasNext()) {
+      Entry<byte[], byte[]> entry = iterator.next();
+      count++;
+      bytes += entry.getValue().length;
+    }
+    logger.info("seed statistics of {}: {} entries, {} bytes", dbName, count, bytes);
+    save(dbName, count, bytes);
+  }
+
+  private ByteBuffer read(String dbName) {
+    byte[] value = dbSource.getData(dbName.getBytes());
+    return ArrayUtils.isEmpty(value) ? ByteBuffer.allocate(2 * Long.BYTES) : ByteBuffer.wrap(value);
+  }
+
+  private void save(String dbName, long count, long bytes) {
+    put(dbName.getBytes(), new BytesCapsule(
+        ByteBuffer.allocate(2 * Long.BYTES).putLong(count).putLong(bytes).array()));
+  }
+}
@@ -0,0 +1,377 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ScanOptions;
+import org.tron.common.utils.Time;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.exception.ContractExeException;
+import org.tron.core.exception.ContractValidateException;
+import org.tron.core.exception.ValidateBandwidthException;
+import org.tron.core.exception.ValidateSignatureException;
+import org.tron.protos.Contract.AssetIssueContract;
+import org.tron.protos.Contract.ParticipateAssetIssueContract;
+import org.tron.protos.Contract.TransferAssetContract;
+import org.tron.protos.Contract.VoteWitnessContract;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * Executes the transactions of a block. In parallel mode the transactions are grouped by the
+ * accounts, assets and witnesses their contracts name, the groups run concurrently in
+ * {@link WriteSet}s and the sets are applied in block order. If a group fails or two groups
+ * touched a key one of them wrote, the sets are dropped and the block runs serially, so the
+ * state always matches serial execution.
+ *
+ * <p>The differential mode runs a block both ways with a pinned clock, reports any difference
+ * and then applies the serial result.
+ */
+@Slf4j
+public class TransactionExecutor {
+
+  public enum Mode {
+    SERIAL, PARALLEL, DIFFERENTIAL
+  }
+
+  private static final byte ACCOUNT_KEY = 'a';
+  private static final byte ASSET_KEY = 's';
+  private static final byte WITNESS_KEY = 'w';
+  /**
+   * key of the contracts touching state shared by every account, e.g. the blackhole.
+   */
+  private static final ByteString GLOBAL_KEY = ByteString.copyFrom(new byte[]{'g'});
+
+  private final Manager manager;
+  private final RevokingDatabase revokingStore;
+  private final ForkJoinPool pool;
+
+  @Getter
+  private final Mode mode;
+
+  private final LongAdder parallelBlocks = new LongAdder();
+  private final LongAdder serialFallbacks = new LongAdder();
+  private final LongAdder mismatches = new LongAdder();
+
+  public TransactionExecutor(Manager manager, RevokingDatabase revokingStore, ForkJoinPool pool,
+      Mode mode) {
+    this.manager = manager;
+    this.revokingStore = revokingStore;
+    this.pool = pool;
+    this.mode = mode;
+  }
+
+  /**
+   * execute and store the transactions in order, the state is the one of serial execution.
+   */
+  public void execute(List<TransactionCapsule> transactions)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      ValidateBandwidthException {
+    switch (mode) {
+      case PARALLEL:
+        if (!executeInParallel(transactions)) {
+          executeSerially(transactions);
+        }
+        break;
+      case DIFFERENTIAL:
+        Time.pin(Time.getCurrentMillis());
+        try {
+          compare(transactions);
+          executeSerially(transactions);
+        } finally {
+          Time.unpin();
+        }
+        break;
+      default:
+        executeSerially(transactions);
+    }
+  }
+
+  /**
+   * blocks applied from parallel groups.
+   */
+  public long getParallelBlockCount() {
+    return parallelBlocks.sum();
+  }
+
+  /**
+   * blocks run serially after a group failed or the groups conflicted.
+   */
+  public long getSerialFallbackCount() {
+    return serialFallbacks.sum();
+  }
+
+  /**
+   * blocks whose parallel result differed from the serial one, differential mode only.
+   */
+  public long getMismatchCount() {
+    return mismatches.sum();
+  }
+
+  private void executeSerially(List<TransactionCapsule> transactions)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      ValidateBandwidthException {
+    for (TransactionCapsule transaction : transactions) {
+      manager.processTransaction(transaction);
+    }
+  }
+
+  private boolean canRunInParallel(List<TransactionCapsule> transactions) {
+    return transactions.size() > 1
+        && pool.getParallelism() > 1
+        && revokingStore instanceof SnapshotRevokingStore
+        && WriteSet.current() == null
+        && ReadView.current() == null
+        // the buffer of a write session is only visible to its thread
+        && !WriteSession.getInstance().hasPendingWrites();
+  }
+
+  private boolean executeInParallel(List<TransactionCapsule> transactions) {
+    if (!canRunInParallel(transactions)) {
+      return false;
+    }
+    List<List<TransactionCapsule>> groups = group(transactions);
+    if (groups.size() < 2) {
+      return false;
+    }
+
+    List<WriteSet> sets = runGroups(groups, null);
+    if (sets == null || !WriteSet.areIndependent(sets)) {
+      serialFallbacks.increment();
+      return false;
+    }
+
+    sets.forEach(set -> set.apply((SnapshotRevokingStore) revokingStore));
+    transactions.forEach(manager::storeTransaction);
+    parallelBlocks.increment();
+    return true;
+  }
+
+  /**
+   * run the transactions both ways without changing the state and report a difference.
+   */
+  private void compare(List<TransactionCapsule> transactions) {
+    if (!canRunInParallel(transactions)) {
+      return;
+    }
+    List<List<TransactionCapsule>> groups = group(transactions);
+    if (groups.size() < 2) {
+      return;
+    }
+
+    WriteSet serial = runGroup(transactions, null);
+    List<WriteSet> sets = runGroups(groups, Time.getCurrentMillis());
+    if (sets == null || !WriteSet.areIndependent(sets)) {
+      serialFallbacks.increment();
+      return;
+    }
+
+    parallelBlocks.increment();
+    if (serial == null) {
+      mismatches.increment();
+      logger.error("a transaction failed serially but every parallel group succeeded");
+      return;
+    }
+
+    Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> parallel = new HashMap<>();
+    sets.forEach(set -> set.getWrites().forEach((source, rows) -> parallel
+        .computeIfAbsent(source, s -> new TreeMap<>(ScanOptions.KEY_ORDER)).putAll(rows)));
+    String difference = difference(serial.getWrites(), parallel);
+    if (difference != null) {
+      mismatches.increment();
+      logger.error("parallel execution differs from serial execution: {}", difference);
+    }
+  }
+
+  private static String difference(
+      Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> serial,
+      Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> parallel) {
+    if (!serial.keySet().equals(parallel.keySet())) {
+      return "written stores " + names(serial) + " vs " + names(parallel);
+    }
+
+    for (Entry<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> entry : serial.entrySet()) {
+      NavigableMap<byte[], byte[]> expected = entry.getValue();
+      NavigableMap<byte[], byte[]> actual = parallel.get(entry.getKey());
+      if (expected.size() != actual.size()) {
+        return entry.getKey().getDBName() + " has " + expected.size() + " vs "
+            + actual.size() + " written keys";
+      }
+      for (Entry<byte[], byte[]> row : expected.entrySet()) {
+        if (!actual.containsKey(row.getKey())
+            || !Arrays.equals(row.getValue(), actual.get(row.getKey()))) {
+          return entry.getKey().getDBName() + " differs at a key";
+        }
+      }
+    }
+    return null;
+  }
+
+  private static List<String> names(Map<DbSourceInter<byte[]>, ?> writes) {
+    return writes.keySet().stream().map(DbSourceInter::getDBName).sorted()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * run each group in a write set on the pool, null if a group failed. millis pins the clock of
+   * the workers if not null.
+   */
+  private List<WriteSet> runGroups(List<List<TransactionCapsule>> groups, Long millis) {
+    List<Callable<WriteSet>> tasks = groups.stream()
+        .map(group -> (Callable<WriteSet>) () -> runGroup(group, millis))
+        .collect(Collectors.toList());
+
+    List<WriteSet> sets = new ArrayList<>(groups.size());
+    for (Future<WriteSet> future : pool.invokeAll(tasks)) {
+      try {
+        WriteSet set = future.get();
+        if (set == null) {
+          return null;
+        }
+        sets.add(set);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      } catch (ExecutionException e) {
+        logger.debug(e.getMessage(), e);
+        return null;
+      }
+    }
+    return sets;
+  }
+
+  private WriteSet runGroup(List<TransactionCapsule> group, Long millis) {
+    if (millis != null) {
+      Time.pin(millis);
+    }
+    try (WriteSet set = new WriteSet()) {
+      for (TransactionCapsule transaction : group) {
+        manager.executeTransaction(transaction);
+      }
+      return set;
+    } catch (Exception e) {
+      // the serial run reports the error of the first failing transaction
+      logger.debug(e.getMessage(), e);
+      return null;
+    } finally {
+      if (millis != null) {
+        Time.unpin();
+      }
+    }
+  }
+
+  /**
+   * the transactions sharing a key, transitively, in block order. The groups are ordered by
+   * their first transaction.
+   */
+  static List<List<TransactionCapsule>> group(List<TransactionCapsule> transactions) {
+    int[] parents = new int[transactions.size()];
+    Map<ByteString, Integer> owners = new HashMap<>();
+    for (int i = 0; i < transactions.size(); i++) {
+      parents[i] = i;
+      for (ByteString key : keysOf(transactions.get(i).getInstance())) {
+        Integer owner = owners.putIfAbsent(key, i);
+        if (owner != null) {
+          union(parents, owner, i);
+        }
+      }
+    }
+
+    Map<Integer, List<TransactionCapsule>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < transactions.size(); i++) {
+      groups.computeIfAbsent(find(parents, i), root -> new ArrayList<>())
+          .add(transactions.get(i));
+    }
+    return new ArrayList<>(groups.values());
+  }
+
+  private static int find(int[] parents, int i) {
+    while (parents[i] != i) {
+      parents[i] = parents[parents[i]];
+      i = parents[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parents, int a, int b) {
+    int rootA = find(parents, a);
+    int rootB = find(parents, b);
+    // the smaller index stays the root so groups keep block order
+    parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+  }
+
+  /**
+   * the accounts, assets and witnesses the contracts of a transaction read or write, a
+   * conservative guess checked against the write sets afterwards.
+   */
+  static List<ByteString> keysOf(Transaction transaction) {
+    List<ByteString> keys = new ArrayList<>();
+    for (Transaction.Contract contract : transaction.getRawData().getContractList()) {
+      keys.add(key(ACCOUNT_KEY, TransactionCapsule.getOwner(contract)));
+      byte[] to = TransactionCapsule.getToAddress(contract);
+      if (to != null) {
+        keys.add(key(ACCOUNT_KEY, to));
+      }
+
+      try {
+        switch (contract.getType()) {
+          case TransferContract:
+          case FreezeBalanceContract:
+          case UnfreezeBalanceContract:
+            break;
+          case TransferAssetContract:
+            keys.add(key(ASSET_KEY, contract.getParameter().unpack(TransferAssetContract.class)
+                .getAssetName().toByteArray()));
+            break;
+          case ParticipateAssetIssueContract:
+            keys.add(key(ASSET_KEY,
+                contract.getParameter().unpack(ParticipateAssetIssueContract.class)
+                    .getAssetName().toByteArray()));
+            break;
+          case VoteWitnessContract:
+            contract.getParameter().unpack(VoteWitnessContract.class).getVotesList().forEach(
+                vote -> keys.add(key(WITNESS_KEY, vote.getVoteAddress().toByteArray())));
+            break;
+          case WitnessUpdateContract:
+          case WithdrawBalanceContract:
+            keys.add(key(WITNESS_KEY, TransactionCapsule.getOwner(contract)));
+            break;
+          case AssetIssueContract:
+            keys.add(key(ASSET_KEY, contract.getParameter().unpack(AssetIssueContract.class)
+                .getName().toByteArray()));
+            keys.add(GLOBAL_KEY);
+            break;
+          default:
+            keys.add(GLOBAL_KEY);
+        }
+      } catch (InvalidProtocolBufferException e) {
+        keys.add(GLOBAL_KEY);
+      }
+    }
+    return keys;
+  }
+
+  private static ByteString key(byte type, byte[] id) {
+    if (id == null) {
+      return GLOBAL_KEY;
+    }
+    return ByteString.copyFrom(new byte[]{type})
+        .concat(ByteString.copyFrom(id));
+  }
+}
@@ -0,0 +1,233 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.protos.Protocol.Transaction;
+
+/**
+ * The transactions waiting for a block, indexed by id, by owner address and by expiration.
+ *
+ * <p>Transactions are included in arrival order, which keeps the transactions of an owner in
+ * the order they were sent. The pool holds at most maxSize transactions, once full the one
+ * closest to its expiration is evicted first, among equals the latest to arrive. A transaction
+ * without expiration never expires and is evicted last.
+ *
+ * <p>Every entry keeps the writes its execution made to the pending state, so after a block the
+ * entries not reading or writing a key the block wrote can be applied again without being
+ * executed. The keys written by entries leaving the pool are kept until the next rebuild.
+ */
+public class TransactionPool {
+
+  private static final Comparator<Entry> BY_EXPIRATION = Comparator
+      .comparingLong((Entry entry) -> entry.expiration)
+      .thenComparing(Comparator.comparingLong((Entry entry) -> entry.seq).reversed());
+
+  private final int maxSize;
+  private final Map<Sha256Hash, Entry> byId = new LinkedHashMap<>();
+  private final Map<ByteString, Set<Entry>> byOwner = new HashMap<>();
+  private final TreeSet<Entry> byExpiration = new TreeSet<>(BY_EXPIRATION);
+  private Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> droppedKeys = new HashMap<>();
+  private long nextSeq = 0;
+
+  public TransactionPool(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public synchronized boolean contains(Sha256Hash id) {
+    return byId.containsKey(id);
+  }
+
+  /**
+   * the pending transaction with id, null if there is none.
+   */
+  public synchronized TransactionCapsule get(Sha256Hash id) {
+    Entry entry = byId.get(id);
+    return entry == null ? null : entry.transaction;
+  }
+
+  /**
+   * the pending transactions of a contract owned by owner, in arrival order.
+   */
+  public synchronized List<TransactionCapsule> getByOwner(byte[] owner) {
+    Set<Entry> entries = byOwner.get(ByteString.copyFrom(owner));
+    if (entries == null) {
+      return Collections.emptyList();
+    }
+    return entries.stream().map(entry -> entry.transaction).collect(Collectors.toList());
+  }
+
+  /**
+   * the pending transactions in inclusion order.
+   */
+  public synchronized List<TransactionCapsule> getTransactions() {
+    return byId.values().stream().map(entry -> entry.transaction).collect(Collectors.toList());
+  }
+
+  public synchronized int size() {
+    return byId.size();
+  }
+
+  /**
+   * false if transaction expired at now, or the pool is full and it would be the first evicted.
+   */
+  public synchronized boolean admits(TransactionCapsule transaction, long now) {
+    long expiration = expirationOf(transaction.getInstance());
+    if (expiration <= now) {
+      return false;
+    }
+    return byId.size() < maxSize || !byExpiration.isEmpty() && BY_EXPIRATION.compare(
+        new Entry(transaction, null, nextSeq), byExpiration.first()) > 0;
+  }
+
+  /**
+   * add transaction after the others, evicting entries over the size limit. writes are the
+   * writes of its execution on the pending state, null if unknown.
+   */
+  public synchronized void add(TransactionCapsule transaction, WriteSet writes) {
+    Entry entry = new Entry(transaction, writes, nextSeq++);
+    Entry prior = byId.put(entry.id, entry);
+    if (prior != null) {
+      unindex(prior);
+    }
+    byExpiration.add(entry);
+    entry.owners.forEach(owner -> byOwner.computeIfAbsent(owner, o -> new LinkedHashSet<>())
+        .add(entry));
+
+    while (byId.size() > maxSize) {
+      remove(byExpiration.first());
+    }
+  }
+
+  public synchronized boolean remove(TransactionCapsule transaction) {
+    Entry entry = byId.get(transaction.getTransactionId());
+    if (entry == null) {
+      return false;
+    }
+    remove(entry);
+    return true;
+  }
+
+  /**
+   * remove the transactions expired at now.
+   */
+  public synchronized List<TransactionCapsule> removeExpired(long now) {
+    List<TransactionCapsule> expired = new ArrayList<>();
+    while (!byExpiration.isEmpty() && byExpiration.first().expiration <= now) {
+      Entry entry = byExpiration.first();
+      remove(entry);
+      expired.add(entry.transaction);
+    }
+    return expired;
+  }
+
+  /**
+   * the writes of the execution of transaction on the pending state, null if unknown.
+   */
+  synchronized WriteSet getWrites(TransactionCapsule transaction) {
+    Entry entry = byId.get(transaction.getTransactionId());
+    return entry == null ? null : entry.writes;
+  }
+
+  /**
+   * replace the writes of transaction after it was executed again.
+   */
+  synchronized void setWrites(TransactionCapsule transaction, WriteSet writes) {
+    Entry entry = byId.get(transaction.getTransactionId());
+    if (entry != null) {
+      entry.writes = writes;
+    }
+  }
+
+  /**
+   * a copy of the keys written by the entries removed since the last drain, null if one of them
+   * had unknown writes.
+   */
+  synchronized Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> getDroppedKeys() {
+    if (droppedKeys == null) {
+      return null;
+    }
+    Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys = new HashMap<>();
+    droppedKeys.forEach((source, written) -> keys.put(source, new HashSet<>(written)));
+    return keys;
+  }
+
+  /**
+   * the keys written by the entries removed since the last call, an entry of unknown writes
+   * makes it null.
+   */
+  synchronized Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> drainDroppedKeys() {
+    Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys = droppedKeys;
+    droppedKeys = new HashMap<>();
+    return keys;
+  }
+
+  private void remove(Entry entry) {
+    byId.remove(entry.id);
+    unindex(entry);
+    if (droppedKeys == null) {
+      return;
+    }
+    if (entry.writes == null) {
+      droppedKeys = null;
+    } else {
+      entry.writes.addWrittenKeys(droppedKeys);
+    }
+  }
+
+  private void unindex(Entry entry) {
+    byExpiration.remove(entry);
+    entry.owners.forEach(owner -> {
+      Set<Entry> entries = byOwner.get(owner);
+      if (entries != null) {
+        entries.remove(entry);
+        if (entries.isEmpty()) {
+          byOwner.remove(owner);
+        }
+      }
+    });
+  }
+
+  private static long expirationOf(Transaction transaction) {
+    long expiration = transaction.getRawData().getExpiration();
+    return expiration == 0 ? Long.MAX_VALUE : expiration;
+  }
+
+  private static final class Entry {
+
+    private final TransactionCapsule transaction;
+    private final Sha256Hash id;
+    private final List<ByteString> owners;
+    private final long expiration;
+    private final long seq;
+    private WriteSet writes;
+
+    private Entry(TransactionCapsule transaction, WriteSet writes, long seq) {
+      this.transaction = transaction;
+      this.id = transaction.getTransactionId();
+      this.owners = transaction.getInstance().getRawData().getContractList().stream()
+          .map(TransactionCapsule::getOwner)
+          .filter(Objects::nonNull)
+          .map(ByteString::copyFrom)
+          .distinct()
+          .collect(Collectors.toList());
+      this.expiration = expirationOf(transaction.getInstance());
+      this.seq = seq;
+      this.writes = writes;
+    }
+  }
+}
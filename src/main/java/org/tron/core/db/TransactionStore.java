@@ -7,6 +7,7 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.tron.common.storage.ScanOptions;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.db.common.iterator.TransactionIterator;
 
@@ -19,6 +20,11 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
     super(dbName);
   }
 
+  @Override
+  protected boolean isCounted() {
+    return true;
+  }
+
   @Override
   public TransactionCapsule get(byte[] key) {
     byte[] value = dbSource.getData(key);
@@ -44,7 +50,7 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
    * get total transaction.
    */
   public long getTotalTransactions() {
-    return dbSource.getTotal();
+    return getCount();
   }
 
   private static TransactionStore instance;
@@ -83,4 +89,9 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
     return new TransactionIterator(dbSource.iterator());
   }
 
+  @Override
+  public TransactionIterator iterator(ScanOptions options) {
+    return new TransactionIterator(dbSource.iterator(options));
+  }
+
 }
@@ -6,23 +6,26 @@ import java.util.Map;
 import java.util.Map.Entry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.storage.DbSourceFactory;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ScanOptions;
 import org.tron.common.utils.Quitable;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.api.IndexHelper;
+import org.tron.core.db.common.iterator.AbstractIterator;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ItemNotFoundException;
 
 @Slf4j
 public abstract class TronDatabase<T> implements Iterable<Map.Entry<byte[], T>>, Quitable {
 
-  protected LevelDbDataSourceImpl dbSource;
+  protected DbSourceInter<byte[]> dbSource;
 
   @Autowired(required = false)
   protected IndexHelper indexHelper;
 
   protected TronDatabase(String dbName) {
-    dbSource = new LevelDbDataSourceImpl(Args.getInstance().getOutputDirectory(), dbName);
+    dbSource = DbSourceFactory.create(Args.getInstance().getOutputDirectory(), dbName);
     dbSource.initDB();
   }
 
@@ -30,7 +33,7 @@ public abstract class TronDatabase<T> implements Iterable<Map.Entry<byte[], T>>,
     throw new IllegalStateException("This constructor is not allowed");
   }
 
-  public LevelDbDataSourceImpl getDbSource() {
+  public DbSourceInter<byte[]> getDbSource() {
     return dbSource;
   }
 
@@ -66,4 +69,12 @@ public abstract class TronDatabase<T> implements Iterable<Map.Entry<byte[], T>>,
   public Iterator<Entry<byte[], T>> iterator() {
     throw new UnsupportedOperationException();
   }
+
+  /**
+   * ordered scan over a range of the entries, the items are deserialized one at a time. Close
+   * the iterator if it is not exhausted.
+   */
+  public AbstractIterator<T> iterator(ScanOptions options) {
+    throw new UnsupportedOperationException();
+  }
 }
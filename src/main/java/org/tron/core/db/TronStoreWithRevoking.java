@@ -1,9 +1,12 @@
 package org.tron.core.db;
 
 import java.util.Objects;
+import java.util.function.Function;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.config.args.Args;
 import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
 
 @Slf4j
@@ -11,6 +14,15 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
 
   private RevokingDatabase revokingDatabase;
 
+  @Autowired(required = false)
+  private StoreStatisticsStore statistics;
+
+  /**
+   * parsed values of the store, null unless its profile sets a capsuleCacheSize.
+   */
+  @Getter
+  private CapsuleCache<Object> capsuleCache;
+
   protected TronStoreWithRevoking(String dbName) {
     this(dbName, RevokingStore.getInstance());
   }
@@ -19,6 +31,62 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
   protected TronStoreWithRevoking(String dbName, RevokingDatabase revokingDatabase) {
     super(dbName);
     this.revokingDatabase = revokingDatabase;
+    this.dbSource = revokingDatabase.wrap(
+        new SessionDbSource(dbSource, WriteSession.getInstance(), isSyncPoint()));
+    long capsuleCacheSize = Args.getInstance().getStorage().getProfile(dbName)
+        .getCapsuleCacheSize();
+    if (capsuleCacheSize > 0) {
+      this.capsuleCache = new CapsuleCache<>(capsuleCacheSize);
+    }
+  }
+
+  /**
+   * true if the store holds the chain head, its writes are flushed last in a write session.
+   */
+  protected boolean isSyncPoint() {
+    return false;
+  }
+
+  /**
+   * true if the entry count and size of the store are kept in the statistics store, every write
+   * then reads the prior value.
+   */
+  protected boolean isCounted() {
+    return false;
+  }
+
+  private boolean counting() {
+    return isCounted() && statistics != null;
+  }
+
+  /**
+   * number of entries, in constant time if the store is counted.
+   */
+  public long getCount() {
+    return counting() ? statistics.getCount(dbSource.getDBName()) : dbSource.getTotal();
+  }
+
+  /**
+   * total size of the values, in constant time if the store is counted.
+   */
+  public long getTotalBytes() {
+    if (counting()) {
+      return statistics.getTotalBytes(dbSource.getDBName());
+    }
+
+    return dbSource.allValues().stream().mapToLong(value -> value.length).sum();
+  }
+
+  /**
+   * the value parsed from the stored bytes of key, served from the capsule cache while the bytes
+   * are unchanged.
+   */
+  @SuppressWarnings("unchecked")
+  protected <P> P getParsed(byte[] key, byte[] value, Function<byte[], P> parse) {
+    if (capsuleCache == null) {
+      return parse.apply(value);
+    }
+    return (P) capsuleCache.get(key, value, parse);
   }
 
   @Override
@@ -27,45 +95,56 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
       return;
     }
     //logger.info("Address is {}, " + item.getClass().getSimpleName() + " is {}", key, item);
-    byte[] value = dbSource.getData(key);
-    if (ArrayUtils.isNotEmpty(value)) {
-      onModify(key, value);
+    byte[] value = item.getData();
+    if (counting()) {
+      byte[] prior = dbSource.getData(key);
+      statistics.add(dbSource.getDBName(), prior == null ? 1 : 0,
+          value.length - (prior == null ? 0 : prior.length));
     }
 
-    dbSource.putData(key, item.getData());
-
-    if (ArrayUtils.isEmpty(value)) {
-      onCreate(key);
+    onPut(key);
+    dbSource.putData(key, value);
+    if (capsuleCache != null) {
+      capsuleCache.put(key, value, item.getInstance());
     }
   }
 
   @Override
   public void delete(byte[] key) {
+    if (counting()) {
+      byte[] prior = dbSource.getData(key);
+      if (prior != null) {
+        statistics.add(dbSource.getDBName(), -1, -prior.length);
+      }
+    }
+
     onDelete(key);
     dbSource.deleteData(key);
+    if (capsuleCache != null) {
+      capsuleCache.invalidate(key);
+    }
   }
 
-  /**
-   * This should be called just after an object is created
-   */
-  private void onCreate(byte[] key) {
-    revokingDatabase.onCreate(new RevokingTuple(dbSource, key), null);
+  @Override
+  public void reset() {
+    super.reset();
+    if (capsuleCache != null) {
+      capsuleCache.invalidateAll();
+    }
   }
 
   /**
-   * This should be called just before an object is modified
+   * This should be called just before an object is written. The prior value is read only on the
+   * first touch of the key in the current revoking state.
    */
-  private void onModify(byte[] key, byte[] value) {
-    revokingDatabase.onModify(new RevokingTuple(dbSource, key), value);
+  private void onPut(byte[] key) {
+    revokingDatabase.onPut(new RevokingTuple(dbSource, key), () -> dbSource.getData(key));
   }
 
   /**
    * This should be called just before an object is removed.
    */
   private void onDelete(byte[] key) {
-    byte[] value;
-    if (Objects.nonNull(value = dbSource.getData(key))) {
-      revokingDatabase.onRemove(new RevokingTuple(dbSource, key), value);
-    }
+    revokingDatabase.onDelete(new RevokingTuple(dbSource, key), () -> dbSource.getData(key));
   }
 }
@@ -36,7 +36,7 @@ import org.tron.protos.Protocol.TXOutputs;
 
 @Slf4j
 @Component
-public class UtxoStore extends TronDatabase {
+public class UtxoStore extends TronDatabase<Object> {
 
   @Autowired
   private UtxoStore(@Qualifier("utxo") String dbName) {
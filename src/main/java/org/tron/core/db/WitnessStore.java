@@ -1,17 +1,19 @@
 package org.tron.core.db;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.tron.common.storage.ScanOptions;
 import org.tron.common.utils.StringUtil;
 import org.tron.core.capsule.WitnessCapsule;
 import org.tron.core.db.common.iterator.WitnessIterator;
+import org.tron.protos.Protocol.Witness;
 
 @Slf4j
 @Component
@@ -25,7 +27,12 @@ public class WitnessStore extends TronStoreWithRevoking<WitnessCapsule> {
   @Override
   public WitnessCapsule get(byte[] key) {
     byte[] value = dbSource.getData(key);
-    return ArrayUtils.isEmpty(value) ? null : new WitnessCapsule(value);
+    if (ArrayUtils.isEmpty(value)) {
+      return null;
+    }
+
+    Witness witness = getParsed(key, value, data -> new WitnessCapsule(data).getInstance());
+    return witness == null ? new WitnessCapsule(value) : new WitnessCapsule(witness);
   }
 
   @Override
@@ -79,15 +86,18 @@ public class WitnessStore extends TronStoreWithRevoking<WitnessCapsule> {
    * get all witnesses.
    */
   public List<WitnessCapsule> getAllWitnesses() {
-    return dbSource
-        .allValues()
-        .stream()
-        .map(bytes -> new WitnessCapsule(bytes))
-        .collect(Collectors.toList());
+    List<WitnessCapsule> witnesses = new ArrayList<>();
+    iterator(ScanOptions.forward()).forEachRemaining(entry -> witnesses.add(entry.getValue()));
+    return witnesses;
   }
 
   @Override
   public Iterator<Entry<byte[], WitnessCapsule>> iterator() {
     return new WitnessIterator(dbSource.iterator());
   }
+
+  @Override
+  public WitnessIterator iterator(ScanOptions options) {
+    return new WitnessIterator(dbSource.iterator(options));
+  }
 }
@@ -0,0 +1,128 @@
+package org.tron.core.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.iq80.leveldb.WriteOptions;
+
+/**
+ * Block scoped write buffer of the revoking stores. While a session is open, every write made by
+ * the thread that opened it is kept in memory by the {@link SessionDbSource} of each store and
+ * read back from there. {@link #commit()} writes the buffer of each store as a single synced
+ * batch, stores holding the head pointer last.
+ *
+ * <p>Each store is a database of its own, so the batches can't be atomic together. Syncing
+ * every batch before the head pointer's one keeps a durable head from pointing at state that a
+ * crash lost.
+ */
+@Slf4j
+public class WriteSession {
+
+  private final List<SessionDbSource> sources = new CopyOnWriteArrayList<>();
+  private volatile Thread owner;
+
+  private WriteSession() {
+  }
+
+  public static WriteSession getInstance() {
+    return WriteSessionEnum.INSTANCE.getInstance();
+  }
+
+  void register(SessionDbSource source) {
+    sources.add(source);
+  }
+
+  void unregister(SessionDbSource source) {
+    sources.remove(source);
+  }
+
+  /**
+   * true if the current thread has an open session.
+   */
+  public boolean isOwner() {
+    return owner == Thread.currentThread();
+  }
+
+  public boolean isActive() {
+    return owner != null;
+  }
+
+  /**
+   * true if a store holds writes of the open session.
+   */
+  public boolean hasPendingWrites() {
+    return sources.stream().anyMatch(SessionDbSource::hasPendingWrites);
+  }
+
+  /**
+   * open a session for the current thread.
+   */
+  public synchronized void begin() {
+    if (owner != null) {
+      throw new IllegalStateException("write session is already open by " + owner.getName());
+    }
+
+    owner = Thread.currentThread();
+  }
+
+  /**
+   * write the buffered changes of every store, each store synced before the ones holding the
+   * head pointer are written, and close the session.
+   */
+  public synchronized void commit() {
+    checkOwner();
+    try {
+      List<SessionDbSource> dirty = new ArrayList<>();
+      sources.stream()
+          .filter(SessionDbSource::hasPendingWrites)
+          .filter(source -> !source.isSyncPoint())
+          .forEach(dirty::add);
+      sources.stream()
+          .filter(SessionDbSource::hasPendingWrites)
+          .filter(SessionDbSource::isSyncPoint)
+          .forEach(dirty::add);
+
+      WriteOptions sync = new WriteOptions().sync(true);
+      dirty.forEach(source -> source.commitBuffer(sync));
+    } finally {
+      close();
+    }
+  }
+
+  /**
+   * drop the buffered changes and close the session, does nothing if no session is open.
+   */
+  public synchronized void discard() {
+    if (!isOwner()) {
+      return;
+    }
+
+    close();
+  }
+
+  private void close() {
+    sources.forEach(SessionDbSource::discardBuffer);
+    owner = null;
+  }
+
+  private void checkOwner() {
+    if (!isOwner()) {
+      throw new IllegalStateException("write session is not open by the current thread");
+    }
+  }
+
+  private enum WriteSessionEnum {
+    INSTANCE;
+
+    private WriteSession instance;
+
+    WriteSessionEnum() {
+      instance = new WriteSession();
+    }
+
+    private WriteSession getInstance() {
+      return instance;
+    }
+  }
+}
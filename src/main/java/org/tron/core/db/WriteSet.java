@@ -0,0 +1,213 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.UnsignedBytes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ScanOptions;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db.common.iterator.MergedScanIterator;
+
+/**
+ * Writes of the revoking stores kept aside from the revoking database, together with the keys
+ * read from it. While a write set is bound to a thread, the stores on that thread write into it
+ * and read it before the revoking database, so work can run on the current state without
+ * touching it and be applied or dropped afterwards.
+ *
+ * <p>Like a {@link ReadView}, a write set is bound to the thread creating it until closed.
+ */
+public class WriteSet implements AutoCloseable {
+
+  private static final ThreadLocal<WriteSet> CURRENT = new ThreadLocal<>();
+
+  /**
+   * rows written per source, a deleted key is mapped to null.
+   */
+  private final Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> writes = new HashMap<>();
+  private final Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> reads = new HashMap<>();
+  private final Set<DbSourceInter<byte[]>> scanned = new HashSet<>();
+  private final WriteSet previous;
+  private final Thread owner;
+  private boolean closed = false;
+
+  public WriteSet() {
+    this.previous = CURRENT.get();
+    this.owner = Thread.currentThread();
+    CURRENT.set(this);
+  }
+
+  /**
+   * the write set bound to the current thread, null if there is none.
+   */
+  static WriteSet current() {
+    return CURRENT.get();
+  }
+
+  byte[] get(DbSourceInter<byte[]> source, byte[] key, Supplier<byte[]> stored) {
+    NavigableMap<byte[], byte[]> rows = writes.get(source);
+    if (key != null && rows != null && rows.containsKey(key)) {
+      return rows.get(key);
+    }
+
+    if (key != null) {
+      reads.computeIfAbsent(source, s -> new HashSet<>()).add(new ByteArrayWrapper(key));
+    }
+    return stored.get();
+  }
+
+  void put(DbSourceInter<byte[]> source, byte[] key, byte[] value) {
+    writes.computeIfAbsent(source, s -> new TreeMap<>(UnsignedBytes.lexicographicalComparator()))
+        .put(key, value);
+  }
+
+  /**
+   * scan of source merged with the writes, the whole source counts as read.
+   */
+  DBIterator iterator(DbSourceInter<byte[]> source, ScanOptions options,
+      Function<ScanOptions, DBIterator> stored) {
+    scanned.add(source);
+    NavigableMap<byte[], byte[]> rows = writes.get(source);
+    if (rows == null || rows.isEmpty()) {
+      return stored.apply(options);
+    }
+    return new MergedScanIterator(stored.apply(options.limit(ScanOptions.NO_LIMIT)),
+        new TreeMap<>(rows), options);
+  }
+
+  /**
+   * rows written per source, a deleted key is mapped to null.
+   */
+  public Map<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> getWrites() {
+    return writes;
+  }
+
+  /**
+   * true if the set read or wrote one of keys, a scan reads every key of its source.
+   */
+  public boolean touches(Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys) {
+    for (DbSourceInter<byte[]> source : scanned) {
+      Set<ByteArrayWrapper> touched = keys.get(source);
+      if (touched != null && !touched.isEmpty()) {
+        return true;
+      }
+    }
+
+    for (Entry<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> entry : reads.entrySet()) {
+      Set<ByteArrayWrapper> touched = keys.get(entry.getKey());
+      if (touched != null && entry.getValue().stream().anyMatch(touched::contains)) {
+        return true;
+      }
+    }
+
+    for (Entry<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> entry : writes.entrySet()) {
+      Set<ByteArrayWrapper> touched = keys.get(entry.getKey());
+      if (touched != null && entry.getValue().keySet().stream()
+          .anyMatch(key -> touched.contains(new ByteArrayWrapper(key)))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * add the keys written by the set to keys.
+   */
+  public void addWrittenKeys(Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys) {
+    writes.forEach((source, rows) -> {
+      Set<ByteArrayWrapper> written = keys.computeIfAbsent(source, s -> new HashSet<>());
+      rows.keySet().forEach(key -> written.add(new ByteArrayWrapper(key)));
+    });
+  }
+
+  /**
+   * add the keys written by set to keys, either being null stands for unknown keys and gives
+   * null.
+   */
+  static Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> addWrittenKeys(
+      Map<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> keys, WriteSet set) {
+    if (keys == null || set == null) {
+      return null;
+    }
+    set.addWrittenKeys(keys);
+    return keys;
+  }
+
+  /**
+   * true if no key written by one of the sets is read or written by another, applying them in
+   * any order then gives the state of running their work one after the other.
+   */
+  public static boolean areIndependent(List<WriteSet> sets) {
+    Map<DbSourceInter<byte[]>, Map<ByteArrayWrapper, WriteSet>> writers = new HashMap<>();
+    for (WriteSet set : sets) {
+      for (Entry<DbSourceInter<byte[]>, NavigableMap<byte[], byte[]>> entry
+          : set.writes.entrySet()) {
+        Map<ByteArrayWrapper, WriteSet> keys =
+            writers.computeIfAbsent(entry.getKey(), source -> new HashMap<>());
+        for (byte[] key : entry.getValue().keySet()) {
+          if (keys.put(new ByteArrayWrapper(key), set) != null) {
+            return false;
+          }
+        }
+      }
+    }
+
+    for (WriteSet set : sets) {
+      for (DbSourceInter<byte[]> source : set.scanned) {
+        Map<ByteArrayWrapper, WriteSet> keys = writers.get(source);
+        if (keys != null && keys.values().stream().anyMatch(writer -> writer != set)) {
+          return false;
+        }
+      }
+
+      for (Entry<DbSourceInter<byte[]>, Set<ByteArrayWrapper>> entry : set.reads.entrySet()) {
+        Map<ByteArrayWrapper, WriteSet> keys = writers.get(entry.getKey());
+        if (keys == null) {
+          continue;
+        }
+        for (ByteArrayWrapper key : entry.getValue()) {
+          WriteSet writer = keys.get(key);
+          if (writer != null && writer != set) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * write the rows into the revoking database of their sources. Call it after closing the set.
+   */
+  public void apply(SnapshotRevokingStore revokingStore) {
+    writes.forEach((source, rows) -> rows.forEach(
+        (key, value) -> revokingStore.put(source, key, value)));
+  }
+
+  /**
+   * unbind the set from the thread and restore the set the thread had before.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    if (Thread.currentThread() != owner) {
+      throw new IllegalStateException("a write set must be closed by the thread opening it");
+    }
+
+    closed = true;
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -2,11 +2,14 @@ package org.tron.core.db.common.iterator;
 
 import com.google.common.collect.Maps;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 
-public abstract class AbstractIterator<T> implements Iterator<Map.Entry<byte[], T>> {
+public abstract class AbstractIterator<T> implements Iterator<Map.Entry<byte[], T>>, Closeable {
 
   protected Iterator<Map.Entry<byte[], byte[]>> iterator;
 
@@ -26,4 +29,18 @@ public abstract class AbstractIterator<T> implements Iterator<Map.Entry<byte[],
     Entry<byte[], byte[]> entry = iterator.next();
     return Maps.immutableEntry(entry.getKey(), of(entry.getValue()));
   }
+
+  /**
+   * release the scan of the store, needed only if the iterator is not exhausted.
+   */
+  @Override
+  public void close() {
+    if (iterator instanceof Closeable) {
+      try {
+        ((Closeable) iterator).close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
 }
@@ -0,0 +1,114 @@
+package org.tron.core.db.common.iterator;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.storage.ScanOptions;
+
+/**
+ * Range scan of a store with writes not yet in the store applied on top, a null pending value
+ * hides the stored entry. The pending writes must be a private copy, the stored entries a scan
+ * of the same range without limit.
+ */
+@Slf4j
+public final class MergedScanIterator implements DBIterator {
+
+  private final DBIterator stored;
+  private final Iterator<Entry<byte[], byte[]>> pending;
+  private final ScanOptions options;
+  private Entry<byte[], byte[]> storedHead;
+  private Entry<byte[], byte[]> pendingHead;
+  private Entry<byte[], byte[]> next;
+  private boolean closed = false;
+  private long count = 0;
+
+  public MergedScanIterator(DBIterator stored, NavigableMap<byte[], byte[]> pending,
+      ScanOptions options) {
+    this.stored = stored;
+    this.pending = options.scan(pending);
+    this.options = options;
+  }
+
+  private int compare(byte[] left, byte[] right) {
+    int compare = ScanOptions.KEY_ORDER.compare(left, right);
+    return options.isReverse() ? -compare : compare;
+  }
+
+  private Entry<byte[], byte[]> advance() {
+    while (true) {
+      if (storedHead == null && stored.hasNext()) {
+        storedHead = stored.next();
+      }
+      if (pendingHead == null && pending.hasNext()) {
+        pendingHead = pending.next();
+      }
+      if (storedHead == null && pendingHead == null) {
+        return null;
+      }
+
+      int compare = storedHead == null ? 1
+          : pendingHead == null ? -1 : compare(storedHead.getKey(), pendingHead.getKey());
+      if (compare < 0) {
+        Entry<byte[], byte[]> entry = storedHead;
+        storedHead = null;
+        return entry;
+      }
+
+      Entry<byte[], byte[]> entry = pendingHead;
+      pendingHead = null;
+      if (compare == 0) {
+        storedHead = null;
+      }
+      if (entry.getValue() != null) {
+        return entry;
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    if (next == null && count < options.getLimit()) {
+      next = advance();
+    }
+    if (next == null) {
+      close();
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public Entry<byte[], byte[]> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    Entry<byte[], byte[]> entry = next;
+    next = null;
+    count++;
+    return entry;
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      try {
+        stored.close();
+      } catch (IOException e) {
+        logger.debug(e.getMessage(), e);
+      }
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
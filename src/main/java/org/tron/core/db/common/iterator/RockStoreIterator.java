@@ -0,0 +1,68 @@
+package org.tron.core.db.common.iterator;
+
+import com.google.common.collect.Maps;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksIterator;
+
+@Slf4j
+public final class RockStoreIterator implements DBIterator {
+
+  private RocksIterator dbIterator;
+  private boolean first = true;
+  private boolean closed = false;
+
+  public RockStoreIterator(RocksIterator dbIterator) {
+    this.dbIterator = dbIterator;
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      dbIterator.close();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+
+    boolean hasNext = false;
+    // true is first item
+    try {
+      if (first) {
+        dbIterator.seekToFirst();
+        first = false;
+      }
+
+      if (!(hasNext = dbIterator.isValid())) { // false is last item
+        close();
+      }
+    } catch (Exception e) {
+      logger.debug(e.getMessage(), e);
+      close();
+    }
+
+    return hasNext;
+  }
+
+  @Override
+  public Entry<byte[], byte[]> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    Entry<byte[], byte[]> entry = Maps.immutableEntry(dbIterator.key(), dbIterator.value());
+    dbIterator.next();
+    return entry;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,62 @@
+package org.tron.core.db.common.iterator;
+
+import org.rocksdb.RocksIterator;
+import org.tron.common.storage.ScanOptions;
+
+/**
+ * Range scan over a RocksDB column family.
+ */
+public final class RockStoreScanIterator extends ScanIterator {
+
+  private final RocksIterator dbIterator;
+
+  public RockStoreScanIterator(RocksIterator dbIterator, ScanOptions options) {
+    super(options);
+    this.dbIterator = dbIterator;
+  }
+
+  @Override
+  protected void seekToFirst() {
+    dbIterator.seekToFirst();
+  }
+
+  @Override
+  protected void seekToLast() {
+    dbIterator.seekToLast();
+  }
+
+  @Override
+  protected void seek(byte[] key) {
+    dbIterator.seek(key);
+  }
+
+  @Override
+  protected boolean isValid() {
+    return dbIterator.isValid();
+  }
+
+  @Override
+  protected byte[] key() {
+    return dbIterator.key();
+  }
+
+  @Override
+  protected byte[] value() {
+    return dbIterator.value();
+  }
+
+  @Override
+  protected void next0() {
+    dbIterator.next();
+  }
+
+  @Override
+  protected void prev0() {
+    dbIterator.prev();
+  }
+
+  @Override
+  protected void release() {
+    dbIterator.close();
+  }
+}
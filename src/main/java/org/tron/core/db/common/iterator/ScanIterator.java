@@ -0,0 +1,118 @@
+package org.tron.core.db.common.iterator;
+
+import com.google.common.collect.Maps;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import org.tron.common.storage.ScanOptions;
+
+/**
+ * Streams a range of a store from an engine cursor. The cursor is positioned lazily on the first
+ * {@link #hasNext()} and released once the range or the limit is exhausted.
+ */
+public abstract class ScanIterator implements DBIterator {
+
+  private final ScanOptions options;
+  private boolean positioned = false;
+  private boolean closed = false;
+  private long count = 0;
+
+  protected ScanIterator(ScanOptions options) {
+    this.options = options;
+  }
+
+  protected abstract void seekToFirst();
+
+  protected abstract void seekToLast();
+
+  /**
+   * position the cursor at the first key not less than key.
+   */
+  protected abstract void seek(byte[] key);
+
+  protected abstract boolean isValid();
+
+  protected abstract byte[] key();
+
+  protected abstract byte[] value();
+
+  protected abstract void next0();
+
+  /**
+   * step back, the cursor becomes invalid before the first key.
+   */
+  protected abstract void prev0();
+
+  protected abstract void release();
+
+  private void position() {
+    byte[] start = options.startKey();
+    if (!options.isReverse()) {
+      if (start == null) {
+        seekToFirst();
+      } else {
+        seek(start);
+      }
+      return;
+    }
+
+    if (start == null) {
+      seekToLast();
+      return;
+    }
+    seek(start);
+    if (!isValid()) {
+      seekToLast();
+      return;
+    }
+    int compare = ScanOptions.KEY_ORDER.compare(key(), start);
+    if (compare > 0 || (compare == 0 && !options.isStartInclusive())) {
+      prev0();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    if (!positioned) {
+      position();
+      positioned = true;
+    }
+
+    if (count >= options.getLimit() || !isValid() || options.isPastEnd(key())) {
+      close();
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public Entry<byte[], byte[]> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    Entry<byte[], byte[]> entry = Maps.immutableEntry(key(), value());
+    count++;
+    if (options.isReverse()) {
+      prev0();
+    } else {
+      next0();
+    }
+    return entry;
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      release();
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
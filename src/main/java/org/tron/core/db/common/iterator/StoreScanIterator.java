@@ -0,0 +1,86 @@
+package org.tron.core.db.common.iterator;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+import lombok.extern.slf4j.Slf4j;
+import org.iq80.leveldb.DBIterator;
+import org.tron.common.storage.ScanOptions;
+
+/**
+ * Range scan over a LevelDB store. The leveldbjni iterator keeps the current entry as its next
+ * one, so peekNext is the key under the cursor and prev moves the cursor one entry back.
+ */
+@Slf4j
+public final class StoreScanIterator extends ScanIterator {
+
+  private final DBIterator dbIterator;
+  private Entry<byte[], byte[]> current;
+
+  public StoreScanIterator(DBIterator dbIterator, ScanOptions options) {
+    super(options);
+    this.dbIterator = dbIterator;
+  }
+
+  private void load() {
+    current = dbIterator.hasNext() ? dbIterator.peekNext() : null;
+  }
+
+  @Override
+  protected void seekToFirst() {
+    dbIterator.seekToFirst();
+    load();
+  }
+
+  @Override
+  protected void seekToLast() {
+    dbIterator.seekToLast();
+    load();
+  }
+
+  @Override
+  protected void seek(byte[] key) {
+    dbIterator.seek(key);
+    load();
+  }
+
+  @Override
+  protected boolean isValid() {
+    return current != null;
+  }
+
+  @Override
+  protected byte[] key() {
+    return current.getKey();
+  }
+
+  @Override
+  protected byte[] value() {
+    return current.getValue();
+  }
+
+  @Override
+  protected void next0() {
+    dbIterator.next();
+    load();
+  }
+
+  @Override
+  protected void prev0() {
+    if (dbIterator.hasPrev()) {
+      dbIterator.prev();
+      load();
+    } else {
+      current = null;
+    }
+  }
+
+  @Override
+  protected void release() {
+    current = null;
+    try {
+      dbIterator.close();
+    } catch (IOException e) {
+      logger.debug(e.getMessage(), e);
+    }
+  }
+}
@@ -1,14 +1,18 @@
 package org.tron.core.net.message;
 
-import com.google.protobuf.InvalidProtocolBufferException;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.exception.BadItemException;
 import org.tron.protos.Protocol.Block;
 
 public class BlockMessage extends TronMessage {
 
-  private Block block;
+  /**
+   * the parsed block, shared with whoever handles the message so its id, bytes and transactions
+   * are computed once.
+   */
+  private BlockCapsule block;
 
   public BlockMessage(byte[] packed) {
     super(packed);
@@ -16,14 +20,13 @@ public class BlockMessage extends TronMessage {
   }
 
   public BlockMessage(Block block) {
-    this.block = block;
-    unpacked = true;
-    this.type = MessageTypes.BLOCK.asByte();
+    this(new BlockCapsule(block));
   }
 
   public BlockMessage(BlockCapsule block) {
+    this.block = block;
     data = block.getData();
-    unpacked = false;
+    unpacked = true;
     this.type = MessageTypes.BLOCK.asByte();
   }
 
@@ -67,12 +70,13 @@ public class BlockMessage extends TronMessage {
   }
 
   public Block getBlock() {
-    unPack();
-    return block;
+    BlockCapsule capsule = getBlockCapsule();
+    return capsule == null ? null : capsule.getInstance();
   }
 
   public BlockCapsule getBlockCapsule() {
-    return new BlockCapsule(getBlock());
+    unPack();
+    return block;
   }
 
   private synchronized void unPack() {
@@ -81,16 +85,16 @@ public class BlockMessage extends TronMessage {
     }
 
     try {
-      this.block = Block.parseFrom(data);
-    } catch (InvalidProtocolBufferException e) {
-      logger.debug(e.getMessage());
+      this.block = new BlockCapsule(data);
+    } catch (BadItemException e) {
+      logger.debug(e.getMessage(), e);
     }
 
     unpacked = true;
   }
 
   private void pack() {
-    this.data = this.block.toByteArray();
+    this.data = this.block.getData();
   }
 
 
@@ -1,6 +1,8 @@
 package org.tron.core.net.message;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.protos.Protocol.Transaction;
 
@@ -52,8 +54,11 @@ public class TransactionMessage extends TronMessage {
     }
 
     try {
-      this.trx = Transaction.parseFrom(data);
-    } catch (InvalidProtocolBufferException e) {
+      // a wrapped array counts as immutable, so the bytes fields share data instead of copying
+      CodedInputStream input = UnsafeByteOperations.unsafeWrap(data).newCodedInput();
+      input.enableAliasing(true);
+      this.trx = Transaction.parseFrom(input);
+    } catch (IOException e) {
       logger.debug(e.getMessage());
     }
 
@@ -1,6 +1,5 @@
 package org.tron.core.net.message;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.overlay.message.MessageFactory;
 import org.tron.core.exception.P2pException;
 
@@ -10,21 +9,19 @@ import org.tron.core.exception.P2pException;
 public class TronMessageFactory extends MessageFactory {
 
   @Override
-  public TronMessage create(byte[] data) throws Exception{
+  public TronMessage create(byte type, byte[] packed) throws Exception{
     try {
-      byte type = data[0];
-      byte[] rawData = ArrayUtils.subarray(data, 1, data.length);
-      return create(type, rawData);
+      return createMessage(type, packed);
     } catch (Exception e) {
       if (e instanceof P2pException){
         throw e;
       }else {
-        throw new P2pException(P2pException.TypeEnum.PARSE_MESSAGE_FAILED, "type=" + data[0] + ", len=" + data.length);
+        throw new P2pException(P2pException.TypeEnum.PARSE_MESSAGE_FAILED, "type=" + type + ", len=" + (packed.length + 1));
       }
     }
   }
 
-  private TronMessage create(byte type, byte[] packed) throws Exception{
+  private TronMessage createMessage(byte type, byte[] packed) throws Exception{
     MessageTypes receivedTypes = MessageTypes.fromByte(type);
     if (receivedTypes == null){
       throw new RuntimeException(MessageFactory.ERR_NO_SUCH_MSG +  ", type=" + type);
@@ -1,13 +1,16 @@
 package org.tron.core.net.node;
 
+import java.util.Collection;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import org.tron.common.overlay.message.Message;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.db.CapsuleCache;
 import org.tron.core.exception.BadBlockException;
 import org.tron.core.exception.BadTransactionException;
 import org.tron.core.exception.StoreException;
@@ -47,4 +50,8 @@ public interface NodeDelegate {
 
   boolean canChainRevoke(long num);
 
+  void linkCheckpoints(Collection<BlockCapsule> received);
+
+  Map<String, CapsuleCache<?>> getCapsuleCaches();
+
 }
@@ -2,10 +2,13 @@ package org.tron.core.net.node;
 
 import com.google.common.primitives.Longs;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.overlay.message.Message;
@@ -14,6 +17,7 @@ import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.config.Parameter.NodeConstant;
+import org.tron.core.db.CapsuleCache;
 import org.tron.core.db.Manager;
 import org.tron.core.exception.BadBlockException;
 import org.tron.core.exception.BadItemException;
@@ -305,4 +309,19 @@ public class NodeDelegateImpl implements NodeDelegate {
   public boolean canChainRevoke(long num) {
     return num >= dbManager.getSyncBeginNumber();
   }
+
+  @Override
+  public void linkCheckpoints(Collection<BlockCapsule> received) {
+    dbManager.linkCheckpoints(received);
+  }
+
+  @Override
+  public Map<String, CapsuleCache<?>> getCapsuleCaches() {
+    Map<String, CapsuleCache<?>> caches = new LinkedHashMap<>();
+    caches.put("account", dbManager.getAccountStore().getCapsuleCache());
+    caches.put("witness", dbManager.getWitnessStore().getCapsuleCache());
+    caches.put("asset-issue", dbManager.getAssetIssueStore().getCapsuleCache());
+    caches.values().removeIf(cache -> cache == null);
+    return caches;
+  }
 }
@@ -44,6 +44,7 @@ import org.tron.common.utils.Sha256Hash;
 import org.tron.common.utils.Time;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.utils.VerifiedSignatureCache;
 import org.tron.core.config.Parameter.ChainConstant;
 import org.tron.core.config.Parameter.NetConstants;
 import org.tron.core.config.Parameter.NodeConstant;
@@ -63,6 +64,8 @@ import org.tron.core.net.message.MessageTypes;
 import org.tron.core.net.message.SyncBlockChainMessage;
 import org.tron.core.net.message.TransactionMessage;
 import org.tron.core.net.message.TronMessage;
+import org.tron.core.net.peer.MessageDispatcher;
+import org.tron.core.net.peer.MessageDispatcher.Lane;
 import org.tron.core.net.peer.PeerConnection;
 import org.tron.core.net.peer.PeerConnectionDelegate;
 import org.tron.protos.Protocol.Inventory.InventoryType;
@@ -74,6 +77,9 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
   @Autowired
   private SyncPool pool;
 
+  @Autowired
+  private MessageDispatcher dispatcher;
+
   Cache<Sha256Hash, TransactionMessage> TrxCache = CacheBuilder.newBuilder()
       .maximumSize(10000).expireAfterWrite(600, TimeUnit.SECONDS)
       .recordStats().build();
@@ -454,6 +460,10 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
         //need lock here
         blockJustReceived.clear();
       }
+      // the fetched blocks are linked back from the checkpoints before any of them is executed
+      del.linkCheckpoints(blockWaitToProc.stream()
+          .map(BlockMessage::getBlockCapsule)
+          .collect(Collectors.toList()));
 
       isBlockProc[0] = false;
       Set<BlockMessage> pool = new HashSet<>();
@@ -506,7 +516,9 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
             + "blockWaitToProc: %d\n"
             + "blockJustReceived: %d\n"
             + "syncBlockIdWeRequested: %d\n"
-            + "badAdvObj: %d\n",
+            + "badAdvObj: %d\n"
+            + "msgQueued: block %d, trx %d, inventory %d, sync %d\n"
+            + "readsPaused: %d\n",
         del.getHeadBlockId().getNum(),
         advObjToSpread.size(),
         advObjToFetch.size(),
@@ -515,8 +527,21 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
         blockWaitToProc.size(),
         blockJustReceived.size(),
         syncBlockIdWeRequested.size(),
-        badAdvObj.size()
+        badAdvObj.size(),
+        dispatcher.getQueueDepth(Lane.BLOCK),
+        dispatcher.getQueueDepth(Lane.TRANSACTION),
+        dispatcher.getQueueDepth(Lane.INVENTORY),
+        dispatcher.getQueueDepth(Lane.SYNC),
+        dispatcher.getPausedReadCount()
     ));
+    del.getCapsuleCaches().forEach((store, cache) -> sb.append(String.format(
+        "capsuleCache %s: hits %d, misses %d, evictions %d, entries %d\n",
+        store, cache.getHitCount(), cache.getMissCount(), cache.getEvictionCount(),
+        cache.size())));
+    VerifiedSignatureCache signatures = VerifiedSignatureCache.getInstance();
+    sb.append(String.format("signatureCache: hits %d, misses %d, hit rate %.3f, entries %d\n",
+        signatures.getHitCount(), signatures.getMissCount(), signatures.getHitRate(),
+        signatures.size()));
 
     logger.info(sb.toString());
   }
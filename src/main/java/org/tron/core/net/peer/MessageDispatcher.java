@@ -0,0 +1,219 @@
+package org.tron.core.net.peer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.Channel;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.tron.core.config.args.Args;
+import org.tron.core.net.message.MessageTypes;
+
+/**
+ * Hands the messages read from peers to worker pools, so that applying a block doesn't hold the
+ * netty event loop of every peer sharing it.
+ *
+ * <p>Each kind of message has its own lane with a fixed number of threads. The messages of a peer
+ * are handled one at a time and in the order received within a lane. When a peer has
+ * node.maxPeerMessageQueue messages waiting, its channel stops reading until half of them are
+ * handled.
+ */
+@Slf4j
+@Component
+public class MessageDispatcher {
+
+  public enum Lane {
+    BLOCK(1),
+    TRANSACTION(2),
+    INVENTORY(2),
+    SYNC(1);
+
+    private final int threads;
+
+    Lane(int threads) {
+      this.threads = threads;
+    }
+
+    public static Lane of(MessageTypes type) {
+      switch (type) {
+        case BLOCK:
+          return BLOCK;
+        case TRX:
+          return TRANSACTION;
+        case INVENTORY:
+        case BLOCK_INVENTORY:
+        case FETCH_INV_DATA:
+          return INVENTORY;
+        case SYNC_BLOCK_CHAIN:
+        case BLOCK_CHAIN_INVENTORY:
+          return SYNC;
+        default:
+          throw new IllegalArgumentException("No lane for message " + type);
+      }
+    }
+  }
+
+  // messages of a peer a lane handles before letting the other peers go
+  private static final int BATCH = 16;
+
+  private final Map<Lane, ExecutorService> pools = new EnumMap<>(Lane.class);
+  private final Map<Lane, AtomicInteger> depths = new EnumMap<>(Lane.class);
+  private final Map<Lane, LongAdder> handled = new EnumMap<>(Lane.class);
+  private final LongAdder pausedReads = new LongAdder();
+  private final int maxPeerQueue;
+
+  public MessageDispatcher() {
+    this(Args.getInstance().getMaxPeerMessageQueue());
+  }
+
+  MessageDispatcher(int maxPeerQueue) {
+    this.maxPeerQueue = maxPeerQueue;
+    for (Lane lane : Lane.values()) {
+      pools.put(lane, Executors.newFixedThreadPool(lane.threads, new ThreadFactoryBuilder()
+          .setNameFormat("msg-" + lane.name().toLowerCase() + "-%d").setDaemon(true).build()));
+      depths.put(lane, new AtomicInteger());
+      handled.put(lane, new LongAdder());
+    }
+  }
+
+  /**
+   * queue of the messages read from channel.
+   */
+  public PeerQueue newPeerQueue(Channel channel) {
+    return new PeerQueue(channel);
+  }
+
+  /**
+   * messages waiting in lane, over all peers.
+   */
+  public int getQueueDepth(Lane lane) {
+    return depths.get(lane).get();
+  }
+
+  /**
+   * messages handled by lane so far.
+   */
+  public long getHandledCount(Lane lane) {
+    return handled.get(lane).sum();
+  }
+
+  /**
+   * times a peer stopped being read because its queue was full.
+   */
+  public long getPausedReadCount() {
+    return pausedReads.sum();
+  }
+
+  @PreDestroy
+  public void close() {
+    pools.values().forEach(ExecutorService::shutdownNow);
+  }
+
+  public class PeerQueue {
+
+    private final Channel channel;
+    private final Map<Lane, SerialLane> lanes = new EnumMap<>(Lane.class);
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    private PeerQueue(Channel channel) {
+      this.channel = channel;
+      for (Lane lane : Lane.values()) {
+        lanes.put(lane, new SerialLane(lane));
+      }
+    }
+
+    /**
+     * run handler on the lane of type after the messages of this peer already in it.
+     */
+    public void dispatch(MessageTypes type, Runnable handler) {
+      Lane lane = Lane.of(type);
+      depths.get(lane).incrementAndGet();
+      if (pending.incrementAndGet() >= maxPeerQueue && paused.compareAndSet(false, true)) {
+        channel.config().setAutoRead(false);
+        pausedReads.increment();
+        logger.debug("stop reading from {}, {} messages waiting", channel.remoteAddress(),
+            pending.get());
+        // the queue may have drained before the read was stopped
+        resumeIfDrained();
+      }
+      lanes.get(lane).submit(handler);
+    }
+
+    /**
+     * messages of this peer waiting or being handled.
+     */
+    public int getPending() {
+      return pending.get();
+    }
+
+    private void done(Lane lane) {
+      depths.get(lane).decrementAndGet();
+      handled.get(lane).increment();
+      pending.decrementAndGet();
+      resumeIfDrained();
+    }
+
+    private void resumeIfDrained() {
+      if (pending.get() <= maxPeerQueue / 2 && paused.compareAndSet(true, false)) {
+        channel.config().setAutoRead(true);
+      }
+    }
+
+    private class SerialLane implements Runnable {
+
+      private final Lane lane;
+      private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+      private final AtomicBoolean scheduled = new AtomicBoolean();
+
+      private SerialLane(Lane lane) {
+        this.lane = lane;
+      }
+
+      private void submit(Runnable task) {
+        tasks.add(task);
+        schedule();
+      }
+
+      private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+          try {
+            pools.get(lane).execute(this);
+          } catch (RejectedExecutionException e) {
+            // shutting down
+            scheduled.set(false);
+          }
+        }
+      }
+
+      @Override
+      public void run() {
+        Runnable task;
+        for (int i = 0; i < BATCH && (task = tasks.poll()) != null; i++) {
+          try {
+            if (channel.isActive()) {
+              task.run();
+            }
+          } catch (Throwable t) {
+            logger.error("handle message from {} failed", channel.remoteAddress(), t);
+          } finally {
+            done(lane);
+          }
+        }
+        scheduled.set(false);
+        if (!tasks.isEmpty()) {
+          schedule();
+        }
+      }
+    }
+  }
+}
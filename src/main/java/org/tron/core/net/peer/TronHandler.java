@@ -2,14 +2,13 @@ package org.tron.core.net.peer;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.tron.common.overlay.server.Channel;
 import org.tron.common.overlay.server.MessageQueue;
 import org.tron.core.net.message.TronMessage;
-import org.tron.protos.Protocol.Block;
+import org.tron.core.net.peer.MessageDispatcher.PeerQueue;
 
 @Component
 @Scope("prototype")
@@ -21,15 +20,31 @@ public class TronHandler extends SimpleChannelInboundHandler<TronMessage> {
 
   public PeerConnectionDelegate peerDel;
 
+  @Autowired
+  private MessageDispatcher dispatcher;
+
+  private PeerQueue peerQueue;
+
   public void setPeerDel(PeerConnectionDelegate peerDel) {
     this.peerDel = peerDel;
   }
 
   @Override
-  public void channelRead0(final ChannelHandlerContext ctx, TronMessage msg) throws InterruptedException {
+  public void handlerAdded(ChannelHandlerContext ctx) {
+    peerQueue = dispatcher.newPeerQueue(ctx.channel());
+  }
+
+  @Override
+  public void channelRead0(final ChannelHandlerContext ctx, TronMessage msg) {
     msgQueue.receivedMessage(msg);
-    //handle message
-    peerDel.onMessage(peer, msg);
+    //handle message off the event loop
+    peerQueue.dispatch(msg.getType(), () -> {
+      try {
+        peerDel.onMessage(peer, msg);
+      } catch (Exception e) {
+        peer.processException(e);
+      }
+    });
   }
 
   @Override
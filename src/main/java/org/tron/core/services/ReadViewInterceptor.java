@@ -0,0 +1,48 @@
+package org.tron.core.services;
+
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCall.Listener;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import java.util.Set;
+import org.tron.core.db.Manager;
+import org.tron.core.db.ReadView;
+
+/**
+ * Runs the query calls within a read view of the head block, so they see whole blocks and do not
+ * wait for the block being applied. The calls which submit transactions are left out, they must
+ * validate against the pending state.
+ */
+public class ReadViewInterceptor implements ServerInterceptor {
+
+  private final Manager dbManager;
+  private final Set<String> writeMethods;
+
+  public ReadViewInterceptor(Manager dbManager, Set<String> writeMethods) {
+    this.dbManager = dbManager;
+    this.writeMethods = writeMethods;
+  }
+
+  @Override
+  public <Q, R> Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+      ServerCallHandler<Q, R> next) {
+    Listener<Q> listener = next.startCall(call, headers);
+    if (writeMethods.contains(call.getMethodDescriptor().getFullMethodName())) {
+      return listener;
+    }
+
+    return new SimpleForwardingServerCallListener<Q>(listener) {
+      @Override
+      public void onHalfClose() {
+        ReadView view = dbManager.openReadView();
+        try {
+          super.onHalfClose();
+        } finally {
+          view.close();
+        }
+      }
+    };
+  }
+}
@@ -1,15 +1,19 @@
 package org.tron.core.services;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.ByteString;
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.NettyServerBuilder;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -29,11 +33,13 @@ import org.tron.api.GrpcAPI.NumberMessage;
 import org.tron.api.GrpcAPI.TimeMessage;
 import org.tron.api.GrpcAPI.TransactionList;
 import org.tron.api.GrpcAPI.WitnessList;
+import org.tron.api.WalletGrpc;
 import org.tron.api.WalletGrpc.WalletImplBase;
 import org.tron.api.WalletSolidityGrpc.WalletSolidityImplBase;
 import org.tron.common.application.Service;
 import org.tron.common.overlay.discover.NodeHandler;
 import org.tron.common.overlay.discover.NodeManager;
+import org.tron.common.overlay.server.NettyTransport;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.StringUtil;
 import org.tron.core.Wallet;
@@ -75,6 +81,8 @@ public class RpcApiService implements Service {
   private WalletSolidity walletSolidity;
   @Autowired
   private Wallet wallet;
+  @Autowired
+  private NettyTransport transport;
 
   private static final long BLOCK_LIMIT_NUM = 100;
   private static final long TRANSACTION_LIMIT_NUM = 1000;
@@ -90,12 +98,22 @@ public class RpcApiService implements Service {
   @Override
   public void start() {
     try {
-      ServerBuilder serverBuilder = ServerBuilder.forPort(port)
-          .addService(new DatabaseApi());
+      ReadViewInterceptor readView = new ReadViewInterceptor(dbManager,
+          ImmutableSet.of(WalletGrpc.getBroadcastTransactionMethod().getFullMethodName()));
+      NettyServerBuilder serverBuilder = NettyServerBuilder.forPort(port)
+          .addService(ServerInterceptors.intercept(new DatabaseApi(), readView));
+      if (Args.getInstance().isRpcShareEventLoops()) {
+        serverBuilder = serverBuilder
+            .bossEventLoopGroup(transport.getBossGroup())
+            .workerEventLoopGroup(transport.getWorkerGroup())
+            .channelType(transport.getServerChannelClass());
+      }
       if (Args.getInstance().isSolidityNode()) {
-        serverBuilder = serverBuilder.addService(new WalletSolidityApi());
+        serverBuilder = serverBuilder
+            .addService(ServerInterceptors.intercept(new WalletSolidityApi(), readView));
       } else {
-        serverBuilder = serverBuilder.addService(new WalletApi());
+        serverBuilder = serverBuilder
+            .addService(ServerInterceptors.intercept(new WalletApi(), readView));
       }
       apiServer = serverBuilder.build().start();
     } catch (IOException e) {
@@ -679,9 +697,24 @@ public class RpcApiService implements Service {
     }
   }
 
+  /**
+   * stop the grpc server before the transport closes. Shared event loops are left to the
+   * transport, they keep serving the peer connections.
+   */
   @Override
-  public void stop() {
+  @PreDestroy
+  public synchronized void stop() {
+    if (apiServer == null) {
+      return;
+    }
 
+    apiServer.shutdown();
+    try {
+      apiServer.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    apiServer = null;
   }
 
   /**
@@ -240,7 +240,7 @@ public class WitnessService implements Service {
 
   private void broadcastBlock(BlockCapsule block) {
     try {
-      tronApp.getP2pNode().broadcast(new BlockMessage(block.getData()));
+      tronApp.getP2pNode().broadcast(new BlockMessage(block));
     } catch (Exception ex) {
       throw new RuntimeException("BroadcastBlock error");
     }
@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
+import org.tron.common.storage.ScanOptions;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.StringUtil;
 import org.tron.common.utils.Time;
@@ -21,6 +22,7 @@ import org.tron.core.config.Parameter.ChainConstant;
 import org.tron.core.db.AccountStore;
 import org.tron.core.db.Manager;
 import org.tron.core.db.WitnessStore;
+import org.tron.core.db.common.iterator.AccountIterator;
 import org.tron.core.exception.HeaderNotFound;
 
 @Slf4j
@@ -234,38 +236,39 @@ public class WitnessController {
   private Map<ByteString, Long> countVote(AccountStore accountStore) {
 
     final Map<ByteString, Long> countWitness = Maps.newHashMap();
-    final List<AccountCapsule> accountList = accountStore.getAllAccounts();
-    //logger.info("there is account List size is {}", accountList.size());
-    accountList.forEach(account -> {
+    try (AccountIterator accounts = accountStore.iterator(ScanOptions.forward())) {
+      accounts.forEachRemaining(entry -> {
+        AccountCapsule account = entry.getValue();
 //      logger.info("there is account ,account address is {}",
 //          account.createReadableString());
 
-      Optional<Long> sum = account.getVotesList().stream().map(vote -> vote.getVoteCount())
-          .reduce((a, b) -> a + b);
-      if (sum.isPresent()) {
-        if (sum.get() <= account.getShare()) {
-          long reward = Math.round(sum.get() * this.manager.getDynamicPropertiesStore()
-              .getVoteRewardRate());
-          account.setBalance(account.getBalance() + reward);
-          accountStore.put(account.createDbKey(), account);
-          account.getVotesList().forEach(vote -> {
-            //TODO validate witness //active_witness
-            ByteString voteAddress = vote.getVoteAddress();
-            long voteCount = vote.getVoteCount();
-            if (countWitness.containsKey(voteAddress)) {
-              countWitness.put(voteAddress, countWitness.get(voteAddress) + voteCount);
-            } else {
-              countWitness.put(voteAddress, voteCount);
-            }
-          });
-        } else {
-          logger.info(
-              "account" + account.createReadableString() + ",share[" + account.getShare()
-                  + "] > voteSum["
-                  + sum.get() + "]");
+        Optional<Long> sum = account.getVotesList().stream().map(vote -> vote.getVoteCount())
+            .reduce((a, b) -> a + b);
+        if (sum.isPresent()) {
+          if (sum.get() <= account.getShare()) {
+            long reward = Math.round(sum.get() * this.manager.getDynamicPropertiesStore()
+                .getVoteRewardRate());
+            account.setBalance(account.getBalance() + reward);
+            accountStore.put(account.createDbKey(), account);
+            account.getVotesList().forEach(vote -> {
+              //TODO validate witness //active_witness
+              ByteString voteAddress = vote.getVoteAddress();
+              long voteCount = vote.getVoteCount();
+              if (countWitness.containsKey(voteAddress)) {
+                countWitness.put(voteAddress, countWitness.get(voteAddress) + voteCount);
+              } else {
+                countWitness.put(voteAddress, voteCount);
+              }
+            });
+          } else {
+            logger.info(
+                "account" + account.createReadableString() + ",share[" + account.getShare()
+                    + "] > voteSum["
+                    + sum.get() + "]");
+          }
         }
-      }
-    });
+      });
+    }
     return countWitness;
   }
 
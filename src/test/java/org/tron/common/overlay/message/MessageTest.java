@@ -0,0 +1,43 @@
+package org.tron.common.overlay.message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.net.message.InventoryMessage;
+import org.tron.core.net.message.MessageTypes;
+import org.tron.protos.Protocol.Inventory.InventoryType;
+
+public class MessageTest {
+
+  @Test
+  public void testSendDataIsBuiltOnce() {
+    Message message = new InventoryMessage(
+        Collections.singletonList(Sha256Hash.ZERO_HASH), InventoryType.BLOCK);
+    long built = Message.getSendBufferCount();
+    long shared = Message.getSharedSendCount();
+
+    ByteBuf first = message.getSendData();
+    ByteBuf second = message.getSendData();
+    Assert.assertEquals(built + 1, Message.getSendBufferCount());
+    Assert.assertEquals(shared + 2, Message.getSharedSendCount());
+
+    Assert.assertTrue(first.isReadOnly());
+    // a single direct buffer is written by the channels without a copy
+    Assert.assertTrue(first.isDirect());
+    Assert.assertEquals(1, first.nioBufferCount());
+    Assert.assertEquals(MessageTypes.INVENTORY.asByte(), first.readByte());
+    byte[] payload = ByteBufUtil.getBytes(first);
+    Assert.assertArrayEquals(message.getData(), payload);
+
+    // a peer writing its duplicate moves neither the other's reader nor the shared buffer
+    Assert.assertEquals(message.getData().length + 1, second.readableBytes());
+    first.release();
+    second.release();
+    ByteBuf third = message.getSendData();
+    Assert.assertEquals(message.getData().length + 1, third.readableBytes());
+    third.release();
+  }
+}
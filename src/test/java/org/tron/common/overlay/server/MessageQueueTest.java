@@ -0,0 +1,64 @@
+package org.tron.common.overlay.server;
+
+import com.google.protobuf.ByteString;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.overlay.message.Message;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.net.message.BlockMessage;
+import org.tron.core.net.message.InventoryMessage;
+import org.tron.core.net.message.MessageTypes;
+import org.tron.core.net.message.TransactionMessage;
+import org.tron.protos.Protocol.Inventory.InventoryType;
+import org.tron.protos.Protocol.Transaction;
+
+public class MessageQueueTest {
+
+  @Test
+  public void testBlocksGoFirst() {
+    EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+    ChannelHandlerContext ctx = channel.pipeline().firstContext();
+    MessageQueue queue = new MessageQueue();
+    queue.activate(ctx);
+
+    Message transaction = new TransactionMessage(Transaction.getDefaultInstance());
+    Message block = new BlockMessage(
+        new BlockCapsule(1, Sha256Hash.ZERO_HASH, 0, ByteString.EMPTY));
+    queue.sendMessage(transaction);
+    queue.sendMessage(block);
+    // nothing is written before the event loop runs
+    Assert.assertNull(channel.readOutbound());
+
+    channel.runPendingTasks();
+    assertType(MessageTypes.BLOCK, channel.readOutbound());
+    assertType(MessageTypes.TRX, channel.readOutbound());
+    Assert.assertNull(channel.readOutbound());
+
+    queue.close();
+    queue.sendMessage(block);
+    channel.runPendingTasks();
+    Assert.assertNull(channel.readOutbound());
+  }
+
+  @Test
+  public void testIsUrgent() {
+    Assert.assertTrue(MessageQueue.isUrgent(new InventoryMessage(
+        Collections.singletonList(Sha256Hash.ZERO_HASH), InventoryType.BLOCK)));
+    Assert.assertFalse(MessageQueue.isUrgent(new InventoryMessage(
+        Collections.singletonList(Sha256Hash.ZERO_HASH), InventoryType.TRX)));
+    Assert.assertFalse(MessageQueue.isUrgent(
+        new TransactionMessage(Transaction.getDefaultInstance())));
+  }
+
+  private static void assertType(MessageTypes type, ByteBuf data) {
+    Assert.assertNotNull(data);
+    Assert.assertEquals(type, MessageTypes.fromByte(data.getByte(0)));
+    data.release();
+  }
+}
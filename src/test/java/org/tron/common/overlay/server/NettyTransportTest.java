@@ -0,0 +1,84 @@
+package org.tron.common.overlay.server;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class NettyTransportTest {
+
+  @Test
+  public void testNio() throws InterruptedException {
+    NettyTransport transport = new NettyTransport(false, 1);
+    Assert.assertFalse(transport.isEpoll());
+    Assert.assertEquals(NioServerSocketChannel.class, transport.getServerChannelClass());
+    try {
+      assertConnects(transport);
+    } finally {
+      transport.close();
+    }
+  }
+
+  @Test
+  public void testEpoll() throws InterruptedException {
+    Assume.assumeTrue(Epoll.isAvailable());
+    NettyTransport transport = new NettyTransport(true, 1);
+    Assert.assertEquals(EpollSocketChannel.class, transport.getSocketChannelClass());
+    try {
+      assertConnects(transport);
+    } finally {
+      transport.close();
+    }
+  }
+
+  /**
+   * a peer server and client on the event loops of transport exchange a message.
+   */
+  public static void assertConnects(NettyTransport transport) throws InterruptedException {
+    CountDownLatch received = new CountDownLatch(1);
+    Channel server = new ServerBootstrap()
+        .group(transport.getBossGroup(), transport.getWorkerGroup())
+        .channel(transport.getServerChannelClass())
+        .childHandler(new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(SocketChannel ch) {
+            NettyTransport.setAllocators(ch.config());
+            ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+              @Override
+              public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                ((ByteBuf) msg).release();
+                received.countDown();
+              }
+            });
+          }
+        })
+        .bind(0).sync().channel();
+
+    Channel client = new Bootstrap()
+        .group(transport.getWorkerGroup())
+        .channel(transport.getSocketChannelClass())
+        .handler(new ChannelInboundHandlerAdapter())
+        .connect(new InetSocketAddress("127.0.0.1",
+            ((InetSocketAddress) server.localAddress()).getPort()))
+        .sync().channel();
+    client.writeAndFlush(Unpooled.wrappedBuffer(new byte[]{1, 2, 3})).sync();
+
+    Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+    client.close().sync();
+    server.close().sync();
+  }
+}
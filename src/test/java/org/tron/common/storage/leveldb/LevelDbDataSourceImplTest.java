@@ -25,18 +25,25 @@ import static org.junit.Assert.assertNull;
 
 import com.google.common.collect.Sets;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.tron.common.storage.ScanOptions;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.common.iterator.DBIterator;
 
 @Slf4j
 public class LevelDbDataSourceImplTest {
@@ -264,4 +271,27 @@ public class LevelDbDataSourceImplTest {
     Assert.assertEquals("getValuesPrev2", 0, seekKeyLimitNext.size());
     dataSource.resetDb();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void scanTest() throws IOException {
+    LevelDbDataSourceImpl dataSource = new LevelDbDataSourceImpl(
+        Args.getInstance().getOutputDirectory(), "test_scan_key");
+    dataSource.initDB();
+    dataSource.resetDb();
+
+    putSomeKeyValue(dataSource);
+    List<String> values = new ArrayList<>();
+    try (DBIterator iterator = dataSource.iterator(ScanOptions.reverse()
+        .from("00000005ab".getBytes()).to(key2).prefix("0000000".getBytes()))) {
+      iterator.forEachRemaining(entry -> values.add(ByteArray.toStr(entry.getValue())));
+    }
+    Assert.assertEquals(Arrays.asList("50000", "40000", "30000"), values);
+
+    Assert.assertEquals(Arrays.asList("60000", "50000"), dataSource.getlatestValues(2).stream()
+        .map(ByteArray::toStr).collect(Collectors.toList()));
+    Assert.assertEquals(Arrays.asList("30000", "20000"),
+        dataSource.getValuesPrev(key3, 2).stream()
+            .map(ByteArray::toStr).collect(Collectors.toList()));
+    dataSource.resetDb();
+  }
+}
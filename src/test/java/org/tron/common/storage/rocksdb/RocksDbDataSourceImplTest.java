@@ -0,0 +1,218 @@
+package org.tron.common.storage.rocksdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.collect.Sets;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.storage.DbSourceFactory;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ScanOptions;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.config.args.Args;
+import org.tron.core.config.args.StorageProfile;
+import org.tron.core.db.common.iterator.DBIterator;
+
+@Slf4j
+public class RocksDbDataSourceImplTest {
+
+  private static final String dbPath = "output-rocksDb-test";
+  private RocksDbDataSourceImpl dataSource;
+
+  @Before
+  public void initDb() {
+    Args.setParam(new String[]{"--output-directory", dbPath},
+        "config-junit.conf");
+    dataSource = new RocksDbDataSourceImpl(Args.getInstance().getOutputDirectory(),
+        "test_rocksDb");
+    dataSource.initDB();
+    dataSource.resetDb();
+  }
+
+  /**
+   * Release resources.
+   */
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    if (FileUtil.deleteDir(new File(dbPath))) {
+      logger.info("Release resources successful.");
+    } else {
+      logger.info("Release resources failure.");
+    }
+  }
+
+  private void putSomeKeyValue() {
+    for (int i = 1; i <= 6; i++) {
+      dataSource.putData(("0000000" + i + "aa").getBytes(), (i + "0000").getBytes());
+    }
+  }
+
+  private Set<String> toStrings(Set<byte[]> values) {
+    return values.stream().map(ByteArray::toStr).collect(Collectors.toSet());
+  }
+
+  @Test
+  public void testPutGetDelete() {
+    byte[] key = "2c0937534dd1b3832d05d865e8e6f2bf".getBytes();
+    dataSource.putData(key, "50000".getBytes());
+    assertEquals("50000", ByteArray.toStr(dataSource.getData(key)));
+    assertEquals(1, dataSource.allKeys().size());
+
+    dataSource.deleteData(key);
+    assertNull(dataSource.getData(key));
+    assertEquals(0, dataSource.getTotal());
+  }
+
+  @Test
+  public void testUpdateByBatch() {
+    byte[] key1 = "431cd8c8d5abe5cb5944b0889b324850".getBytes();
+    byte[] key2 = "431cd8c8d5abe5cb5944b0889b324851".getBytes();
+    dataSource.putData(key2, "10000".getBytes());
+
+    Map<byte[], byte[]> rows = new HashMap<>();
+    rows.put(key1, "50000".getBytes());
+    rows.put(key2, null);
+    dataSource.updateByBatch(rows);
+
+    assertEquals("50000", ByteArray.toStr(dataSource.getData(key1)));
+    assertNull(dataSource.getData(key2));
+    assertEquals(1, dataSource.getTotal());
+  }
+
+  @Test
+  public void testColumnFamiliesAreIsolated() {
+    RocksDbDataSourceImpl other = new RocksDbDataSourceImpl(
+        Args.getInstance().getOutputDirectory(), "test_rocksDb_other");
+    other.initDB();
+    other.resetDb();
+
+    byte[] key = "isolated".getBytes();
+    dataSource.putData(key, "1".getBytes());
+    assertNull(other.getData(key));
+    other.closeDB();
+
+    assertEquals("1", ByteArray.toStr(dataSource.getData(key)));
+  }
+
+  @Test
+  public void testReopen() {
+    byte[] key = "reopen".getBytes();
+    dataSource.putData(key, "1".getBytes());
+    dataSource.closeDB();
+    assertFalse(dataSource.isAlive());
+
+    dataSource.initDB();
+    assertEquals("1", ByteArray.toStr(dataSource.getData(key)));
+  }
+
+  @Test
+  public void testReset() {
+    putSomeKeyValue();
+    dataSource.resetDb();
+    assertEquals(0, dataSource.allKeys().size());
+  }
+
+  @Test
+  public void getValuesNext() {
+    putSomeKeyValue();
+    Set<byte[]> values = dataSource.getValuesNext("0000000300".getBytes(), 2);
+    assertEquals(Sets.newHashSet("30000", "40000"), toStrings(values));
+  }
+
+  @Test
+  public void getValuesPrev() {
+    putSomeKeyValue();
+    Set<byte[]> values = dataSource.getValuesPrev("0000000300".getBytes(), 2);
+    assertEquals(Sets.newHashSet("10000", "20000"), toStrings(values));
+
+    values = dataSource.getValuesPrev("0000000300".getBytes(), 10);
+    assertEquals(Sets.newHashSet("10000", "20000"), toStrings(values));
+
+    values = dataSource.getValuesPrev("0000000100".getBytes(), 2);
+    assertEquals(0, values.size());
+
+    values = dataSource.getValuesPrev("0000000900".getBytes(), 2);
+    assertEquals(Sets.newHashSet("50000", "60000"), toStrings(values));
+  }
+
+  @Test
+  public void getLatestValues() {
+    putSomeKeyValue();
+    Set<byte[]> values = dataSource.getlatestValues(2);
+    assertEquals(Sets.newHashSet("50000", "60000"), toStrings(values));
+  }
+
+  @Test
+  public void testIterator() throws Exception {
+    putSomeKeyValue();
+    int count = 0;
+    byte[] previous = null;
+    try (DBIterator iterator = dataSource.iterator()) {
+      while (iterator.hasNext()) {
+        Entry<byte[], byte[]> entry = iterator.next();
+        if (previous != null) {
+          Assert.assertTrue(ByteArray.toStr(previous).compareTo(ByteArray.toStr(entry.getKey())) < 0);
+        }
+        previous = entry.getKey();
+        count++;
+      }
+    }
+    assertEquals(6, count);
+  }
+
+  private List<String> keys(DBIterator iterator) {
+    List<String> keys = new ArrayList<>();
+    iterator.forEachRemaining(entry -> keys.add(ByteArray.toStr(entry.getKey())));
+    return keys;
+  }
+
+  @Test
+  public void testScan() {
+    putSomeKeyValue();
+    dataSource.putData("00000010bb".getBytes(), "100000".getBytes());
+
+    assertEquals(Arrays.asList("00000003aa", "00000004aa"), keys(dataSource.iterator(
+        ScanOptions.forward().from("00000003".getBytes()).to("00000005aa".getBytes()))));
+    assertEquals(Arrays.asList("00000006aa", "00000005aa", "00000004aa"), keys(
+        dataSource.iterator(ScanOptions.reverse().from("00000006ab".getBytes()).limit(3))));
+    assertEquals(Arrays.asList("00000005aa", "00000004aa"), keys(dataSource.iterator(
+        ScanOptions.reverse().prefix("0000000".getBytes()).from("00000005aa".getBytes())
+            .to("00000003aa".getBytes()))));
+    assertEquals(Arrays.asList("00000010bb"),
+        keys(dataSource.iterator(ScanOptions.forward().prefix("0000001".getBytes()))));
+    assertEquals(Arrays.asList("00000006aa", "00000005aa"), keys(dataSource.iterator(
+        ScanOptions.reverse().prefix("0000000".getBytes()).limit(2))));
+    assertEquals(0, keys(dataSource.iterator(ScanOptions.forward().limit(0))).size());
+  }
+
+  @Test
+  public void testFactoryUsesProfileEngine() {
+    StorageProfile profile = Args.getInstance().getStorage().getProfile("test_factory");
+    Assert.assertEquals(StorageProfile.ENGINE_LEVELDB, profile.getEngine());
+
+    StorageProfile rocksDb = new StorageProfile("test_factory", 0, 10, 4096, 4 * 1024 * 1024,
+        false, 64);
+    rocksDb.setEngine(StorageProfile.ENGINE_ROCKSDB);
+    Args.getInstance().getStorage().putProfile(rocksDb);
+
+    DbSourceInter<byte[]> source = DbSourceFactory.create(
+        Args.getInstance().getOutputDirectory(), "test_factory");
+    Assert.assertTrue(source instanceof RocksDbDataSourceImpl);
+  }
+}
@@ -0,0 +1,56 @@
+package org.tron.core.capsule;
+
+import static org.tron.core.capsule.TransferFixtures.newTransfer;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.Sha256Hash;
+
+public class BlockBuilderTest {
+
+  private static final Sha256Hash PARENT = Sha256Hash.of("parent".getBytes());
+
+  @Test
+  public void testSealMatchesBlockCapsule() throws Exception {
+    ECKey witness = new ECKey();
+    ByteString address = ByteString.copyFrom(witness.getAddress());
+    BlockBuilder builder = new BlockBuilder(7, PARENT, 3000, address);
+    BlockCapsule expected = new BlockCapsule(7, PARENT, 3000, address);
+    for (int i = 0; i < 5; i++) {
+      TransactionCapsule transaction = newTransfer(new ECKey(), new ECKey(), i);
+      builder.addTransaction(transaction);
+      expected.addTransaction(transaction);
+    }
+    expected.setMerkleRoot();
+
+    BlockCapsule sealed = builder.seal(witness.getPrivKeyBytes());
+    Assert.assertEquals(5, builder.getTransactionCount());
+    Assert.assertEquals(expected.getMerkleRoot(), sealed.getMerkleRoot());
+    Assert.assertEquals(expected.getInstance().getTransactionsList(),
+        sealed.getInstance().getTransactionsList());
+    Assert.assertEquals(expected.getInstance().getBlockHeader().getRawData(),
+        sealed.getInstance().getBlockHeader().getRawData());
+    Assert.assertTrue(sealed.validateSignature());
+  }
+
+  @Test
+  public void testTransactionsSize() {
+    ECKey witness = new ECKey();
+    BlockBuilder builder =
+        new BlockBuilder(1, PARENT, 0, ByteString.copyFrom(witness.getAddress()));
+    BlockCapsule empty = builder.seal(witness.getPrivKeyBytes());
+    Assert.assertEquals(0, builder.getTransactionsSize());
+
+    for (int i = 0; i < 10; i++) {
+      builder.addTransaction(newTransfer(new ECKey(), new ECKey(), i));
+    }
+    BlockCapsule sealed = builder.seal(witness.getPrivKeyBytes());
+    long headerDelta = sealed.getInstance().getBlockHeader().getSerializedSize()
+        - empty.getInstance().getBlockHeader().getSerializedSize();
+    Assert.assertEquals(sealed.getInstance().getSerializedSize()
+            - empty.getInstance().getSerializedSize() - headerDelta,
+        builder.getTransactionsSize());
+  }
+}
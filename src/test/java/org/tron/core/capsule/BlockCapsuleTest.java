@@ -1,20 +1,29 @@
 package org.tron.core.capsule;
 
+import static org.tron.core.capsule.TransferFixtures.newTransfer;
+import static org.tron.core.capsule.TransferFixtures.sign;
+
 import com.google.protobuf.ByteString;
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.tron.common.crypto.ECKey;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Constant;
 import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.config.args.Args;
 import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ValidateSignatureException;
+import org.tron.core.net.message.BlockMessage;
 import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
 import org.tron.protos.Protocol.Transaction.Contract.ContractType;
 
 @Slf4j
@@ -70,6 +79,7 @@ public class BlockCapsuleTest {
     Assert.assertEquals(
         "53421c1f1bcbbba67a4184cc3dbc1a59f90af7e2b0644dcfc8dc738fe30deffc",
         blockCapsule0.getMerkleRoot().toString());
+    Assert.assertSame(blockCapsule0.calcMerkleRoot(), blockCapsule0.calcMerkleRoot());
 
     logger.info("Transaction[O] Merkle Root : {}", blockCapsule0.getMerkleRoot().toString());
   }
@@ -103,6 +113,78 @@ public class BlockCapsuleTest {
 
   }
 
+  @Test
+  public void testValidateTransactionSignatures() throws ValidateSignatureException {
+    BlockCapsule block = new BlockCapsule(2, Sha256Hash.ZERO_HASH, 1234,
+        ByteString.copyFrom("1234567".getBytes()));
+    for (int i = 0; i < 16; i++) {
+      ECKey owner = new ECKey();
+      block.addTransaction(sign(newTransfer(owner, new ECKey(), i), owner));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      block.validateTransactionSignatures(pool);
+      for (TransactionCapsule transaction : block.getTransactions()) {
+        Assert.assertTrue(transaction.validateSignature());
+      }
+
+      // signed by another key than the owner's
+      block.addTransaction(sign(newTransfer(new ECKey(), new ECKey(), 16), new ECKey()));
+      block.validateTransactionSignatures(pool);
+      Assert.fail("the signature of the last transaction is invalid");
+    } catch (ValidateSignatureException e) {
+      Assert.assertEquals("sig error", e.getMessage());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testCachedViews() throws BadItemException {
+    ECKey witness = new ECKey();
+    BlockCapsule block = new BlockCapsule(3, Sha256Hash.ZERO_HASH, 1234,
+        ByteString.copyFrom(witness.getAddress()));
+    ECKey owner = new ECKey();
+    block.addTransaction(sign(newTransfer(owner, new ECKey(), 1), owner));
+    Assert.assertSame(block.getTransactions(), block.getTransactions());
+    Assert.assertSame(block.getData(), block.getData());
+
+    // adding a transaction or signing replaces the block
+    block.addTransaction(sign(newTransfer(owner, new ECKey(), 2), owner));
+    Assert.assertEquals(2, block.getTransactions().size());
+    block.setMerkleRoot();
+    BlockId unsigned = block.getBlockId();
+    Assert.assertSame(unsigned, block.getBlockId());
+    block.sign(witness.getPrivKeyBytes());
+    Assert.assertNotEquals(unsigned, block.getBlockId());
+    Assert.assertArrayEquals(block.getInstance().toByteArray(), block.getData());
+    Assert.assertEquals(block.getBlockId(), new BlockCapsule(block.getData()).getBlockId());
+
+    // a message shares the capsule it was built from or parsed into
+    BlockMessage sent = new BlockMessage(block);
+    Assert.assertSame(block, sent.getBlockCapsule());
+    BlockMessage received = new BlockMessage(sent.getData());
+    Assert.assertSame(received.getBlockCapsule(), received.getBlockCapsule());
+    Assert.assertSame(received.getBlockId(), received.getMessageId());
+    Assert.assertEquals(block.getBlockId(), received.getBlockId());
+  }
+
+  @Test
+  public void testParsedSharesBytes() throws BadItemException {
+    ECKey witness = new ECKey();
+    BlockCapsule block = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 1234,
+        ByteString.copyFrom(witness.getAddress()));
+    block.sign(witness.getPrivKeyBytes());
+    byte[] bytes = block.getInstance().toByteArray();
+    ByteString signature = new BlockCapsule(bytes).getInstance().getBlockHeader()
+        .getWitnessSignature();
+
+    // the witness signature ends the encoding of a block without transactions
+    bytes[bytes.length - 1]++;
+    Assert.assertEquals(bytes[bytes.length - 1], signature.byteAt(signature.size() - 1));
+  }
+
   @Test
   public void testGetInsHash() {
     Assert.assertEquals(1,
@@ -0,0 +1,79 @@
+package org.tron.core.capsule;
+
+import static org.tron.core.capsule.TransferFixtures.newSignedTransfer;
+import static org.tron.core.capsule.TransferFixtures.newTransfer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.net.message.TransactionMessage;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
+
+public class TransactionCapsuleTest {
+
+  @Test
+  public void testHashesAreCached() {
+    TransactionCapsule transaction = newTransfer(new ECKey(), new ECKey(), 10);
+
+    Sha256Hash id = transaction.getTransactionId();
+    Assert.assertSame(id, transaction.getTransactionId());
+    Assert.assertSame(id, transaction.getRawHash());
+    Assert.assertSame(transaction.getHash(), transaction.getHash());
+    Assert.assertSame(transaction.getData(), transaction.getData());
+    Assert.assertEquals(
+        Sha256Hash.of(transaction.getInstance().getRawData().toByteArray()), id);
+    Assert.assertEquals(Sha256Hash.of(transaction.getInstance().toByteArray()),
+        transaction.getHash());
+  }
+
+  @Test
+  public void testMutationClearsCache() {
+    ECKey owner = new ECKey();
+    TransactionCapsule transaction = newTransfer(owner, new ECKey(), 10);
+    Sha256Hash id = transaction.getTransactionId();
+    Sha256Hash hash = transaction.getHash();
+    byte[] data = transaction.getData();
+
+    transaction.setExpiration(1000);
+    Assert.assertNotEquals(id, transaction.getTransactionId());
+    Assert.assertNotEquals(hash, transaction.getHash());
+    Assert.assertArrayEquals(transaction.getInstance().toByteArray(), transaction.getData());
+    Assert.assertNotSame(data, transaction.getData());
+
+    id = transaction.getTransactionId();
+    hash = transaction.getHash();
+    transaction.sign(owner.getPrivKeyBytes());
+    // the signature is not part of the id
+    Assert.assertEquals(id, transaction.getTransactionId());
+    Assert.assertNotEquals(hash, transaction.getHash());
+    Assert.assertEquals(Sha256Hash.of(transaction.getInstance().toByteArray()),
+        transaction.getHash());
+  }
+
+  @Test
+  public void testParsedKeepsBytes() throws Exception {
+    byte[] bytes = newTransfer(new ECKey(), new ECKey(), 10).getData();
+    TransactionCapsule parsed = new TransactionCapsule(bytes);
+
+    Assert.assertSame(bytes, parsed.getData());
+    Assert.assertEquals(Sha256Hash.of(bytes), parsed.getHash());
+    Assert.assertEquals(10, parsed.getInstance().getRawData().getContract(0).getParameter()
+        .unpack(TransferContract.class).getAmount());
+  }
+
+  @Test
+  public void testParsedSharesBytes() {
+    byte[] bytes = newSignedTransfer(new ECKey(), new ECKey(), 10).getData();
+    Transaction parsed = new TransactionCapsule(bytes).getInstance();
+    Transaction received = new TransactionMessage(bytes).getTransaction();
+
+    // the signature ends the encoding, a change of the array shows through both
+    bytes[bytes.length - 1]++;
+    byte last = bytes[bytes.length - 1];
+    Assert.assertEquals(last, parsed.getSignature(0).byteAt(parsed.getSignature(0).size() - 1));
+    Assert.assertEquals(last,
+        received.getSignature(0).byteAt(received.getSignature(0).size() - 1));
+  }
+}
@@ -0,0 +1,48 @@
+package org.tron.core.capsule;
+
+import com.google.protobuf.ByteString;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+/**
+ * Transfer transactions for the tests and benchmarks.
+ */
+public class TransferFixtures {
+
+  private TransferFixtures() {
+  }
+
+  /**
+   * an unsigned transfer of amount from owner to to.
+   */
+  public static TransactionCapsule newTransfer(ECKey owner, ECKey to, long amount) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setAmount(amount)
+        .setOwnerAddress(ByteString.copyFrom(owner.getAddress()))
+        .setToAddress(ByteString.copyFrom(to.getAddress()))
+        .build();
+    return new TransactionCapsule(contract, ContractType.TransferContract);
+  }
+
+  /**
+   * a transfer of amount from owner to to, signed by owner.
+   */
+  public static TransactionCapsule newSignedTransfer(ECKey owner, ECKey to, long amount) {
+    return sign(newTransfer(owner, to, amount), owner);
+  }
+
+  /**
+   * a copy of transaction with a signature of its raw data by signer added.
+   */
+  public static TransactionCapsule sign(TransactionCapsule transaction, ECKey signer) {
+    Transaction instance = transaction.getInstance();
+    ECDSASignature signature =
+        signer.sign(Sha256Hash.of(instance.getRawData().toByteArray()).getBytes());
+    return new TransactionCapsule(instance.toBuilder()
+        .addSignature(ByteString.copyFrom(signature.toByteArray())).build());
+  }
+}
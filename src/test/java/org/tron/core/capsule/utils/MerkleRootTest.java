@@ -0,0 +1,43 @@
+package org.tron.core.capsule.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+
+public class MerkleRootTest {
+
+  private static List<Sha256Hash> getHash(int hashNum) {
+    List<Sha256Hash> hashList = new ArrayList<>();
+    for (int i = 0; i < hashNum; i++) {
+      hashList.add(Sha256Hash.of(ByteArray.fromInt(i)));
+    }
+    return hashList;
+  }
+
+  @Test
+  public void testMatchesMerkleTree() {
+    for (int hashNum = 1; hashNum <= 70; hashNum++) {
+      List<Sha256Hash> hashList = getHash(hashNum);
+      Assert.assertEquals("hashNum " + hashNum,
+          new MerkleTree().createTree(hashList).getRoot().getHash(), MerkleRoot.of(hashList));
+    }
+  }
+
+  @Test
+  public void testParallelLevel() {
+    for (int hashNum : new int[]{2048, 2049, 5001}) {
+      List<Sha256Hash> hashList = getHash(hashNum);
+      Assert.assertEquals("hashNum " + hashNum,
+          new MerkleTree().createTree(hashList).getRoot().getHash(), MerkleRoot.of(hashList));
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    Assert.assertEquals(Sha256Hash.ZERO_HASH, MerkleRoot.of(Collections.emptyList()));
+  }
+}
@@ -0,0 +1,66 @@
+package org.tron.core.capsule.utils;
+
+import static org.tron.core.capsule.TransferFixtures.newTransfer;
+import static org.tron.core.capsule.TransferFixtures.sign;
+
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.exception.ValidateSignatureException;
+import org.tron.protos.Protocol.Transaction;
+
+public class VerifiedSignatureCacheTest {
+
+  @Test
+  public void testValidateSignature() throws ValidateSignatureException {
+    VerifiedSignatureCache cache = VerifiedSignatureCache.getInstance();
+    ECKey owner = new ECKey();
+    Transaction transaction = sign(newTransfer(owner, new ECKey(), 1), owner).getInstance();
+
+    long hits = cache.getHitCount();
+    long misses = cache.getMissCount();
+    Assert.assertTrue(new TransactionCapsule(transaction).validateSignature());
+    Assert.assertEquals(misses + 1, cache.getMissCount());
+    Assert.assertTrue(new TransactionCapsule(transaction).validateSignature());
+    Assert.assertEquals(hits + 1, cache.getHitCount());
+    Assert.assertTrue(cache.getHitRate() > 0);
+
+    Sha256Hash rawHash = Sha256Hash.of(transaction.getRawData().toByteArray());
+    Assert.assertArrayEquals(owner.getAddress(),
+        cache.getSigners(rawHash, transaction.getSignatureList()).get(0));
+  }
+
+  @Test
+  public void testInvalidSignatureIsNotCached() {
+    Transaction transaction = sign(newTransfer(new ECKey(), new ECKey(), 1), new ECKey()).getInstance();
+    for (int i = 0; i < 2; i++) {
+      try {
+        new TransactionCapsule(transaction).validateSignature();
+        Assert.fail("the transaction is not signed by its owner");
+      } catch (ValidateSignatureException e) {
+        Assert.assertEquals("sig error", e.getMessage());
+      }
+    }
+
+    Sha256Hash rawHash = Sha256Hash.of(transaction.getRawData().toByteArray());
+    Assert.assertNull(VerifiedSignatureCache.getInstance()
+        .getSigners(rawHash, transaction.getSignatureList()));
+  }
+
+  @Test
+  public void testBounded() {
+    VerifiedSignatureCache cache = new VerifiedSignatureCache(10);
+    for (int i = 0; i < 100; i++) {
+      cache.put(Sha256Hash.of(new byte[]{(byte) i}), Collections.emptyList(),
+          Collections.emptyList());
+    }
+    Assert.assertTrue(cache.size() <= 10);
+
+    VerifiedSignatureCache disabled = new VerifiedSignatureCache(0);
+    disabled.put(Sha256Hash.ZERO_HASH, Collections.emptyList(), Collections.emptyList());
+    Assert.assertNull(disabled.getSigners(Sha256Hash.ZERO_HASH, Collections.emptyList()));
+  }
+}
@@ -15,6 +15,8 @@
 
 package org.tron.core.config.args;
 
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -42,4 +44,41 @@ public class StorageTest {
   public void getStorage() {
     Assert.assertEquals("java-tron", storage.getDirectory());
   }
+
+  @Test
+  public void getBuiltInProfile() {
+    StorageProfile account = storage.getProfile("account");
+    Assert.assertEquals(64 * 1024 * 1024, account.getBlockCacheSize());
+    Assert.assertEquals(10, account.getBloomFilterBitsPerKey());
+    Assert.assertEquals(4 * 1024, account.getBlockSize());
+
+    StorageProfile block = storage.getProfile("block");
+    Assert.assertEquals(256 * 1024, block.getBlockSize());
+    Assert.assertEquals(0, block.getBloomFilterBitsPerKey());
+
+    Assert.assertSame(storage.getDefaultProfile(), storage.getProfile("peers"));
+  }
+
+  @Test
+  public void setProfilesFromConfig() {
+    Config config = ConfigFactory.parseString(
+        "storage { default { maxOpenFiles = 100 }, profiles = ["
+            + "{ name = account, blockCacheSize = 128M },"
+            + "{ name = peers, bloomFilterBitsPerKey = 8 } ] }");
+    storage.setProfilesFromConfig(config);
+
+    StorageProfile account = storage.getProfile("account");
+    Assert.assertEquals(128 * 1024 * 1024, account.getBlockCacheSize());
+    Assert.assertEquals(4 * 1024, account.getBlockSize());
+
+    StorageProfile peers = storage.getProfile("peers");
+    Assert.assertEquals(8, peers.getBloomFilterBitsPerKey());
+    Assert.assertEquals(100, peers.getMaxOpenFiles());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setInvalidProfile() {
+    storage.setProfilesFromConfig(ConfigFactory.parseString(
+        "storage.profiles = [ { name = account, blockSize = 0 } ]"));
+  }
 }
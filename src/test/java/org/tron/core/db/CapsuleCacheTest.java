@@ -0,0 +1,134 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.exception.RevokingStoreIllegalStateException;
+import org.tron.protos.Protocol.Account;
+import org.tron.protos.Protocol.AccountType;
+
+public class CapsuleCacheTest {
+
+  private static final String OUTPUT_DIR = "output_capsuleCache_test";
+
+  private SnapshotRevokingStore revokingDatabase;
+  private CachedAccountStore accountStore;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"-d", OUTPUT_DIR}, Constant.TEST_CONF);
+    revokingDatabase = new SnapshotRevokingStore();
+    revokingDatabase.enable();
+    accountStore = new CachedAccountStore(revokingDatabase);
+  }
+
+  @After
+  public void removeDb() {
+    accountStore.close();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(OUTPUT_DIR));
+  }
+
+  @Test
+  public void testHitAndMiss() {
+    CapsuleCache<String> cache = new CapsuleCache<>(1024);
+    AtomicInteger parsed = new AtomicInteger();
+    byte[] key = "key".getBytes();
+
+    Assert.assertEquals("v1", cache.get(key, "v1".getBytes(), data -> {
+      parsed.incrementAndGet();
+      return new String(data);
+    }));
+    Assert.assertEquals("v1", cache.get(key, "v1".getBytes(), data -> {
+      parsed.incrementAndGet();
+      return new String(data);
+    }));
+    Assert.assertEquals(1, parsed.get());
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+
+    // other bytes under the same key are parsed again
+    Assert.assertEquals("v2", cache.get(key, "v2".getBytes(), String::new));
+    Assert.assertEquals(2, cache.getMissCount());
+
+    cache.invalidate(key);
+    Assert.assertEquals(0, cache.size());
+    Assert.assertNull(cache.get(key, "v3".getBytes(), data -> null));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testEviction() {
+    CapsuleCache<String> cache = new CapsuleCache<>(1024);
+    for (int i = 0; i < 100; i++) {
+      byte[] data = new byte[64];
+      cache.put(("key" + i).getBytes(), data, "value" + i);
+    }
+
+    Assert.assertTrue(cache.getEvictionCount() > 0);
+    Assert.assertTrue(cache.size() < 100);
+  }
+
+  @Test
+  public void testRevoke() throws RevokingStoreIllegalStateException {
+    AccountCapsule account = newAccount("revoke", 100);
+    byte[] key = account.createDbKey();
+    accountStore.put(key, account);
+    Assert.assertEquals(100, accountStore.get(key).getBalance());
+    Assert.assertEquals(1, accountStore.getCapsuleCache().getHitCount());
+
+    try (Dialog dialog = revokingDatabase.buildDialog()) {
+      AccountCapsule changed = accountStore.get(key);
+      changed.setBalance(200);
+      accountStore.put(key, changed);
+      Assert.assertEquals(200, accountStore.get(key).getBalance());
+      dialog.revoke();
+    }
+
+    long misses = accountStore.getCapsuleCache().getMissCount();
+    Assert.assertEquals(100, accountStore.get(key).getBalance());
+    Assert.assertEquals(misses + 1, accountStore.getCapsuleCache().getMissCount());
+    Assert.assertEquals(100, accountStore.get(key).getBalance());
+    Assert.assertEquals(misses + 1, accountStore.getCapsuleCache().getMissCount());
+
+    accountStore.delete(key);
+    Assert.assertNull(accountStore.get(key));
+  }
+
+  private static AccountCapsule newAccount(String name, long balance) {
+    return new AccountCapsule(ByteString.copyFromUtf8(name),
+        ByteString.copyFromUtf8(name + "-address"), AccountType.Normal, balance);
+  }
+
+  private static class CachedAccountStore extends TronStoreWithRevoking<AccountCapsule> {
+
+    private CachedAccountStore(RevokingDatabase revokingDatabase) {
+      super("account", revokingDatabase);
+    }
+
+    @Override
+    public AccountCapsule get(byte[] key) {
+      byte[] value = dbSource.getData(key);
+      if (value == null) {
+        return null;
+      }
+
+      Account account = getParsed(key, value, data -> new AccountCapsule(data).getInstance());
+      return new AccountCapsule(account);
+    }
+
+    @Override
+    public boolean has(byte[] key) {
+      return dbSource.getData(key) != null;
+    }
+  }
+}
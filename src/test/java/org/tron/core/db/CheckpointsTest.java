@@ -0,0 +1,142 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.ValidateScheduleException;
+
+public class CheckpointsTest {
+
+  private static final String DB_PATH = "output_checkpoints_test";
+
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+
+  static {
+    Args.setParam(new String[]{"-d", DB_PATH, "-w"}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+  }
+
+  @AfterClass
+  public static void removeDb() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(DB_PATH));
+    context.destroy();
+  }
+
+  @Test
+  public void testMatches() {
+    BlockCapsule block = new BlockCapsule(5, Sha256Hash.ZERO_HASH, 0, ByteString.EMPTY);
+    BlockId other = new BlockId(Sha256Hash.of("other".getBytes()), 5);
+    BlockId later = new BlockId(Sha256Hash.of("later".getBytes()), 9);
+
+    Assert.assertTrue(new Checkpoints(Collections.singletonList(block.getBlockId()), true)
+        .matches(block));
+    Assert.assertFalse(new Checkpoints(Collections.singletonList(other), true).matches(block));
+    Assert.assertTrue(new Checkpoints(Collections.singletonList(later), true).matches(block));
+  }
+
+  @Test
+  public void testTrustedOnlyWhenLinkedToACheckpoint() {
+    Sha256Hash head = Sha256Hash.of("head".getBytes());
+    BlockCapsule first = new BlockCapsule(1, head, 0, ByteString.EMPTY);
+    BlockCapsule second = new BlockCapsule(2, first.getBlockId(), 3000, ByteString.EMPTY);
+    BlockCapsule third = new BlockCapsule(3, second.getBlockId(), 6000, ByteString.EMPTY);
+    BlockCapsule forged = new BlockCapsule(1, head, 1, ByteString.EMPTY);
+    List<BlockId> checkpoint = Collections.singletonList(third.getBlockId());
+
+    // below a checkpoint and on the head is not enough
+    Checkpoints checkpoints = new Checkpoints(checkpoint, true);
+    Assert.assertFalse(checkpoints.isTrusted(first, head));
+
+    // a gap in the received blocks stops the link
+    checkpoints.link(Arrays.asList(first, third), 0);
+    Assert.assertFalse(checkpoints.isTrusted(first, head));
+
+    checkpoints.link(Arrays.asList(forged, first, second, third), 0);
+    Assert.assertTrue(checkpoints.isTrusted(first, head));
+    Assert.assertTrue(checkpoints.isTrusted(second, first.getBlockId()));
+    Assert.assertTrue(checkpoints.isTrusted(third, second.getBlockId()));
+    Assert.assertFalse(checkpoints.isTrusted(forged, head));
+    Assert.assertFalse(checkpoints.isTrusted(second, head));
+
+    // the executed blocks are dropped
+    checkpoints.link(Collections.emptyList(), 2);
+    Assert.assertFalse(checkpoints.isTrusted(second, first.getBlockId()));
+    Assert.assertTrue(checkpoints.isTrusted(third, second.getBlockId()));
+
+    Checkpoints full = new Checkpoints(checkpoint, false);
+    full.link(Arrays.asList(first, second, third), 0);
+    Assert.assertFalse(full.isTrusted(first, head));
+  }
+
+  @Test
+  public void testFastSyncSkipsSignature() throws Exception {
+    byte[] witness = ECKey.fromPrivate(
+        ByteArray.fromHexString(Args.getInstance().getLocalWitnesses().getPrivateKey()))
+        .getAddress();
+    Sha256Hash genesis = dbManager.getGenesisBlockId();
+    BlockCapsule forged = newBlock(1, genesis, 1, witness);
+    BlockCapsule block = newBlock(1, genesis, 0, witness);
+    BlockCapsule next = newBlock(2, block.getBlockId(), 3000, witness);
+    List<BlockId> checkpoint = Collections.singletonList(next.getBlockId());
+
+    dbManager.setCheckpoints(new Checkpoints(checkpoint, false));
+    dbManager.pushBlock(block);
+    Assert.assertEquals(0, dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber());
+
+    // a block that doesn't link back from the checkpoint gets every check
+    long trusted = dbManager.getTrustedBlockCount();
+    dbManager.setCheckpoints(new Checkpoints(checkpoint, true));
+    dbManager.linkCheckpoints(Arrays.asList(forged, next));
+    dbManager.pushBlock(forged);
+    Assert.assertEquals(0, dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber());
+
+    dbManager.linkCheckpoints(Arrays.asList(block, next));
+    dbManager.pushBlock(block);
+    dbManager.pushBlock(next);
+    Assert.assertEquals(2, dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber());
+    Assert.assertEquals(trusted + 2, dbManager.getTrustedBlockCount());
+
+    BlockCapsule other = newBlock(3, next.getBlockId(), 6000, witness);
+    dbManager.setCheckpoints(new Checkpoints(
+        Collections.singletonList(new BlockId(Sha256Hash.of("checkpoint".getBytes()), 3)), true));
+    try {
+      dbManager.pushBlock(other);
+      Assert.fail("the block at the checkpoint number has another id");
+    } catch (ValidateScheduleException e) {
+      Assert.assertEquals(2, dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber());
+    }
+  }
+
+  private static BlockCapsule newBlock(long number, Sha256Hash parent, long timestamp,
+      byte[] witness) {
+    BlockCapsule block = new BlockCapsule(number, parent, timestamp,
+        ByteString.copyFrom(witness));
+    block.setMerkleRoot();
+    // signed by another key than the witness', only a trusted block is accepted
+    block.sign(new ECKey().getPrivKeyBytes());
+    return block;
+  }
+}
@@ -4,6 +4,8 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -18,6 +20,7 @@ import org.tron.core.Constant;
 import org.tron.core.capsule.ProtoCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
 
 @Slf4j
@@ -130,6 +133,36 @@ public class RevokingStoreTest {
 
   }
 
+  @Test
+  public void testPriorValueReadOnFirstTouch() throws RevokingStoreIllegalStateException {
+    revokingDatabase.getStack().clear();
+    TestRevokingTronStore tronDatabase = new TestRevokingTronStore(
+        "testrevokingtronstore-firstTouch", revokingDatabase);
+    RevokingTuple tuple = new RevokingTuple(tronDatabase.getDbSource(), "touch".getBytes());
+    AtomicInteger reads = new AtomicInteger();
+    Supplier<byte[]> value = () -> {
+      reads.incrementAndGet();
+      return "prior".getBytes();
+    };
+
+    try (Dialog dialog = revokingDatabase.buildDialog()) {
+      revokingDatabase.onPut(tuple, value);
+      revokingDatabase.onPut(tuple, value);
+      revokingDatabase.onDelete(tuple, value);
+      Assert.assertEquals(1, reads.get());
+
+      // a new state records its own prior value
+      try (Dialog nested = revokingDatabase.buildDialog()) {
+        revokingDatabase.onPut(tuple, value);
+        revokingDatabase.onPut(tuple, value);
+        Assert.assertEquals(2, reads.get());
+        nested.revoke();
+      }
+      dialog.revoke();
+    }
+    tronDatabase.close();
+  }
+
   @NoArgsConstructor
   @AllArgsConstructor
   @EqualsAndHashCode
@@ -0,0 +1,314 @@
+package org.tron.core.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.ScanOptions;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.exception.RevokingStoreIllegalStateException;
+
+@Slf4j
+public class SnapshotRevokingStoreTest {
+
+  private SnapshotRevokingStore revokingDatabase;
+  private TestRevokingTronStore tronDatabase;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"-d", "output_snapshotRevokingStore_test"},
+        Constant.TEST_CONF);
+    revokingDatabase = new SnapshotRevokingStore();
+    revokingDatabase.enable();
+    tronDatabase = new TestRevokingTronStore("snapshot-revoking-store", revokingDatabase);
+  }
+
+  @After
+  public void removeDb() {
+    tronDatabase.close();
+    Args.clearParam();
+    FileUtil.deleteDir(new File("output_snapshotRevokingStore_test"));
+  }
+
+  private DbSourceInter<byte[]> disk() {
+    return ((SnapshotDbSource) tronDatabase.getDbSource()).getDelegate();
+  }
+
+  @Test
+  public void testRevoke() throws RevokingStoreIllegalStateException {
+    TestProtoCapsule capsule = new TestProtoCapsule("revoke".getBytes());
+    try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+      tronDatabase.put(capsule.getData(), capsule);
+      Assert.assertEquals(capsule, tronDatabase.get(capsule.getData()));
+      Assert.assertEquals(1, tronDatabase.getDbSource().allKeys().size());
+      Assert.assertEquals(1, tronDatabase.getDbSource().getTotal());
+      Assert.assertNull(disk().getData(capsule.getData()));
+      tmpDialog.revoke();
+    }
+
+    Assert.assertEquals(0, revokingDatabase.size());
+    Assert.assertNull(tronDatabase.getDbSource().getData(capsule.getData()));
+    Assert.assertTrue(tronDatabase.getDbSource().allKeys().isEmpty());
+  }
+
+  @Test
+  public void testMerge() throws RevokingStoreIllegalStateException {
+    TestProtoCapsule capsule = new TestProtoCapsule("merge".getBytes());
+    try (Dialog dialog = revokingDatabase.buildDialog()) {
+      try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+        tronDatabase.put(capsule.getData(), capsule);
+        tmpDialog.merge();
+      }
+      Assert.assertEquals(1, revokingDatabase.size());
+      Assert.assertEquals(capsule, tronDatabase.get(capsule.getData()));
+
+      try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+        tronDatabase.delete(capsule.getData());
+        Assert.assertNull(tronDatabase.getDbSource().getData(capsule.getData()));
+        Assert.assertTrue(tronDatabase.getDbSource().allKeys().isEmpty());
+        tmpDialog.revoke();
+      }
+      Assert.assertEquals(capsule, tronDatabase.get(capsule.getData()));
+      dialog.revoke();
+    }
+
+    Assert.assertNull(tronDatabase.getDbSource().getData(capsule.getData()));
+  }
+
+  @Test
+  public void testPop() throws RevokingStoreIllegalStateException {
+    for (int i = 1; i < 11; i++) {
+      TestProtoCapsule capsule = new TestProtoCapsule(("pop" + i).getBytes());
+      try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+        tronDatabase.put(capsule.getData(), capsule);
+        tmpDialog.commit();
+      }
+      Assert.assertEquals(i, revokingDatabase.size());
+    }
+
+    for (int i = 1; i < 11; i++) {
+      revokingDatabase.pop();
+      Assert.assertEquals(10 - i, tronDatabase.getDbSource().allKeys().size());
+      Assert.assertEquals(10 - i, revokingDatabase.size());
+    }
+
+    Assert.assertTrue(disk().allKeys().isEmpty());
+  }
+
+  @Test
+  public void testFlush() throws RevokingStoreIllegalStateException {
+    revokingDatabase.setMaxSize(2);
+    for (int i = 1; i < 6; i++) {
+      TestProtoCapsule capsule = new TestProtoCapsule(("flush" + i).getBytes());
+      try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+        tronDatabase.put(capsule.getData(), capsule);
+        tmpDialog.commit();
+      }
+    }
+
+    Assert.assertEquals(3, revokingDatabase.size());
+    Assert.assertEquals(2, disk().allKeys().size());
+    Assert.assertArrayEquals("flush1".getBytes(), disk().getData("flush1".getBytes()));
+    Assert.assertNull(disk().getData("flush3".getBytes()));
+    Assert.assertEquals(5, tronDatabase.getDbSource().allKeys().size());
+
+    revokingDatabase.shutdown();
+    Assert.assertEquals(0, revokingDatabase.size());
+    Assert.assertEquals(2, tronDatabase.getDbSource().allKeys().size());
+  }
+
+  @Test
+  public void testRecover() throws RevokingStoreIllegalStateException, IOException {
+    revokingDatabase.recover();
+    for (int i = 1; i < 4; i++) {
+      TestProtoCapsule capsule = new TestProtoCapsule(("recover" + i).getBytes());
+      try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+        tronDatabase.put(capsule.getData(), capsule);
+        tmpDialog.commit();
+      }
+    }
+    try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+      TestProtoCapsule capsule = new TestProtoCapsule("uncommitted".getBytes());
+      tronDatabase.put(capsule.getData(), capsule);
+      tmpDialog.revoke();
+    }
+
+    revokingDatabase.shutdown();
+    Assert.assertTrue(disk().allKeys().isEmpty());
+    Files.write(Paths.get(Args.getInstance().getOutputDirectory()
+            + Args.getInstance().getStorage().getDirectory(), "revoking.journal"),
+        new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+    tronDatabase.close();
+
+    revokingDatabase = new SnapshotRevokingStore();
+    tronDatabase = new TestRevokingTronStore("snapshot-revoking-store", revokingDatabase);
+    revokingDatabase.recover();
+    revokingDatabase.enable();
+    Assert.assertEquals(3, revokingDatabase.size());
+    Assert.assertEquals(3, tronDatabase.getDbSource().allKeys().size());
+    Assert.assertTrue(disk().allKeys().isEmpty());
+
+    revokingDatabase.pop();
+    Assert.assertEquals(2, tronDatabase.getDbSource().allKeys().size());
+    Assert.assertNull(tronDatabase.getDbSource().getData("recover3".getBytes()));
+  }
+
+  @Test
+  public void testSpill() throws RevokingStoreIllegalStateException {
+    Args.getInstance().getStorage().setRevokingHeapSnapshots(1);
+    revokingDatabase.recover();
+    byte[] key = "spill".getBytes();
+    for (int i = 1; i < 4; i++) {
+      try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+        tronDatabase.put(key, new TestProtoCapsule(("value" + i).getBytes()));
+        tmpDialog.commit();
+      }
+    }
+
+    Assert.assertEquals(3, revokingDatabase.size());
+    Assert.assertArrayEquals("value2".getBytes(), disk().getData(key));
+    Assert.assertArrayEquals("value3".getBytes(), tronDatabase.getDbSource().getData(key));
+
+    revokingDatabase.pop();
+    Assert.assertArrayEquals("value2".getBytes(), tronDatabase.getDbSource().getData(key));
+    revokingDatabase.pop();
+    Assert.assertArrayEquals("value1".getBytes(), disk().getData(key));
+    revokingDatabase.pop();
+    Assert.assertNull(disk().getData(key));
+    Assert.assertEquals(0, revokingDatabase.size());
+  }
+
+  @Test
+  public void testReadView() throws RevokingStoreIllegalStateException {
+    disk().putData("k1".getBytes(), "v1".getBytes());
+    try (Dialog dialog = revokingDatabase.buildDialog()) {
+      tronDatabase.put("k2".getBytes(), new TestProtoCapsule("v2".getBytes()));
+      dialog.commit();
+    }
+
+    Dialog open = revokingDatabase.buildDialog();
+    tronDatabase.put("k3".getBytes(), new TestProtoCapsule("v3".getBytes()));
+
+    ReadView view = revokingDatabase.openView();
+    try {
+      Assert.assertNull(tronDatabase.getDbSource().getData("k3".getBytes()));
+      open.commit();
+      open.close();
+
+      try (Dialog dialog = revokingDatabase.buildDialog()) {
+        tronDatabase.put("k1".getBytes(), new TestProtoCapsule("v1'".getBytes()));
+        tronDatabase.delete("k2".getBytes());
+        dialog.merge();
+      }
+
+      revokingDatabase.setMaxSize(0);
+      revokingDatabase.buildDialog().close();
+      Assert.assertArrayEquals("v1'".getBytes(), disk().getData("k1".getBytes()));
+      Assert.assertArrayEquals("v3".getBytes(), disk().getData("k3".getBytes()));
+
+      Assert.assertArrayEquals("v1".getBytes(),
+          tronDatabase.getDbSource().getData("k1".getBytes()));
+      Assert.assertArrayEquals("v2".getBytes(),
+          tronDatabase.getDbSource().getData("k2".getBytes()));
+      Assert.assertNull(tronDatabase.getDbSource().getData("k3".getBytes()));
+      Assert.assertEquals(Arrays.asList("v1", "v2"), values(ScanOptions.forward()));
+      Assert.assertEquals(2, tronDatabase.getDbSource().getTotal());
+    } finally {
+      view.close();
+    }
+
+    Assert.assertArrayEquals("v1'".getBytes(),
+        tronDatabase.getDbSource().getData("k1".getBytes()));
+    Assert.assertEquals(Arrays.asList("v1'", "v3"), values(ScanOptions.forward()));
+  }
+
+  @Test
+  public void testScan() throws RevokingStoreIllegalStateException {
+    for (String key : new String[]{"a1", "a2", "a3", "b1"}) {
+      disk().putData(key.getBytes(), key.getBytes());
+    }
+
+    try (Dialog dialog = revokingDatabase.buildDialog()) {
+      tronDatabase.delete("a2".getBytes());
+      tronDatabase.put("a4".getBytes(), new TestProtoCapsule("a4".getBytes()));
+      tronDatabase.put("a3".getBytes(), new TestProtoCapsule("a3'".getBytes()));
+
+      Assert.assertEquals(Arrays.asList("a1", "a3'", "a4"),
+          values(ScanOptions.forward().prefix("a".getBytes())));
+      Assert.assertEquals(Arrays.asList("a4", "a3'"),
+          values(ScanOptions.reverse().prefix("a".getBytes()).limit(2)));
+      Assert.assertEquals(Arrays.asList("a3'", "a1"),
+          values(ScanOptions.reverse().from("a3".getBytes())));
+      Assert.assertEquals(Arrays.asList("a1", "a3'", "a4", "b1"), values(ScanOptions.forward()));
+      dialog.revoke();
+    }
+
+    Assert.assertEquals(Arrays.asList("a1", "a2", "a3", "b1"), values(ScanOptions.forward()));
+  }
+
+  private List<String> values(ScanOptions options) {
+    List<String> values = new ArrayList<>();
+    tronDatabase.getDbSource().iterator(options)
+        .forEachRemaining(entry -> values.add(new String(entry.getValue())));
+    return values;
+  }
+
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static class TestProtoCapsule implements ProtoCapsule<Object> {
+
+    private byte[] value;
+
+    @Override
+    public byte[] getData() {
+      return value;
+    }
+
+    @Override
+    public Object getInstance() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return "TestProtoCapsule{"
+          + "value=" + Arrays.toString(value)
+          + '}';
+    }
+  }
+
+  private static class TestRevokingTronStore extends TronStoreWithRevoking<TestProtoCapsule> {
+
+    protected TestRevokingTronStore(String dbName, RevokingDatabase revokingDatabase) {
+      super(dbName, revokingDatabase);
+    }
+
+    @Override
+    public TestProtoCapsule get(byte[] key) {
+      return new TestProtoCapsule(dbSource.getData(key));
+    }
+
+    @Override
+    public boolean has(byte[] key) {
+      return dbSource.getData(key) != null;
+    }
+  }
+}
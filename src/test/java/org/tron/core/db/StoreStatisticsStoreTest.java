@@ -0,0 +1,90 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.exception.RevokingStoreIllegalStateException;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+public class StoreStatisticsStoreTest {
+
+  private static String dbPath = "output_StoreStatisticsStore_test";
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+  private static TransactionStore transactionStore;
+
+  private static final String OWNER_ADDRESS =
+      Wallet.getAddressPreFixString() + "abd4b9367799eaa3197fecb144eb71de1e049abc";
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    transactionStore = dbManager.getTransactionStore();
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    context.destroy();
+  }
+
+  private TransactionCapsule transaction(long amount) {
+    return new TransactionCapsule(TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(ByteArray.fromHexString(OWNER_ADDRESS)))
+        .setToAddress(ByteString.copyFrom(ByteArray.fromHexString(OWNER_ADDRESS)))
+        .setAmount(amount)
+        .build(), ContractType.TransferContract);
+  }
+
+  @Test
+  public void countTransactions() throws RevokingStoreIllegalStateException {
+    long count = transactionStore.getTotalTransactions();
+    long bytes = transactionStore.getTotalBytes();
+    Assert.assertEquals(transactionStore.getDbSource().getTotal(), count);
+
+    TransactionCapsule first = transaction(1);
+    TransactionCapsule second = transaction(2);
+    transactionStore.put(first.getTransactionId().getBytes(), first);
+    transactionStore.put(second.getTransactionId().getBytes(), second);
+    transactionStore.put(second.getTransactionId().getBytes(), second);
+    Assert.assertEquals(count + 2, transactionStore.getTotalTransactions());
+    Assert.assertEquals(bytes + first.getData().length + second.getData().length,
+        transactionStore.getTotalBytes());
+
+    try (Dialog dialog = RevokingStore.getInstance().buildDialog()) {
+      transactionStore.delete(first.getTransactionId().getBytes());
+      Assert.assertEquals(count + 1, transactionStore.getTotalTransactions());
+      dialog.revoke();
+    }
+
+    Assert.assertEquals(count + 2, transactionStore.getTotalTransactions());
+    Assert.assertEquals(transactionStore.getDbSource().getTotal(),
+        transactionStore.getTotalTransactions());
+  }
+
+  @Test
+  public void hasBlocks() {
+    Assert.assertTrue(dbManager.hasBlocks());
+    Assert.assertEquals(dbManager.getBlockStore().getDbSource().getTotal(),
+        dbManager.getBlockStore().getCount());
+  }
+}
@@ -0,0 +1,179 @@
+package org.tron.core.db;
+
+import static org.tron.core.capsule.TransferFixtures.newSignedTransfer;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.Parameter.ChainConstant;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.db.TransactionExecutor.Mode;
+import org.tron.core.exception.ContractValidateException;
+import org.tron.protos.Protocol.AccountType;
+
+public class TransactionExecutorTest {
+
+  private static final String DB_PATH = "output_transactionExecutor_test";
+  private static final long BALANCE = 100_000_000L;
+
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+  private static ForkJoinPool pool;
+
+  static {
+    Args.setParam(new String[]{"-d", DB_PATH}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterClass
+  public static void removeDb() {
+    pool.shutdown();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(DB_PATH));
+    context.destroy();
+  }
+
+  @Test
+  public void testGroup() {
+    ECKey a = newAccount();
+    ECKey b = newAccount();
+    ECKey c = newAccount();
+    ECKey d = newAccount();
+    List<TransactionCapsule> transactions = Arrays.asList(
+        newSignedTransfer(a, b, 1), newSignedTransfer(c, d, 1), newSignedTransfer(b, a, 1));
+
+    List<List<TransactionCapsule>> groups = TransactionExecutor.group(transactions);
+    Assert.assertEquals(2, groups.size());
+    Assert.assertEquals(Arrays.asList(transactions.get(0), transactions.get(2)), groups.get(0));
+    Assert.assertEquals(Arrays.asList(transactions.get(1)), groups.get(1));
+  }
+
+  @Test
+  public void testDifferential() throws Exception {
+    TransactionExecutor executor =
+        new TransactionExecutor(dbManager, RevokingStore.getInstance(), pool, Mode.DIFFERENTIAL);
+    List<ECKey> owners = new ArrayList<>();
+    List<TransactionCapsule> transactions = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      ECKey owner = newAccount();
+      owners.add(owner);
+      transactions.add(newSignedTransfer(owner, newAccount(), 1000 + i));
+    }
+
+    try (Dialog dialog = RevokingStore.getInstance().buildDialog()) {
+      executor.execute(transactions);
+      Assert.assertEquals(0, executor.getMismatchCount());
+      Assert.assertEquals(1, executor.getParallelBlockCount());
+      Assert.assertEquals(BALANCE - 1000 - 7 - fee(),
+          dbManager.getAccountStore().get(owners.get(7).getAddress()).getBalance());
+      dialog.revoke();
+    }
+  }
+
+  @Test
+  public void testParallel() throws Exception {
+    TransactionExecutor executor =
+        new TransactionExecutor(dbManager, RevokingStore.getInstance(), pool, Mode.PARALLEL);
+    ECKey a = newAccount();
+    ECKey b = newAccount();
+    ECKey c = newAccount();
+    ECKey d = newAccount();
+    List<TransactionCapsule> transactions = Arrays.asList(
+        newSignedTransfer(a, b, 10), newSignedTransfer(c, d, 20), newSignedTransfer(b, a, 5));
+
+    try (Dialog dialog = RevokingStore.getInstance().buildDialog()) {
+      executor.execute(transactions);
+      Assert.assertEquals(1, executor.getParallelBlockCount());
+      Assert.assertEquals(BALANCE - 5 - fee(),
+          dbManager.getAccountStore().get(a.getAddress()).getBalance());
+      Assert.assertEquals(BALANCE + 20,
+          dbManager.getAccountStore().get(d.getAddress()).getBalance());
+      for (TransactionCapsule transaction : transactions) {
+        Assert.assertTrue(dbManager.getTransactionStore()
+            .has(transaction.getTransactionId().getBytes()));
+      }
+      dialog.revoke();
+    }
+  }
+
+  @Test
+  public void testFallbackOnFailure() throws Exception {
+    TransactionExecutor executor =
+        new TransactionExecutor(dbManager, RevokingStore.getInstance(), pool, Mode.PARALLEL);
+    ECKey a = newAccount();
+    ECKey c = newAccount();
+    List<TransactionCapsule> transactions = Arrays.asList(
+        newSignedTransfer(a, newAccount(), 10), newSignedTransfer(c, newAccount(), BALANCE * 2));
+
+    Dialog dialog = RevokingStore.getInstance().buildDialog();
+    try {
+      executor.execute(transactions);
+      Assert.fail("the second transfer exceeds the balance");
+    } catch (ContractValidateException e) {
+      Assert.assertEquals(1, executor.getSerialFallbackCount());
+      Assert.assertEquals(0, executor.getParallelBlockCount());
+    } finally {
+      dialog.close();
+    }
+    Assert.assertEquals(BALANCE, dbManager.getAccountStore().get(a.getAddress()).getBalance());
+  }
+
+  @Test
+  public void testWriteSetConflicts() {
+    AccountStore accountStore = dbManager.getAccountStore();
+    byte[] a = newAccount().getAddress();
+    byte[] b = newAccount().getAddress();
+
+    WriteSet reading = new WriteSet();
+    accountStore.get(a);
+    reading.close();
+
+    WriteSet writing = new WriteSet();
+    AccountCapsule account = accountStore.get(a);
+    account.setBalance(1);
+    accountStore.put(a, account);
+    Assert.assertEquals(1, accountStore.get(a).getBalance());
+    writing.close();
+    Assert.assertEquals(BALANCE, accountStore.get(a).getBalance());
+
+    WriteSet other = new WriteSet();
+    accountStore.put(b, accountStore.get(b));
+    other.close();
+
+    Assert.assertFalse(WriteSet.areIndependent(Arrays.asList(reading, writing)));
+    Assert.assertTrue(WriteSet.areIndependent(Arrays.asList(writing, other)));
+  }
+
+  private static long fee() {
+    return ChainConstant.TRANSFER_FEE;
+  }
+
+  private static ECKey newAccount() {
+    ECKey key = new ECKey();
+    ByteString address = ByteString.copyFrom(key.getAddress());
+    dbManager.getAccountStore().put(key.getAddress(),
+        new AccountCapsule(address, address, AccountType.Normal, BALANCE));
+    return key;
+  }
+}
@@ -0,0 +1,192 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.BlockBuilder;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransferFixtures;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.Parameter.ChainConstant;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.protos.Protocol.AccountType;
+
+public class TransactionPoolTest {
+
+  private static final String DB_PATH = "output_transactionPool_test";
+  private static final long BALANCE = 100_000_000L;
+
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+  private static SnapshotRevokingStore revokingStore;
+
+  static {
+    Args.setParam(new String[]{"-d", DB_PATH}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() throws Exception {
+    dbManager = context.getBean(Manager.class);
+    revokingStore = (SnapshotRevokingStore) RevokingStore.getInstance();
+    revokingStore.enable();
+    dbManager.updateRecentBlock(dbManager.getBlockById(
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash()));
+  }
+
+  @AfterClass
+  public static void removeDb() {
+    dbManager.getDialog().reset();
+    revokingStore.disable();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(DB_PATH));
+    context.destroy();
+  }
+
+  @Test
+  public void testIndexes() {
+    ECKey a = new ECKey();
+    ECKey b = new ECKey();
+    TransactionCapsule first = newTransfer(a, b, 1, 0);
+    TransactionCapsule second = newTransfer(b, a, 2, 0);
+    TransactionCapsule third = newTransfer(a, b, 3, 0);
+
+    TransactionPool pool = new TransactionPool(10);
+    Arrays.asList(first, second, third).forEach(trx -> pool.add(trx, null));
+
+    Assert.assertEquals(3, pool.size());
+    Assert.assertEquals(Arrays.asList(first, second, third), pool.getTransactions());
+    Assert.assertEquals(Arrays.asList(first, third), pool.getByOwner(a.getAddress()));
+    Assert.assertSame(second, pool.get(second.getTransactionId()));
+
+    Assert.assertTrue(pool.remove(first));
+    Assert.assertFalse(pool.contains(first.getTransactionId()));
+    Assert.assertEquals(Collections.singletonList(third), pool.getByOwner(a.getAddress()));
+    Assert.assertEquals(Arrays.asList(second, third), pool.getTransactions());
+  }
+
+  @Test
+  public void testExpirationAndEviction() {
+    ECKey a = new ECKey();
+    ECKey b = new ECKey();
+    TransactionCapsule soon = newTransfer(a, b, 1, 100);
+    TransactionCapsule later = newTransfer(a, b, 2, 200);
+    TransactionCapsule never = newTransfer(a, b, 3, 0);
+
+    TransactionPool pool = new TransactionPool(2);
+    Assert.assertFalse(pool.admits(soon, 100));
+    pool.add(soon, null);
+    pool.add(later, null);
+
+    // a full pool evicts the transaction closest to its expiration
+    Assert.assertFalse(pool.admits(newTransfer(a, b, 4, 50), 0));
+    Assert.assertTrue(pool.admits(never, 0));
+    pool.add(never, null);
+    Assert.assertEquals(Arrays.asList(later, never), pool.getTransactions());
+
+    Assert.assertEquals(Collections.singletonList(later), pool.removeExpired(200));
+    Assert.assertEquals(Collections.singletonList(never), pool.getTransactions());
+  }
+
+  @Test
+  public void testRevalidateTouchedOnly() throws Exception {
+    ECKey a = newAccount();
+    ECKey b = newAccount();
+    ECKey c = newAccount();
+    ECKey d = newAccount();
+    TransactionCapsule untouched = newTransfer(a, b, 10, 0);
+    TransactionCapsule touched = newTransfer(c, d, 20, 0);
+    Assert.assertTrue(dbManager.pushTransactions(untouched));
+    Assert.assertTrue(dbManager.pushTransactions(touched));
+
+    TransactionPool pool = dbManager.getPendingTransactions();
+    WriteSet writes = pool.getWrites(untouched);
+    Assert.assertNotNull(writes);
+    Assert.assertEquals(BALANCE - 10 - ChainConstant.TRANSFER_FEE,
+        dbManager.getAccountStore().get(a.getAddress()).getBalance());
+
+    try (PendingManager pm = new PendingManager(dbManager)) {
+      Assert.assertEquals(BALANCE, dbManager.getAccountStore().get(a.getAddress()).getBalance());
+      try (Dialog block = revokingStore.buildDialog()) {
+        AccountCapsule account = dbManager.getAccountStore().get(c.getAddress());
+        account.setBalance(0);
+        dbManager.getAccountStore().put(c.getAddress(), account);
+        pm.touched(revokingStore.dialogKeys());
+        block.commit();
+      }
+    }
+
+    // the untouched transaction got its writes back, the other no longer applies
+    Assert.assertSame(writes, pool.getWrites(untouched));
+    Assert.assertFalse(pool.contains(touched.getTransactionId()));
+    Assert.assertEquals(BALANCE - 10 - ChainConstant.TRANSFER_FEE,
+        dbManager.getAccountStore().get(a.getAddress()).getBalance());
+  }
+
+  @Test
+  public void testFillBlockReusesPendingState() throws Exception {
+    TransactionPool pool = dbManager.getPendingTransactions();
+    pool.getTransactions().forEach(pool::remove);
+    new PendingManager(dbManager).close();
+
+    ECKey a = newAccount();
+    ECKey c = newAccount();
+    TransactionCapsule dropped = newTransfer(a, newAccount(), 10, 0);
+    TransactionCapsule reused = newTransfer(c, newAccount(), 20, 0);
+    TransactionCapsule invalidated = newTransfer(a, newAccount(), 30, 0);
+    Assert.assertTrue(dbManager.pushTransactions(dropped));
+    Assert.assertTrue(dbManager.pushTransactions(reused));
+    Assert.assertTrue(dbManager.pushTransactions(invalidated));
+    pool.remove(dropped);
+
+    long reusedCount = dbManager.getReusedTransactionCount();
+    long reexecutedCount = dbManager.getReexecutedTransactionCount();
+    BlockBuilder builder = new BlockBuilder(
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber() + 1,
+        dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash(),
+        System.currentTimeMillis(), ByteString.copyFrom(a.getAddress()));
+    dbManager.getDialog().reset();
+    dbManager.getDialog().setValue(revokingStore.buildDialog());
+    try {
+      Assert.assertEquals(0, dbManager.fillBlock(builder, System.currentTimeMillis()));
+      Assert.assertEquals(BALANCE - 30 - ChainConstant.TRANSFER_FEE,
+          dbManager.getAccountStore().get(a.getAddress()).getBalance());
+    } finally {
+      dbManager.getDialog().reset();
+    }
+
+    // the transaction of the dropped owner runs again, the other keeps its pending execution
+    Assert.assertEquals(2, builder.getTransactionCount());
+    Assert.assertEquals(reusedCount + 1, dbManager.getReusedTransactionCount());
+    Assert.assertEquals(reexecutedCount + 1, dbManager.getReexecutedTransactionCount());
+    Assert.assertEquals(0, pool.size());
+  }
+
+  private static ECKey newAccount() {
+    ECKey key = new ECKey();
+    ByteString address = ByteString.copyFrom(key.getAddress());
+    AccountCapsule account = new AccountCapsule(address, address, AccountType.Normal, BALANCE);
+    account.setBandwidth(1_000_000L);
+    dbManager.getAccountStore().put(key.getAddress(), account);
+    return key;
+  }
+
+  private static TransactionCapsule newTransfer(ECKey owner, ECKey to, long amount,
+      long expiration) {
+    TransactionCapsule capsule = TransferFixtures.newTransfer(owner, to, amount);
+    dbManager.setBlockReference(capsule);
+    capsule.setExpiration(expiration);
+    return TransferFixtures.sign(capsule, owner);
+  }
+}
@@ -0,0 +1,114 @@
+package org.tron.core.db;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.iq80.leveldb.WriteOptions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+
+public class WriteSessionTest {
+
+  private static final String OUTPUT_DIR = "output_writeSession_test";
+
+  private WriteSession session = WriteSession.getInstance();
+  private LevelDbDataSourceImpl delegate;
+  private SessionDbSource source;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"-d", OUTPUT_DIR}, Constant.TEST_CONF);
+    delegate = new LevelDbDataSourceImpl(Args.getInstance().getOutputDirectory(),
+        "writeSession");
+    delegate.initDB();
+    source = new SessionDbSource(delegate, session, false);
+  }
+
+  @After
+  public void destroy() {
+    session.discard();
+    source.closeDB();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(OUTPUT_DIR));
+  }
+
+  @Test
+  public void testCommit() throws Exception {
+    source.putData("a".getBytes(), "1".getBytes());
+    source.putData("b".getBytes(), "2".getBytes());
+
+    session.begin();
+    source.putData("c".getBytes(), "3".getBytes());
+    source.deleteData("a".getBytes());
+
+    Assert.assertArrayEquals("3".getBytes(), source.getData("c".getBytes()));
+    Assert.assertNull(source.getData("a".getBytes()));
+    Assert.assertEquals(2, source.getTotal());
+    Assert.assertEquals(2, source.allKeys().size());
+    Assert.assertNull(delegate.getData("c".getBytes()));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Assert.assertNull(executor.submit(() -> source.getData("c".getBytes())).get());
+      Assert.assertArrayEquals("1".getBytes(),
+          executor.submit(() -> source.getData("a".getBytes())).get());
+    } finally {
+      executor.shutdown();
+    }
+
+    session.commit();
+    Assert.assertFalse(session.isActive());
+    Assert.assertArrayEquals("3".getBytes(), delegate.getData("c".getBytes()));
+    Assert.assertNull(delegate.getData("a".getBytes()));
+  }
+
+  @Test
+  public void testDiscard() {
+    session.begin();
+    source.putData("a".getBytes(), "1".getBytes());
+    session.discard();
+
+    Assert.assertFalse(session.isActive());
+    Assert.assertNull(source.getData("a".getBytes()));
+    Assert.assertNull(delegate.getData("a".getBytes()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBeginTwice() {
+    session.begin();
+    session.begin();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCommitSyncsEveryStoreBeforeTheHead() {
+    DbSourceInter<byte[]> head = Mockito.mock(DbSourceInter.class);
+    DbSourceInter<byte[]> accounts = Mockito.mock(DbSourceInter.class);
+    SessionDbSource headSource = new SessionDbSource(head, session, true);
+    SessionDbSource accountSource = new SessionDbSource(accounts, session, false);
+    try {
+      session.begin();
+      headSource.putData("head".getBytes(), "1".getBytes());
+      accountSource.putData("a".getBytes(), "1".getBytes());
+      session.commit();
+
+      ArgumentMatcher<WriteOptions> synced = WriteOptions::sync;
+      InOrder order = Mockito.inOrder(accounts, head);
+      order.verify(accounts).updateByBatch(Mockito.anyMap(), Mockito.argThat(synced));
+      order.verify(head).updateByBatch(Mockito.anyMap(), Mockito.argThat(synced));
+    } finally {
+      session.unregister(headSource);
+      session.unregister(accountSource);
+    }
+  }
+}
@@ -3,9 +3,10 @@ package org.tron.core.net.node;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -146,7 +147,9 @@ public class BroadTest {
         ++count;
       }
       MessageQueue messageQueue = ReflectUtils.getFieldValue(peerConnection, "msgQueue");
-      BlockingQueue<Message> msgQueue = ReflectUtils.getFieldValue(messageQueue, "msgQueue");
+      Queue<Message> msgQueue = new LinkedList<>(
+          ReflectUtils.getFieldValue(messageQueue, "urgentQueue"));
+      msgQueue.addAll(ReflectUtils.getFieldValue(messageQueue, "msgQueue"));
       for (Message message : msgQueue) {
         if (message.getType() == MessageTypes.BLOCK) {
           Assert.assertEquals(message.getMessageId(), condition.getBlockId());
@@ -0,0 +1,89 @@
+package org.tron.core.net.peer;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.core.net.message.MessageTypes;
+import org.tron.core.net.peer.MessageDispatcher.Lane;
+import org.tron.core.net.peer.MessageDispatcher.PeerQueue;
+
+public class MessageDispatcherTest {
+
+  private MessageDispatcher dispatcher;
+
+  @Before
+  public void init() {
+    dispatcher = new MessageDispatcher(4);
+  }
+
+  @After
+  public void destroy() {
+    dispatcher.close();
+  }
+
+  @Test
+  public void testPeerOrder() throws InterruptedException {
+    PeerQueue queue = dispatcher.newPeerQueue(new EmbeddedChannel());
+    List<Integer> handled = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(1);
+    int count = 100;
+    for (int i = 0; i < count; i++) {
+      int n = i;
+      queue.dispatch(MessageTypes.TRX, () -> {
+        handled.add(n);
+        if (n == count - 1) {
+          done.countDown();
+        }
+      });
+    }
+
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, (int) handled.get(i));
+    }
+    Assert.assertEquals(count, dispatcher.getHandledCount(Lane.TRANSACTION));
+  }
+
+  @Test
+  public void testFullQueueStopsReading() throws InterruptedException {
+    EmbeddedChannel channel = new EmbeddedChannel();
+    PeerQueue queue = dispatcher.newPeerQueue(channel);
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < 4; i++) {
+      queue.dispatch(MessageTypes.BLOCK, () -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+
+    Assert.assertFalse(channel.config().isAutoRead());
+    Assert.assertEquals(1, dispatcher.getPausedReadCount());
+    Assert.assertEquals(4, dispatcher.getQueueDepth(Lane.BLOCK));
+
+    release.countDown();
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (queue.getPending() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, queue.getPending());
+    Assert.assertEquals(0, dispatcher.getQueueDepth(Lane.BLOCK));
+    Assert.assertTrue(channel.config().isAutoRead());
+  }
+
+  @Test
+  public void testLaneOf() {
+    Assert.assertEquals(Lane.BLOCK, Lane.of(MessageTypes.BLOCK));
+    Assert.assertEquals(Lane.TRANSACTION, Lane.of(MessageTypes.TRX));
+    Assert.assertEquals(Lane.INVENTORY, Lane.of(MessageTypes.FETCH_INV_DATA));
+    Assert.assertEquals(Lane.SYNC, Lane.of(MessageTypes.BLOCK_CHAIN_INVENTORY));
+  }
+}
@@ -1,5 +1,65 @@
 package org.tron.core.services;
 
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.api.DatabaseGrpc;
+import org.tron.api.GrpcAPI.EmptyMessage;
+import org.tron.common.overlay.server.NettyTransport;
+import org.tron.common.overlay.server.NettyTransportTest;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+
 public class RpcApiServiceTest {
 
+  private static final String dbPath = "output_rpcApiService_test";
+
+  private static AnnotationConfigApplicationContext context;
+  private static RpcApiService rpcApiService;
+  private static NettyTransport transport;
+
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    Args.getInstance().setRpcShareEventLoops(true);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+    rpcApiService = context.getBean(RpcApiService.class);
+    transport = context.getBean(NettyTransport.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    context.destroy();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  @Test
+  public void testSharedEventLoops() throws InterruptedException {
+    rpcApiService.start();
+    ManagedChannel channel = ManagedChannelBuilder
+        .forAddress("127.0.0.1", Args.getInstance().getRpcPort())
+        .usePlaintext(true)
+        .build();
+    try {
+      Assert.assertNotNull(DatabaseGrpc.newBlockingStub(channel)
+          .getDynamicProperties(EmptyMessage.getDefaultInstance()));
+    } finally {
+      channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // stopping the grpc server leaves the shared event loops to the peer connections
+    rpcApiService.stop();
+    Assert.assertFalse(transport.getBossGroup().isShuttingDown());
+    Assert.assertFalse(transport.getWorkerGroup().isShuttingDown());
+    NettyTransportTest.assertConnects(transport);
+  }
 }